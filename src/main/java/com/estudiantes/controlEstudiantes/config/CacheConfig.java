@@ -0,0 +1,10 @@
+package com.estudiantes.controlEstudiantes.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+// Las cachés (Caffeine) se definen en application.properties: spring.cache.*
+@Configuration
+@EnableCaching
+public class CacheConfig {
+}
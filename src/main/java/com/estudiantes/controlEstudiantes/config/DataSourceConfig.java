@@ -0,0 +1,92 @@
+package com.estudiantes.controlEstudiantes.config;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Enrutamiento de lecturas a réplicas, activo solo si datasource.replicas.urls tiene valor.
+ *
+ * El DataSource principal es un LazyConnectionDataSourceProxy: la conexión real se pide recién en la
+ * primera sentencia, cuando ya se sabe si la transacción es readOnly. Las transacciones readOnly van a
+ * las réplicas (ReplicasLecturaDataSource) y el resto a la primaria.
+ *
+ * Una lectura que decide una escritura (por ejemplo, los chequeos puedeEditar... y puedeModificar... de
+ * los servicios) no se marca readOnly: así lee de la primaria y no de una réplica que puede estar atrasada.
+ */
+@Configuration
+@ConditionalOnExpression("!'${datasource.replicas.urls:}'.isBlank()")
+public class DataSourceConfig {
+    
+    @Value("${datasource.replicas.urls}")
+    private String[] urlsReplicas;
+    
+    @Value("${datasource.replicas.username:${spring.datasource.username}}")
+    private String usuarioReplicas;
+    
+    @Value("${datasource.replicas.password:${spring.datasource.password}}")
+    private String passwordReplicas;
+    
+    @Value("${datasource.replicas.reintento-ms:30000}")
+    private long reintentoMs;
+    
+    @Value("${datasource.replicas.timeout-conexion-ms:2000}")
+    private long timeoutConexionMs;
+    
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource dataSourcePrimaria(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+    
+    @Bean
+    public ReplicasLecturaDataSource dataSourceReplicas(HikariDataSource dataSourcePrimaria,
+                                                        ObjectProvider<MeterRegistry> meterRegistry) {
+        List<HikariDataSource> replicas = new ArrayList<>();
+        for (String url : urlsReplicas) {
+            if (!url.isBlank()) {
+                replicas.add(crearPoolReplica(url.trim(), replicas.size(), meterRegistry));
+            }
+        }
+        return new ReplicasLecturaDataSource(replicas, dataSourcePrimaria, reintentoMs);
+    }
+    
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource dataSourcePrimaria, ReplicasLecturaDataSource dataSourceReplicas) {
+        LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy(dataSourcePrimaria);
+        proxy.setReadOnlyDataSource(dataSourceReplicas);
+        return proxy;
+    }
+    
+    private HikariDataSource crearPoolReplica(String url, int indice, ObjectProvider<MeterRegistry> meterRegistry) {
+        HikariConfig config = new HikariConfig();
+        config.setPoolName("replica-" + indice);
+        config.setJdbcUrl(url);
+        config.setUsername(usuarioReplicas);
+        config.setPassword(passwordReplicas);
+        config.setReadOnly(true);
+        // Una réplica caída no debe demorar cada lectura ni impedir que la aplicación arranque
+        config.setConnectionTimeout(timeoutConexionMs);
+        config.setInitializationFailTimeout(-1);
+        // Spring Boot solo publica las métricas hikaricp.* de los pools que son beans; los de las réplicas no lo son
+        meterRegistry.ifAvailable(config::setMetricRegistry);
+        return new HikariDataSource(config);
+    }
+}
@@ -0,0 +1,30 @@
+package com.estudiantes.controlEstudiantes.config;
+
+import java.util.logging.Logger;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+
+/**
+ * Avisa si el perfil hilos-virtuales se activa en una JVM sin hilos virtuales: Spring Boot ignora
+ * spring.threads.virtual.enabled antes de Java 21 y la aplicación sigue con hilos de plataforma.
+ */
+@Configuration
+@Profile("hilos-virtuales")
+public class HilosVirtualesConfig {
+    
+    private static final Logger logger = Logger.getLogger(HilosVirtualesConfig.class.getName());
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void verificarVersionDeJava() {
+        int version = Runtime.version().feature();
+        if (version < 21) {
+            logger.warning("Perfil hilos-virtuales activo en Java " + version
+                    + ": se necesita Java 21, las peticiones se atienden con hilos de plataforma");
+        } else {
+            logger.info("Peticiones, tareas @Async y @Scheduled atendidas con hilos virtuales");
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.estudiantes.controlEstudiantes.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Tiempos de los servicios (@Timed a nivel de clase) en el timer servicios, con las etiquetas class,
+ * method y exception. Los repositorios los mide Spring Boot en spring.data.repository.invocations y
+ * las etapas del filtro JWT se miden en AuthTokenFilter.
+ *
+ * Los timers publican histogramas (contadores por intervalo que Prometheus agrega entre instancias) y
+ * no percentiles calculados en la aplicación: registrar una llamada es incrementar un contador.
+ */
+@Configuration
+public class MetricasConfig {
+    
+    public static final String TIMER_SERVICIOS = "servicios";
+    
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+}
@@ -0,0 +1,156 @@
+package com.estudiantes.controlEstudiantes.config;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+import java.util.regex.Pattern;
+
+/**
+ * Tiempos y filas de las sentencias SQL agrupados por forma: el SQL con literales y listas de
+ * parámetros reemplazados por ?, así las variantes de una misma consulta suman juntas. Solo se mide
+ * la fracción muestreo de las sentencias, y solo se registran en el log las que superan el umbral.
+ *
+ * Las formas distintas se acotan a MAX_FORMAS; las que llegan después se acumulan en OTRAS.
+ */
+public class PerfiladorSql {
+    
+    private static final Logger logger = Logger.getLogger(PerfiladorSql.class.getName());
+    
+    static final int MAX_FORMAS = 1000;
+    static final String OTRAS = "(otras consultas)";
+    
+    // SQL textual ya normalizado que se recuerda; pasado el límite se normaliza en cada ejecución
+    private static final int MAX_SQL_RECORDADO = 5000;
+    
+    private static final Pattern TEXTO = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMERO = Pattern.compile("(?<![\\w.$])-?\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern LISTA = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)+\\s*\\)");
+    private static final Pattern ESPACIOS = Pattern.compile("\\s+");
+    
+    private final double muestreo;
+    private final long umbralLentoNanos;
+    
+    private final Map<String, Estadistica> porForma = new ConcurrentHashMap<>();
+    private final Map<String, Estadistica> porSql = new ConcurrentHashMap<>();
+    
+    public PerfiladorSql(double muestreo, long umbralLentoMs) {
+        this.muestreo = muestreo;
+        this.umbralLentoNanos = TimeUnit.MILLISECONDS.toNanos(umbralLentoMs);
+    }
+    
+    public double getMuestreo() {
+        return muestreo;
+    }
+    
+    // Decide si la sentencia que se está preparando se mide
+    public boolean muestrear() {
+        return muestreo >= 1 || (muestreo > 0 && ThreadLocalRandom.current().nextDouble() < muestreo);
+    }
+    
+    // Registra una ejecución; las filas se suman después sobre la estadística devuelta
+    public Estadistica registrarEjecucion(String sql, long nanos) {
+        Estadistica estadistica = porSql.get(sql);
+        if (estadistica == null) {
+            estadistica = estadisticaDeForma(normalizar(sql));
+            if (porSql.size() < MAX_SQL_RECORDADO) {
+                porSql.put(sql, estadistica);
+            }
+        }
+        estadistica.ejecuciones.increment();
+        estadistica.nanos.add(nanos);
+        estadistica.maximoNanos.accumulateAndGet(nanos, Math::max);
+        
+        if (nanos >= umbralLentoNanos) {
+            logger.warning(() -> "Consulta lenta (" + TimeUnit.NANOSECONDS.toMillis(nanos) + " ms): " + sql);
+        }
+        return estadistica;
+    }
+    
+    // Formas ordenadas por tiempo total, de mayor a menor
+    public List<ResumenConsulta> obtenerMasCostosas(int limite) {
+        List<ResumenConsulta> resumenes = new ArrayList<>();
+        porForma.forEach((forma, estadistica) -> resumenes.add(new ResumenConsulta(forma, estadistica)));
+        resumenes.sort(Comparator.comparingDouble(ResumenConsulta::getTiempoTotalMs).reversed());
+        return resumenes.subList(0, Math.min(limite, resumenes.size()));
+    }
+    
+    public void reiniciar() {
+        porSql.clear();
+        porForma.clear();
+    }
+    
+    static String normalizar(String sql) {
+        String forma = TEXTO.matcher(sql).replaceAll("?");
+        forma = NUMERO.matcher(forma).replaceAll("?");
+        forma = LISTA.matcher(forma).replaceAll("(?...)");
+        return ESPACIOS.matcher(forma).replaceAll(" ").trim();
+    }
+    
+    private Estadistica estadisticaDeForma(String forma) {
+        Estadistica estadistica = porForma.get(forma);
+        if (estadistica != null) {
+            return estadistica;
+        }
+        return porForma.computeIfAbsent(porForma.size() < MAX_FORMAS ? forma : OTRAS, k -> new Estadistica());
+    }
+    
+    public static final class Estadistica {
+        private final LongAdder ejecuciones = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+        private final LongAdder filas = new LongAdder();
+        private final AtomicLong maximoNanos = new AtomicLong();
+        
+        public void sumarFilas(long cantidad) {
+            filas.add(cantidad);
+        }
+    }
+    
+    public static final class ResumenConsulta {
+        private final String sql;
+        private final long ejecuciones;
+        private final double tiempoTotalMs;
+        private final double tiempoPromedioMs;
+        private final double tiempoMaximoMs;
+        private final long filas;
+        
+        private ResumenConsulta(String sql, Estadistica estadistica) {
+            this.sql = sql;
+            this.ejecuciones = estadistica.ejecuciones.sum();
+            this.tiempoTotalMs = estadistica.nanos.sum() / 1_000_000.0;
+            this.tiempoPromedioMs = ejecuciones == 0 ? 0 : tiempoTotalMs / ejecuciones;
+            this.tiempoMaximoMs = estadistica.maximoNanos.get() / 1_000_000.0;
+            this.filas = estadistica.filas.sum();
+        }
+        
+        public String getSql() {
+            return sql;
+        }
+        
+        public long getEjecuciones() {
+            return ejecuciones;
+        }
+        
+        public double getTiempoTotalMs() {
+            return tiempoTotalMs;
+        }
+        
+        public double getTiempoPromedioMs() {
+            return tiempoPromedioMs;
+        }
+        
+        public double getTiempoMaximoMs() {
+            return tiempoMaximoMs;
+        }
+        
+        public long getFilas() {
+            return filas;
+        }
+    }
+}
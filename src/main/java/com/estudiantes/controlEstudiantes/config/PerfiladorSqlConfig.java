@@ -0,0 +1,45 @@
+package com.estudiantes.controlEstudiantes.config;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Perfilado de SQL por muestreo en lugar de spring.jpa.show-sql: envuelve el DataSource de la
+ * aplicación en un PerfiladorSqlDataSource y publica el resumen en /actuator/sqltop.
+ */
+@Configuration
+@ConditionalOnProperty(name = "sql.perfilado.habilitado", havingValue = "true", matchIfMissing = true)
+public class PerfiladorSqlConfig {
+    
+    @Bean
+    public PerfiladorSql perfiladorSql(@Value("${sql.perfilado.muestreo:0.1}") double muestreo,
+                                       @Value("${sql.perfilado.umbral-lento-ms:200}") long umbralLentoMs) {
+        return new PerfiladorSql(muestreo, umbralLentoMs);
+    }
+    
+    @Bean
+    public SqlTopEndpoint sqlTopEndpoint(PerfiladorSql perfiladorSql) {
+        return new SqlTopEndpoint(perfiladorSql);
+    }
+    
+    // Estático para que el post-procesador exista antes que el DataSource; el perfilador se pide al envolver
+    @Bean
+    public static BeanPostProcessor perfiladorSqlDataSource(ObjectProvider<PerfiladorSql> perfiladorSql) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof PerfiladorSqlDataSource)
+                        && "dataSource".equals(beanName)) {
+                    return new PerfiladorSqlDataSource(dataSource, perfiladorSql.getObject());
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,118 @@
+package com.estudiantes.controlEstudiantes.config;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * DataSource que mide las sentencias elegidas por el muestreo de PerfiladorSql: tiempo de cada
+ * execute* y filas devueltas o modificadas. Las sentencias no muestreadas se entregan sin envolver,
+ * así que no pagan más que el sorteo.
+ */
+public class PerfiladorSqlDataSource extends DelegatingDataSource {
+    
+    private final PerfiladorSql perfilador;
+    
+    public PerfiladorSqlDataSource(DataSource destino, PerfiladorSql perfilador) {
+        super(destino);
+        this.perfilador = perfilador;
+    }
+    
+    @Override
+    public Connection getConnection() throws SQLException {
+        return perfilar(super.getConnection());
+    }
+    
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return perfilar(super.getConnection(username, password));
+    }
+    
+    private Connection perfilar(Connection conexion) {
+        return envolver(Connection.class, (proxy, metodo, argumentos) -> {
+            Object resultado = invocar(conexion, metodo, argumentos);
+            String nombre = metodo.getName();
+            boolean preparada = "prepareStatement".equals(nombre) || "prepareCall".equals(nombre);
+            if ((preparada || "createStatement".equals(nombre)) && perfilador.muestrear()) {
+                return medirSentencia(metodo.getReturnType(), (Statement) resultado,
+                        preparada ? (String) argumentos[0] : null);
+            }
+            return resultado;
+        });
+    }
+    
+    // sqlPreparado es null en los Statement simples, que reciben el SQL en cada execute
+    private Object medirSentencia(Class<?> tipo, Statement sentencia, String sqlPreparado) {
+        return envolver(tipo, (proxy, metodo, argumentos) -> {
+            if (!metodo.getName().startsWith("execute")) {
+                return invocar(sentencia, metodo, argumentos);
+            }
+            String sql = argumentos != null && argumentos.length > 0 && argumentos[0] instanceof String texto
+                    ? texto : sqlPreparado;
+            long inicio = System.nanoTime();
+            Object resultado = invocar(sentencia, metodo, argumentos);
+            if (sql == null) {
+                return resultado;
+            }
+            PerfiladorSql.Estadistica estadistica = perfilador.registrarEjecucion(sql, System.nanoTime() - inicio);
+            
+            if (resultado instanceof ResultSet filas) {
+                return contarFilas(filas, estadistica);
+            }
+            if (resultado instanceof Number modificadas) {
+                estadistica.sumarFilas(modificadas.longValue());
+            } else if (resultado instanceof int[] lote) {
+                for (int modificadas : lote) {
+                    // Statement.SUCCESS_NO_INFO (-2) no informa cuántas
+                    estadistica.sumarFilas(Math.max(0, modificadas));
+                }
+            } else if (resultado instanceof long[] lote) {
+                for (long modificadas : lote) {
+                    estadistica.sumarFilas(Math.max(0, modificadas));
+                }
+            }
+            return resultado;
+        });
+    }
+    
+    private ResultSet contarFilas(ResultSet filas, PerfiladorSql.Estadistica estadistica) {
+        return envolver(ResultSet.class, (proxy, metodo, argumentos) -> {
+            Object resultado = invocar(filas, metodo, argumentos);
+            if ("next".equals(metodo.getName()) && Boolean.TRUE.equals(resultado)) {
+                estadistica.sumarFilas(1);
+            }
+            return resultado;
+        });
+    }
+    
+    private static <T> T envolver(Class<T> tipo, InvocationHandler manejador) {
+        return tipo.cast(Proxy.newProxyInstance(tipo.getClassLoader(), new Class<?>[] {tipo},
+                (proxy, metodo, argumentos) -> {
+                    switch (metodo.getName()) {
+                        case "equals":
+                            return proxy == argumentos[0];
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        default:
+                            return manejador.invoke(proxy, metodo, argumentos);
+                    }
+                }));
+    }
+    
+    private static Object invocar(Object destino, Method metodo, Object[] argumentos) throws Throwable {
+        try {
+            return metodo.invoke(destino, argumentos);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.estudiantes.controlEstudiantes.config;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.logging.Logger;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+/**
+ * DataSource de solo lectura que reparte las conexiones entre las réplicas en round-robin.
+ * Una réplica que no entrega conexión queda fuera de la rotación durante un intervalo; si ninguna
+ * está disponible, la conexión se toma de la primaria para que las lecturas no fallen.
+ */
+public class ReplicasLecturaDataSource extends AbstractDataSource implements AutoCloseable {
+    
+    private static final Logger logger = Logger.getLogger(ReplicasLecturaDataSource.class.getName());
+    
+    private final List<DataSource> replicas;
+    private final DataSource primaria;
+    private final long reintentoMs;
+    
+    // Momento (epoch ms) hasta el que cada réplica queda fuera de la rotación; 0 = disponible
+    private final AtomicLongArray fueraDeServicioHasta;
+    private final AtomicInteger siguiente = new AtomicInteger();
+    
+    public ReplicasLecturaDataSource(List<? extends DataSource> replicas, DataSource primaria, long reintentoMs) {
+        this.replicas = new ArrayList<>(replicas);
+        this.primaria = primaria;
+        this.reintentoMs = reintentoMs;
+        this.fueraDeServicioHasta = new AtomicLongArray(replicas.size());
+    }
+    
+    @Override
+    public Connection getConnection() throws SQLException {
+        return obtenerConexion(DataSource::getConnection);
+    }
+    
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return obtenerConexion(dataSource -> dataSource.getConnection(username, password));
+    }
+    
+    public int getReplicasDisponibles() {
+        long ahora = System.currentTimeMillis();
+        int disponibles = 0;
+        for (int i = 0; i < replicas.size(); i++) {
+            if (fueraDeServicioHasta.get(i) <= ahora) {
+                disponibles++;
+            }
+        }
+        return disponibles;
+    }
+    
+    private Connection obtenerConexion(ProveedorConexion proveedor) throws SQLException {
+        int total = replicas.size();
+        int inicio = Math.floorMod(siguiente.getAndIncrement(), total);
+        long ahora = System.currentTimeMillis();
+        
+        for (int i = 0; i < total; i++) {
+            int indice = (inicio + i) % total;
+            if (fueraDeServicioHasta.get(indice) > ahora) {
+                continue;
+            }
+            try {
+                Connection conexion = proveedor.obtener(replicas.get(indice));
+                if (fueraDeServicioHasta.getAndSet(indice, 0) != 0) {
+                    logger.info("Réplica de lectura " + indice + " disponible nuevamente");
+                }
+                return conexion;
+            } catch (SQLException e) {
+                if (fueraDeServicioHasta.getAndSet(indice, ahora + reintentoMs) == 0) {
+                    logger.warning("Réplica de lectura " + indice + " sin conexión, fuera de rotación por "
+                            + reintentoMs + " ms: " + e.getMessage());
+                }
+            }
+        }
+        
+        // Ninguna réplica disponible: se lee de la primaria, marcando la conexión como de solo lectura
+        Connection conexion = proveedor.obtener(primaria);
+        conexion.setReadOnly(true);
+        return conexion;
+    }
+    
+    @Override
+    public void close() throws Exception {
+        for (DataSource replica : replicas) {
+            if (replica instanceof AutoCloseable cerrable) {
+                cerrable.close();
+            }
+        }
+    }
+    
+    @FunctionalInterface
+    private interface ProveedorConexion {
+        Connection obtener(DataSource dataSource) throws SQLException;
+    }
+}
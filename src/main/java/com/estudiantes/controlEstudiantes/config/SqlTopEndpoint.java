@@ -0,0 +1,38 @@
+package com.estudiantes.controlEstudiantes.config;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+
+/**
+ * /actuator/sqltop: las formas de consulta con más tiempo acumulado según PerfiladorSql.
+ * Las cantidades son de las sentencias muestreadas; DELETE reinicia los acumulados.
+ */
+@Endpoint(id = "sqltop")
+public class SqlTopEndpoint {
+    
+    private static final int LIMITE_POR_DEFECTO = 20;
+    
+    private final PerfiladorSql perfilador;
+    
+    public SqlTopEndpoint(PerfiladorSql perfilador) {
+        this.perfilador = perfilador;
+    }
+    
+    @ReadOperation
+    public Map<String, Object> consultasMasCostosas(@Nullable Integer limite) {
+        Map<String, Object> respuesta = new LinkedHashMap<>();
+        respuesta.put("muestreo", perfilador.getMuestreo());
+        respuesta.put("consultas", perfilador.obtenerMasCostosas(limite != null ? Math.max(1, limite) : LIMITE_POR_DEFECTO));
+        return respuesta;
+    }
+    
+    @DeleteOperation
+    public void reiniciar() {
+        perfilador.reiniciar();
+    }
+}
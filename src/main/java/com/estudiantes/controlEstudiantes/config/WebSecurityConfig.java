@@ -3,8 +3,10 @@ package com.estudiantes.controlEstudiantes.config;
 import java.util.Arrays;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
@@ -23,8 +25,11 @@ import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
 import com.estudiantes.controlEstudiantes.security.AuthEntryPointJwt;
 import com.estudiantes.controlEstudiantes.security.AuthTokenFilter;
+import com.estudiantes.controlEstudiantes.security.CodificadorBcryptAcotado;
 import com.estudiantes.controlEstudiantes.security.UserDetailsServiceImpl;
 
+import io.micrometer.core.instrument.MeterRegistry;
+
 @Configuration
 @EnableWebSecurity
 @EnableMethodSecurity(prePostEnabled = true)
@@ -36,6 +41,16 @@ public class WebSecurityConfig {
     @Autowired
     private AuthEntryPointJwt unauthorizedHandler;
     
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    // Hilos del pool de BCrypt (0 = uno por procesador) y tareas que pueden esperar en su cola (0 = 4 por hilo)
+    @Value("${seguridad.bcrypt.hilos:0}")
+    private int hilosBcrypt;
+    
+    @Value("${seguridad.bcrypt.cola-maxima:0}")
+    private int colaMaximaBcrypt;
+    
     @Bean
     public AuthTokenFilter authenticationJwtTokenFilter() {
         return new AuthTokenFilter();
@@ -54,8 +69,18 @@ public class WebSecurityConfig {
         return authConfig.getAuthenticationManager();
     }
     
+    // Login, alta y cambio de contraseña: BCrypt en un pool acotado, fuera de los hilos de Tomcat
     @Bean
+    @Primary
     public PasswordEncoder passwordEncoder() {
+        int hilos = hilosBcrypt > 0 ? hilosBcrypt : Runtime.getRuntime().availableProcessors();
+        int colaMaxima = colaMaximaBcrypt > 0 ? colaMaximaBcrypt : 4 * hilos;
+        return new CodificadorBcryptAcotado(bcryptPasswordEncoder(), hilos, colaMaxima, meterRegistry);
+    }
+    
+    // BCrypt directo, para quien ya reparte el cifrado en sus propios hilos (importación masiva)
+    @Bean
+    public BCryptPasswordEncoder bcryptPasswordEncoder() {
         return new BCryptPasswordEncoder();
     }
     
@@ -69,7 +94,9 @@ public class WebSecurityConfig {
                 auth.requestMatchers("/api/auth/**").permitAll()
                     .requestMatchers("/api/test/**").permitAll()
                     .requestMatchers("/v3/api-docs/**", "/swagger-ui/**", "/swagger-ui.html").permitAll()
-                    .requestMatchers("/actuator/**").permitAll()
+                    // Solo health es público: el resto de actuator expone configuración y permite vaciar cachés
+                    .requestMatchers("/actuator/health", "/actuator/health/**").permitAll()
+                    .requestMatchers("/actuator/**").hasRole("ADMIN")
                     .requestMatchers("OPTIONS", "/**").permitAll() // Permitir todas las peticiones OPTIONS (CORS preflight)
                     .requestMatchers("/api/estudiantes").hasRole("ADMIN")
                     .requestMatchers("/api/estudiantes/crear").hasRole("ADMIN")
@@ -14,12 +14,15 @@ import org.springframework.web.bind.annotation.RestController;
 
 import com.estudiantes.controlEstudiantes.dto.LoginRequestDTO;
 import com.estudiantes.controlEstudiantes.dto.LoginResponseDTO;
+import com.estudiantes.controlEstudiantes.exception.ServicioSaturadoException;
+import com.estudiantes.controlEstudiantes.security.LimitadorLogin;
 import com.estudiantes.controlEstudiantes.service.AuthService;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 
 @CrossOrigin(origins = "*", maxAge = 3600)
@@ -33,14 +36,22 @@ public class AuthController {
     @Autowired
     AuthService authService;
     
+    @Autowired
+    LimitadorLogin limitadorLogin;
+    
     @PostMapping({"/login", "/signin"})
     @Operation(summary = "Iniciar sesión", description = "Permite a un usuario (admin o estudiante) iniciar sesión")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Login exitoso"),
         @ApiResponse(responseCode = "401", description = "Credenciales inválidas"),
-        @ApiResponse(responseCode = "400", description = "Datos de entrada inválidos")
+        @ApiResponse(responseCode = "400", description = "Datos de entrada inválidos"),
+        @ApiResponse(responseCode = "429", description = "Demasiados intentos desde la IP o para el email")
     })
-    public ResponseEntity<LoginResponseDTO> authenticateUser(@Valid @RequestBody LoginRequestDTO loginRequest) {
+    public ResponseEntity<LoginResponseDTO> authenticateUser(@Valid @RequestBody LoginRequestDTO loginRequest,
+                                                             HttpServletRequest request) {
+        // Antes de consultar la base o verificar la contraseña, y fuera del try para no registrar cada rechazo como error
+        limitadorLogin.verificar(request.getRemoteAddr(), loginRequest.getEmail());
+        
         try {
             logger.info("=== INICIO LOGIN ===");
             logger.info("Email recibido: " + loginRequest.getEmail());
@@ -54,9 +65,14 @@ public class AuthController {
             
             logger.info("Llamando a authService...");
             LoginResponseDTO response = authService.authenticateUser(loginRequest);
+            limitadorLogin.registrarExito(request.getRemoteAddr(), loginRequest.getEmail());
             logger.info("Login exitoso para: " + loginRequest.getEmail());
             
             return ResponseEntity.ok(response);
+        } catch (ServicioSaturadoException e) {
+            // Saturación del pool de BCrypt (503): sin registrar cada rechazo como error ni cobrar el intento
+            limitadorLogin.devolverIntento(request.getRemoteAddr(), loginRequest.getEmail());
+            throw e;
         } catch (Exception e) {
             logger.severe("=== ERROR EN LOGIN ===");
             logger.severe("Error para usuario: " + loginRequest.getEmail());
@@ -1,10 +1,14 @@
 package com.estudiantes.controlEstudiantes.controller;
 
+import java.io.IOException;
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -17,14 +21,23 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
+import com.estudiantes.controlEstudiantes.dto.CalificacionLoteRequestDTO;
+import com.estudiantes.controlEstudiantes.dto.CalificacionLoteResponseDTO;
+import com.estudiantes.controlEstudiantes.dto.CalificacionPaginaDTO;
 import com.estudiantes.controlEstudiantes.dto.CalificacionRequestDTO;
 import com.estudiantes.controlEstudiantes.dto.CalificacionResponseDTO;
+import com.estudiantes.controlEstudiantes.dto.EstadisticasMateriaDTO;
+import com.estudiantes.controlEstudiantes.dto.PosicionRankingDTO;
 import com.estudiantes.controlEstudiantes.entity.RolEstudiante;
 import com.estudiantes.controlEstudiantes.exception.ResourceNotFoundException;
+import com.estudiantes.controlEstudiantes.exception.SolicitudInvalidaException;
 import com.estudiantes.controlEstudiantes.security.UserDetailsImpl;
 import com.estudiantes.controlEstudiantes.service.CalificacionService;
+import com.estudiantes.controlEstudiantes.service.ExportacionCalificacionesService;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -32,6 +45,7 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 
 @CrossOrigin(origins = "*", maxAge = 3600)
@@ -44,6 +58,9 @@ public class CalificacionController {
     @Autowired
     private CalificacionService calificacionService;
     
+    @Autowired
+    private ExportacionCalificacionesService exportacionCalificacionesService;
+    
     @GetMapping
     @PreAuthorize("hasRole('ADMIN')")
     @Operation(summary = "Obtener todas las calificaciones", description = "Solo accesible para administradores")
@@ -56,6 +73,71 @@ public class CalificacionController {
         return ResponseEntity.ok(calificaciones);
     }
     
+    @GetMapping("/pagina")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Obtener calificaciones paginadas por cursor", 
+               description = "Devuelve las calificaciones ordenadas por ID a partir del cursor indicado. Solo accesible para administradores")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Página de calificaciones obtenida exitosamente"),
+        @ApiResponse(responseCode = "403", description = "Acceso denegado")
+    })
+    public ResponseEntity<CalificacionPaginaDTO> obtenerPaginaCalificaciones(
+            @Parameter(description = "ID de la última calificación recibida (siguienteCursor de la página anterior)") 
+            @RequestParam(required = false) Long despuesDe,
+            @Parameter(description = "Cantidad de calificaciones por página (máximo 1000)") 
+            @RequestParam(defaultValue = "100") int tamano) {
+        CalificacionPaginaDTO pagina = calificacionService.obtenerPaginaCalificaciones(despuesDe, tamano);
+        return ResponseEntity.ok(pagina);
+    }
+    
+    @GetMapping("/stream")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Transmitir todas las calificaciones en formato NDJSON", 
+               description = "Escribe una calificación por línea a medida que se leen de la base de datos. Solo accesible para administradores")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Calificaciones transmitidas exitosamente"),
+        @ApiResponse(responseCode = "403", description = "Acceso denegado")
+    })
+    public void transmitirCalificaciones(HttpServletResponse response) throws IOException {
+        response.setContentType("application/x-ndjson");
+        response.setCharacterEncoding("UTF-8");
+        calificacionService.escribirCalificacionesNdjson(response.getOutputStream());
+    }
+    
+    @GetMapping("/exportar")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Exportar calificaciones a CSV o XLSX", 
+               description = "Genera el archivo a medida que lee las calificaciones, con filtros opcionales. Solo accesible para administradores")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Archivo generado exitosamente"),
+        @ApiResponse(responseCode = "400", description = "Formato no admitido"),
+        @ApiResponse(responseCode = "403", description = "Acceso denegado")
+    })
+    public void exportarCalificaciones(
+            @Parameter(description = "Formato del archivo: csv o xlsx") 
+            @RequestParam(defaultValue = "csv") String formato,
+            @Parameter(description = "ID de la materia") @RequestParam(required = false) Long materiaId,
+            @Parameter(description = "ID del profesor") @RequestParam(required = false) Long profesorId,
+            @Parameter(description = "Carrera del estudiante") @RequestParam(required = false) String carrera,
+            @Parameter(description = "Fecha inicial (AAAA-MM-DD), inclusive") 
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @Parameter(description = "Fecha final (AAAA-MM-DD), inclusive") 
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta,
+            HttpServletResponse response) throws IOException {
+        if ("xlsx".equalsIgnoreCase(formato)) {
+            response.setContentType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet");
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"calificaciones.xlsx\"");
+            exportacionCalificacionesService.exportarXlsx(response.getOutputStream(), materiaId, profesorId, carrera, desde, hasta);
+        } else if ("csv".equalsIgnoreCase(formato)) {
+            response.setContentType("text/csv");
+            response.setCharacterEncoding("UTF-8");
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"calificaciones.csv\"");
+            exportacionCalificacionesService.exportarCsv(response.getOutputStream(), materiaId, profesorId, carrera, desde, hasta);
+        } else {
+            throw new SolicitudInvalidaException("Formato no admitido: " + formato + " (use csv o xlsx)");
+        }
+    }
+    
     @PostMapping("/crear")
     @PreAuthorize("hasRole('PROFESOR')")
     @Operation(summary = "Crear una nueva calificación", description = "Solo accesible para profesores")
@@ -73,6 +155,24 @@ public class CalificacionController {
         return ResponseEntity.status(HttpStatus.CREATED).body(calificacionCreada);
     }
     
+    @PostMapping("/lote")
+    @PreAuthorize("hasRole('PROFESOR')")
+    @Operation(summary = "Crear calificaciones en lote", 
+               description = "Registra hasta 5000 calificaciones en una sola petición e informa el resultado de cada fila. Solo accesible para profesores")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "201", description = "Lote procesado; cada fila indica si fue creada o el motivo del rechazo"),
+        @ApiResponse(responseCode = "400", description = "Datos de entrada inválidos"),
+        @ApiResponse(responseCode = "403", description = "Acceso denegado")
+    })
+    public ResponseEntity<CalificacionLoteResponseDTO> crearCalificacionesEnLote(
+            @Valid @RequestBody CalificacionLoteRequestDTO calificacionLoteRequestDTO,
+            Authentication authentication) {
+        UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
+        CalificacionLoteResponseDTO resultado = calificacionService.crearCalificacionesEnLote(
+                calificacionLoteRequestDTO.getCalificaciones(), userDetails.getEmail());
+        return ResponseEntity.status(HttpStatus.CREATED).body(resultado);
+    }
+    
     @PutMapping("/{id}")
     @PreAuthorize("hasRole('PROFESOR')")
     @Operation(summary = "Actualizar calificación", 
@@ -129,11 +229,13 @@ public class CalificacionController {
                description = "Los estudiantes solo pueden ver sus calificaciones, profesores y admins pueden ver todas")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Calificaciones obtenidas exitosamente"),
+        @ApiResponse(responseCode = "304", description = "Sin cambios desde el ETag enviado en If-None-Match"),
         @ApiResponse(responseCode = "403", description = "Acceso denegado")
     })
     public ResponseEntity<List<CalificacionResponseDTO>> obtenerCalificacionesPorEstudiante(
             @Parameter(description = "ID del estudiante") @PathVariable Long estudianteId,
-            Authentication authentication) {
+            Authentication authentication,
+            WebRequest webRequest) {
         
         UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
         
@@ -142,8 +244,8 @@ public class CalificacionController {
             throw new ResourceNotFoundException("No tiene permisos para ver estas calificaciones");
         }
         
-        List<CalificacionResponseDTO> calificaciones = calificacionService.obtenerCalificacionesPorEstudiante(estudianteId);
-        return ResponseEntity.ok(calificaciones);
+        return RespuestaCondicional.conEtag(webRequest,
+                sinCambios -> calificacionService.obtenerCalificacionesPorEstudianteVersionadas(estudianteId, sinCambios));
     }
     
     @GetMapping("/materia/{materiaId}")
@@ -262,18 +364,139 @@ public class CalificacionController {
         return ResponseEntity.ok(promedio);
     }
     
+    @GetMapping("/ranking/mejores")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('PROFESOR')")
+    @Operation(summary = "Obtener las mejores calificaciones", 
+               description = "Las N notas más altas; a igual nota, la más antigua primero. Solo accesible para administradores y profesores")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Ranking obtenido exitosamente"),
+        @ApiResponse(responseCode = "403", description = "Acceso denegado")
+    })
+    public ResponseEntity<List<CalificacionResponseDTO>> obtenerMejoresCalificaciones(
+            @Parameter(description = "Cantidad de calificaciones (máximo 100)") 
+            @RequestParam(defaultValue = "10") int limite) {
+        List<CalificacionResponseDTO> calificaciones = calificacionService.obtenerMejoresCalificaciones(limite);
+        return ResponseEntity.ok(calificaciones);
+    }
+    
+    @GetMapping("/ranking/mejores/materia/{materiaId}")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('PROFESOR')")
+    @Operation(summary = "Obtener las mejores calificaciones de una materia", 
+               description = "Solo accesible para administradores y profesores")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Ranking obtenido exitosamente"),
+        @ApiResponse(responseCode = "403", description = "Acceso denegado")
+    })
+    public ResponseEntity<List<CalificacionResponseDTO>> obtenerMejoresCalificacionesPorMateria(
+            @Parameter(description = "ID de la materia") @PathVariable Long materiaId,
+            @Parameter(description = "Cantidad de calificaciones (máximo 100)") 
+            @RequestParam(defaultValue = "10") int limite) {
+        List<CalificacionResponseDTO> calificaciones = calificacionService.obtenerMejoresCalificacionesPorMateria(materiaId, limite);
+        return ResponseEntity.ok(calificaciones);
+    }
+    
+    @GetMapping("/ranking/mejores/carrera/{carrera}")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('PROFESOR')")
+    @Operation(summary = "Obtener las mejores calificaciones de los estudiantes de una carrera", 
+               description = "Solo accesible para administradores y profesores")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Ranking obtenido exitosamente"),
+        @ApiResponse(responseCode = "403", description = "Acceso denegado")
+    })
+    public ResponseEntity<List<CalificacionResponseDTO>> obtenerMejoresCalificacionesPorCarrera(
+            @Parameter(description = "Carrera del estudiante") @PathVariable String carrera,
+            @Parameter(description = "Cantidad de calificaciones (máximo 100)") 
+            @RequestParam(defaultValue = "10") int limite) {
+        List<CalificacionResponseDTO> calificaciones = calificacionService.obtenerMejoresCalificacionesPorCarrera(carrera, limite);
+        return ResponseEntity.ok(calificaciones);
+    }
+    
+    @GetMapping("/ranking/mejores/periodo-actual")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('PROFESOR')")
+    @Operation(summary = "Obtener las mejores calificaciones del período académico en curso", 
+               description = "Períodos semestrales (enero-junio, julio-diciembre) según la fecha de la calificación. Solo accesible para administradores y profesores")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Ranking obtenido exitosamente"),
+        @ApiResponse(responseCode = "403", description = "Acceso denegado")
+    })
+    public ResponseEntity<List<CalificacionResponseDTO>> obtenerMejoresCalificacionesPeriodoActual(
+            @Parameter(description = "Cantidad de calificaciones (máximo 100)") 
+            @RequestParam(defaultValue = "10") int limite) {
+        List<CalificacionResponseDTO> calificaciones = calificacionService.obtenerMejoresCalificacionesPeriodoActual(limite);
+        return ResponseEntity.ok(calificaciones);
+    }
+    
+    @GetMapping("/ranking/materia/{materiaId}")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('PROFESOR')")
+    @Operation(summary = "Obtener el ranking de estudiantes de una materia", 
+               description = "Estudiantes ordenados por promedio en la materia, con posición y percentil. Solo accesible para administradores y profesores")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Ranking obtenido exitosamente"),
+        @ApiResponse(responseCode = "403", description = "Acceso denegado")
+    })
+    public ResponseEntity<List<PosicionRankingDTO>> obtenerRankingMateria(
+            @Parameter(description = "ID de la materia") @PathVariable Long materiaId,
+            @Parameter(description = "Cantidad de estudiantes (máximo 100)") 
+            @RequestParam(defaultValue = "10") int limite) {
+        List<PosicionRankingDTO> ranking = calificacionService.obtenerRankingMateria(materiaId, limite);
+        return ResponseEntity.ok(ranking);
+    }
+    
+    @GetMapping("/ranking/materia/{materiaId}/estudiante/{estudianteId}")
+    @Operation(summary = "Obtener la posición de un estudiante en el ranking de una materia", 
+               description = "Los estudiantes solo pueden ver su propia posición")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Posición obtenida exitosamente"),
+        @ApiResponse(responseCode = "404", description = "El estudiante no tiene calificaciones en la materia"),
+        @ApiResponse(responseCode = "403", description = "Acceso denegado")
+    })
+    public ResponseEntity<PosicionRankingDTO> obtenerPosicionEnMateria(
+            @Parameter(description = "ID de la materia") @PathVariable Long materiaId,
+            @Parameter(description = "ID del estudiante") @PathVariable Long estudianteId,
+            Authentication authentication) {
+        
+        UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
+        
+        // Los estudiantes solo pueden ver su propia posición
+        if (userDetails.getRol() == RolEstudiante.ESTUDIANTE && !userDetails.getId().equals(estudianteId)) {
+            throw new ResourceNotFoundException("No tiene permisos para ver esta posición");
+        }
+        
+        PosicionRankingDTO posicion = calificacionService.obtenerPosicionEnMateria(materiaId, estudianteId);
+        return ResponseEntity.ok(posicion);
+    }
+    
+    @GetMapping("/estadisticas/materia/{materiaId}")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('PROFESOR')")
+    @Operation(summary = "Obtener la distribución de notas de una materia", 
+               description = "Cantidad, promedio, mínima, máxima, desviación estándar, porcentaje de aprobación e histograma en intervalos de 0.5. Solo accesible para administradores y profesores")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Estadísticas obtenidas exitosamente"),
+        @ApiResponse(responseCode = "403", description = "Acceso denegado"),
+        @ApiResponse(responseCode = "404", description = "Materia no encontrada")
+    })
+    public ResponseEntity<EstadisticasMateriaDTO> obtenerEstadisticasMateria(
+            @Parameter(description = "ID de la materia") @PathVariable Long materiaId,
+            @Parameter(description = "Solo las calificaciones del período académico en curso") 
+            @RequestParam(defaultValue = "false") boolean soloPeriodoActual) {
+        EstadisticasMateriaDTO estadisticas = calificacionService.obtenerEstadisticasMateria(materiaId, soloPeriodoActual);
+        return ResponseEntity.ok(estadisticas);
+    }
+    
     @GetMapping("/mis-calificaciones")
     @PreAuthorize("hasRole('ESTUDIANTE')")
     @Operation(summary = "Obtener calificaciones del estudiante autenticado", 
                description = "Permite al estudiante ver sus calificaciones")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Calificaciones obtenidas exitosamente"),
+        @ApiResponse(responseCode = "304", description = "Sin cambios desde el ETag enviado en If-None-Match"),
         @ApiResponse(responseCode = "403", description = "Acceso denegado")
     })
-    public ResponseEntity<List<CalificacionResponseDTO>> obtenerMisCalificaciones(Authentication authentication) {
+    public ResponseEntity<List<CalificacionResponseDTO>> obtenerMisCalificaciones(Authentication authentication,
+                                                                                  WebRequest webRequest) {
         UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
-        List<CalificacionResponseDTO> calificaciones = calificacionService.obtenerCalificacionesPorEstudiante(userDetails.getId());
-        return ResponseEntity.ok(calificaciones);
+        return RespuestaCondicional.conEtag(webRequest,
+                sinCambios -> calificacionService.obtenerCalificacionesPorEstudianteVersionadas(userDetails.getId(), sinCambios));
     }
     
     @GetMapping("/calificaciones-asignadas")
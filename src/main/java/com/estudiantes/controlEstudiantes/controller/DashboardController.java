@@ -0,0 +1,46 @@
+package com.estudiantes.controlEstudiantes.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.estudiantes.controlEstudiantes.dto.DashboardEstudianteDTO;
+import com.estudiantes.controlEstudiantes.security.UserDetailsImpl;
+import com.estudiantes.controlEstudiantes.service.DashboardService;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+@CrossOrigin(origins = "*", maxAge = 3600)
+@RestController
+@RequestMapping("/api/dashboard")
+@Tag(name = "Dashboard", description = "API con los datos agregados de la página inicial")
+@SecurityRequirement(name = "Bearer Authentication")
+public class DashboardController {
+    
+    @Autowired
+    private DashboardService dashboardService;
+    
+    @GetMapping("/estudiante")
+    @PreAuthorize("hasRole('ESTUDIANTE')")
+    @Operation(summary = "Obtener el dashboard del estudiante autenticado", 
+               description = "Devuelve en una llamada el perfil, las calificaciones, el promedio general y el promedio por materia")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Dashboard obtenido exitosamente"),
+        @ApiResponse(responseCode = "403", description = "Acceso denegado"),
+        @ApiResponse(responseCode = "404", description = "Estudiante no encontrado")
+    })
+    public ResponseEntity<DashboardEstudianteDTO> obtenerDashboardEstudiante(Authentication authentication) {
+        UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
+        DashboardEstudianteDTO dashboard = dashboardService.obtenerDashboardEstudiante(userDetails.getId());
+        return ResponseEntity.ok(dashboard);
+    }
+}
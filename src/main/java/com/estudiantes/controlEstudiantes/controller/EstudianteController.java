@@ -1,9 +1,12 @@
 package com.estudiantes.controlEstudiantes.controller;
 
+import java.io.InputStream;
 import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
@@ -14,16 +17,20 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import com.estudiantes.controlEstudiantes.dto.EstudianteRequestDTO;
 import com.estudiantes.controlEstudiantes.dto.EstudianteResponseDTO;
+import com.estudiantes.controlEstudiantes.dto.ImportacionEstudiantesResponseDTO;
 import com.estudiantes.controlEstudiantes.entity.RolEstudiante;
 import com.estudiantes.controlEstudiantes.exception.ResourceNotFoundException;
 import com.estudiantes.controlEstudiantes.security.UserDetailsImpl;
 import com.estudiantes.controlEstudiantes.service.EstudianteService;
+import com.estudiantes.controlEstudiantes.service.ImportacionEstudiantesService;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -40,9 +47,14 @@ import jakarta.validation.Valid;
 @SecurityRequirement(name = "Bearer Authentication")
 public class EstudianteController {
     
+    private static final MediaType TEXT_CSV = MediaType.parseMediaType("text/csv");
+    
     @Autowired
     private EstudianteService estudianteService;
     
+    @Autowired
+    private ImportacionEstudiantesService importacionEstudiantesService;
+    
     @GetMapping
     @PreAuthorize("hasRole('ADMIN')")
     @Operation(summary = "Obtener todos los estudiantes", description = "Solo accesible para administradores")
@@ -70,6 +82,24 @@ public class EstudianteController {
         return new ResponseEntity<>(nuevoEstudiante, HttpStatus.CREATED);
     }
     
+    @PostMapping(value = "/importar", consumes = {"text/csv", "application/x-ndjson"})
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Importar estudiantes en forma masiva", 
+               description = "Recibe un CSV con encabezado o un NDJSON (un estudiante por línea) y lo procesa por lotes sin cargarlo completo en memoria. Solo accesible para administradores")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Importación procesada; el reporte detalla las filas rechazadas"),
+        @ApiResponse(responseCode = "415", description = "Formato no soportado"),
+        @ApiResponse(responseCode = "403", description = "Acceso denegado")
+    })
+    public ResponseEntity<ImportacionEstudiantesResponseDTO> importarEstudiantes(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            InputStream cuerpo) {
+        ImportacionEstudiantesResponseDTO reporte = MediaType.parseMediaType(contentType).isCompatibleWith(TEXT_CSV)
+                ? importacionEstudiantesService.importarCsv(cuerpo)
+                : importacionEstudiantesService.importarNdjson(cuerpo);
+        return ResponseEntity.ok(reporte);
+    }
+    
     @GetMapping("/{id}")
     @Operation(summary = "Obtener estudiante por ID", 
                description = "Los estudiantes solo pueden ver su propio perfil, los admins pueden ver cualquiera")
@@ -161,14 +191,17 @@ public class EstudianteController {
     
     @GetMapping("/buscar/nombre")
     @PreAuthorize("hasRole('ADMIN')")
-    @Operation(summary = "Buscar estudiantes por nombre", description = "Solo accesible para administradores")
+    @Operation(summary = "Buscar estudiantes por nombre", 
+               description = "Sin distinguir mayúsculas ni tildes, tolerando errores de tipeo y aceptando fragmentos de palabras; los más parecidos primero. Solo accesible para administradores")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Búsqueda completada"),
         @ApiResponse(responseCode = "403", description = "Acceso denegado")
     })
     public ResponseEntity<List<EstudianteResponseDTO>> buscarPorNombre(
-            @Parameter(description = "Nombre completo o parcial") @RequestParam String nombre) {
-        List<EstudianteResponseDTO> estudiantes = estudianteService.buscarPorNombreCompleto(nombre);
+            @Parameter(description = "Nombre completo o parcial") @RequestParam String nombre,
+            @Parameter(description = "Cantidad máxima de resultados (máximo 200)") 
+            @RequestParam(defaultValue = "50") int limite) {
+        List<EstudianteResponseDTO> estudiantes = estudianteService.buscarPorNombreCompleto(nombre, limite);
         return ResponseEntity.ok(estudiantes);
     }
     
@@ -190,11 +223,11 @@ public class EstudianteController {
     @Operation(summary = "Obtener todos los profesores", description = "Solo accesible para administradores")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Lista de profesores obtenida exitosamente"),
+        @ApiResponse(responseCode = "304", description = "Sin cambios desde el ETag enviado en If-None-Match"),
         @ApiResponse(responseCode = "403", description = "Acceso denegado")
     })
-    public ResponseEntity<List<EstudianteResponseDTO>> obtenerTodosLosProfesores() {
-        List<EstudianteResponseDTO> profesores = estudianteService.obtenerProfesores();
-        return ResponseEntity.ok(profesores);
+    public ResponseEntity<List<EstudianteResponseDTO>> obtenerTodosLosProfesores(WebRequest webRequest) {
+        return RespuestaCondicional.conEtag(webRequest, estudianteService::obtenerProfesoresVersionados);
     }
 
     @GetMapping("/materia/{materiaId}")
@@ -17,9 +17,11 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import com.estudiantes.controlEstudiantes.dto.MateriaRequestDTO;
 import com.estudiantes.controlEstudiantes.dto.MateriaResponseDTO;
+import com.estudiantes.controlEstudiantes.dto.MateriaSugerenciaDTO;
 import com.estudiantes.controlEstudiantes.entity.RolEstudiante;
 import com.estudiantes.controlEstudiantes.exception.ResourceNotFoundException;
 import com.estudiantes.controlEstudiantes.security.UserDetailsImpl;
@@ -48,11 +50,11 @@ public class MateriaController {
     @Operation(summary = "Obtener todas las materias", description = "Solo accesible para administradores y profesores")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Lista de materias obtenida exitosamente"),
+        @ApiResponse(responseCode = "304", description = "Sin cambios desde el ETag enviado en If-None-Match"),
         @ApiResponse(responseCode = "403", description = "Acceso denegado")
     })
-    public ResponseEntity<List<MateriaResponseDTO>> obtenerTodasLasMaterias() {
-        List<MateriaResponseDTO> materias = materiaService.obtenerTodasLasMaterias();
-        return ResponseEntity.ok(materias);
+    public ResponseEntity<List<MateriaResponseDTO>> obtenerTodasLasMaterias(WebRequest webRequest) {
+        return RespuestaCondicional.conEtag(webRequest, materiaService::obtenerCatalogoVersionado);
     }
     
     @PostMapping("/crear")
@@ -200,6 +202,22 @@ public class MateriaController {
         return ResponseEntity.ok(materias);
     }
     
+    @GetMapping("/autocomplete")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('PROFESOR')")
+    @Operation(summary = "Sugerir materias mientras se escribe", 
+               description = "Materias activas cuyo código o alguna palabra del nombre empieza con el texto, sin distinguir mayúsculas ni tildes. Solo accesible para administradores y profesores")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Sugerencias obtenidas exitosamente"),
+        @ApiResponse(responseCode = "403", description = "Acceso denegado")
+    })
+    public ResponseEntity<List<MateriaSugerenciaDTO>> autocompletar(
+            @Parameter(description = "Texto escrito hasta el momento") @RequestParam String q,
+            @Parameter(description = "Cantidad máxima de sugerencias (máximo 20)") 
+            @RequestParam(defaultValue = "10") int limite) {
+        List<MateriaSugerenciaDTO> sugerencias = materiaService.autocompletar(q, limite);
+        return ResponseEntity.ok(sugerencias);
+    }
+    
     @GetMapping("/mis-materias")
     @PreAuthorize("hasRole('PROFESOR')")
     @Operation(summary = "Obtener materias del profesor autenticado", 
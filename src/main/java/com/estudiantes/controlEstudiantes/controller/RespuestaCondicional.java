@@ -0,0 +1,38 @@
+package com.estudiantes.controlEstudiantes.controller;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+
+import com.estudiantes.controlEstudiantes.dto.ListadoVersionadoDTO;
+
+/**
+ * GET condicional para listados con ETag. El servicio lee el sello y, dentro de la misma transacción de solo
+ * lectura, pregunta con checkNotModified si el If-None-Match del cliente coincide: si coincide se responde
+ * 304 sin consultar ni serializar el listado; si no, lee las filas en esa misma conexión. Así el ETag que
+ * checkNotModified deja en la respuesta es siempre el de la lectura que armó el cuerpo, aunque haya varias
+ * réplicas con distinto retraso.
+ *
+ * Cache-Control "private, no-cache" reemplaza al no-store que agrega Spring Security: el navegador puede
+ * guardar el listado pero lo revalida en cada uso.
+ */
+final class RespuestaCondicional {
+    
+    private static final CacheControl REVALIDAR = CacheControl.noCache().cachePrivate();
+    
+    private RespuestaCondicional() {}
+    
+    static <T> ResponseEntity<List<T>> conEtag(WebRequest webRequest,
+                                               Function<Predicate<String>, ListadoVersionadoDTO<T>> listado) {
+        ListadoVersionadoDTO<T> resultado = listado.apply(webRequest::checkNotModified);
+        if (resultado.isSinCambios()) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(REVALIDAR).build();
+        }
+        return ResponseEntity.ok().cacheControl(REVALIDAR).body(resultado.getDatos());
+    }
+}
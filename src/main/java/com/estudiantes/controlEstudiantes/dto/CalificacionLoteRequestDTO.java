@@ -0,0 +1,31 @@
+package com.estudiantes.controlEstudiantes.dto;
+
+import java.util.List;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+public class CalificacionLoteRequestDTO {
+    
+    @NotEmpty(message = "El lote debe contener al menos una calificación")
+    @Size(max = 5000, message = "El lote no puede exceder 5000 calificaciones")
+    @Valid
+    private List<CalificacionRequestDTO> calificaciones;
+    
+    // Constructores
+    public CalificacionLoteRequestDTO() {}
+    
+    public CalificacionLoteRequestDTO(List<CalificacionRequestDTO> calificaciones) {
+        this.calificaciones = calificaciones;
+    }
+    
+    // Getters y Setters
+    public List<CalificacionRequestDTO> getCalificaciones() {
+        return calificaciones;
+    }
+    
+    public void setCalificaciones(List<CalificacionRequestDTO> calificaciones) {
+        this.calificaciones = calificaciones;
+    }
+}
@@ -0,0 +1,135 @@
+package com.estudiantes.controlEstudiantes.dto;
+
+import java.util.List;
+
+public class CalificacionLoteResponseDTO {
+    
+    private Integer total;
+    private Integer creadas;
+    private Integer rechazadas;
+    private List<ResultadoFila> resultados;
+    
+    // Constructores
+    public CalificacionLoteResponseDTO() {}
+    
+    public CalificacionLoteResponseDTO(List<ResultadoFila> resultados) {
+        this.resultados = resultados;
+        this.total = resultados.size();
+        this.creadas = (int) resultados.stream().filter(ResultadoFila::getCreada).count();
+        this.rechazadas = this.total - this.creadas;
+    }
+    
+    // Getters y Setters
+    public Integer getTotal() {
+        return total;
+    }
+    
+    public void setTotal(Integer total) {
+        this.total = total;
+    }
+    
+    public Integer getCreadas() {
+        return creadas;
+    }
+    
+    public void setCreadas(Integer creadas) {
+        this.creadas = creadas;
+    }
+    
+    public Integer getRechazadas() {
+        return rechazadas;
+    }
+    
+    public void setRechazadas(Integer rechazadas) {
+        this.rechazadas = rechazadas;
+    }
+    
+    public List<ResultadoFila> getResultados() {
+        return resultados;
+    }
+    
+    public void setResultados(List<ResultadoFila> resultados) {
+        this.resultados = resultados;
+    }
+    
+    // Resultado de cada fila del lote, en el mismo orden de la petición
+    public static class ResultadoFila {
+        
+        private Integer indice;
+        private Long estudianteId;
+        private Long materiaId;
+        private Boolean creada;
+        private Long calificacionId;
+        private String error;
+        
+        public ResultadoFila() {}
+        
+        public static ResultadoFila creada(int indice, CalificacionRequestDTO fila, Long calificacionId) {
+            ResultadoFila resultado = new ResultadoFila(indice, fila);
+            resultado.creada = true;
+            resultado.calificacionId = calificacionId;
+            return resultado;
+        }
+        
+        public static ResultadoFila rechazada(int indice, CalificacionRequestDTO fila, String error) {
+            ResultadoFila resultado = new ResultadoFila(indice, fila);
+            resultado.creada = false;
+            resultado.error = error;
+            return resultado;
+        }
+        
+        private ResultadoFila(int indice, CalificacionRequestDTO fila) {
+            this.indice = indice;
+            this.estudianteId = fila.getEstudianteId();
+            this.materiaId = fila.getMateriaId();
+        }
+        
+        public Integer getIndice() {
+            return indice;
+        }
+        
+        public void setIndice(Integer indice) {
+            this.indice = indice;
+        }
+        
+        public Long getEstudianteId() {
+            return estudianteId;
+        }
+        
+        public void setEstudianteId(Long estudianteId) {
+            this.estudianteId = estudianteId;
+        }
+        
+        public Long getMateriaId() {
+            return materiaId;
+        }
+        
+        public void setMateriaId(Long materiaId) {
+            this.materiaId = materiaId;
+        }
+        
+        public Boolean getCreada() {
+            return creada;
+        }
+        
+        public void setCreada(Boolean creada) {
+            this.creada = creada;
+        }
+        
+        public Long getCalificacionId() {
+            return calificacionId;
+        }
+        
+        public void setCalificacionId(Long calificacionId) {
+            this.calificacionId = calificacionId;
+        }
+        
+        public String getError() {
+            return error;
+        }
+        
+        public void setError(String error) {
+            this.error = error;
+        }
+    }
+}
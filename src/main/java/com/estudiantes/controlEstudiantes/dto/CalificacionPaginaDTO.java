@@ -0,0 +1,44 @@
+package com.estudiantes.controlEstudiantes.dto;
+
+import java.util.List;
+
+public class CalificacionPaginaDTO {
+    
+    private List<CalificacionResponseDTO> calificaciones;
+    private Long siguienteCursor;
+    private Boolean hayMas;
+    
+    // Constructores
+    public CalificacionPaginaDTO() {}
+    
+    public CalificacionPaginaDTO(List<CalificacionResponseDTO> calificaciones, Long siguienteCursor, Boolean hayMas) {
+        this.calificaciones = calificaciones;
+        this.siguienteCursor = siguienteCursor;
+        this.hayMas = hayMas;
+    }
+    
+    // Getters y Setters
+    public List<CalificacionResponseDTO> getCalificaciones() {
+        return calificaciones;
+    }
+    
+    public void setCalificaciones(List<CalificacionResponseDTO> calificaciones) {
+        this.calificaciones = calificaciones;
+    }
+    
+    public Long getSiguienteCursor() {
+        return siguienteCursor;
+    }
+    
+    public void setSiguienteCursor(Long siguienteCursor) {
+        this.siguienteCursor = siguienteCursor;
+    }
+    
+    public Boolean getHayMas() {
+        return hayMas;
+    }
+    
+    public void setHayMas(Boolean hayMas) {
+        this.hayMas = hayMas;
+    }
+}
@@ -0,0 +1,56 @@
+package com.estudiantes.controlEstudiantes.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+public class DashboardEstudianteDTO {
+    
+    private EstudianteResponseDTO perfil;
+    private BigDecimal promedioGeneral;
+    private List<MateriaPromedioDTO> materias;
+    private List<CalificacionResponseDTO> calificaciones;
+    
+    // Constructores
+    public DashboardEstudianteDTO() {}
+    
+    public DashboardEstudianteDTO(EstudianteResponseDTO perfil, BigDecimal promedioGeneral,
+                                  List<MateriaPromedioDTO> materias, List<CalificacionResponseDTO> calificaciones) {
+        this.perfil = perfil;
+        this.promedioGeneral = promedioGeneral;
+        this.materias = materias;
+        this.calificaciones = calificaciones;
+    }
+    
+    // Getters y Setters
+    public EstudianteResponseDTO getPerfil() {
+        return perfil;
+    }
+    
+    public void setPerfil(EstudianteResponseDTO perfil) {
+        this.perfil = perfil;
+    }
+    
+    public BigDecimal getPromedioGeneral() {
+        return promedioGeneral;
+    }
+    
+    public void setPromedioGeneral(BigDecimal promedioGeneral) {
+        this.promedioGeneral = promedioGeneral;
+    }
+    
+    public List<MateriaPromedioDTO> getMaterias() {
+        return materias;
+    }
+    
+    public void setMaterias(List<MateriaPromedioDTO> materias) {
+        this.materias = materias;
+    }
+    
+    public List<CalificacionResponseDTO> getCalificaciones() {
+        return calificaciones;
+    }
+    
+    public void setCalificaciones(List<CalificacionResponseDTO> calificaciones) {
+        this.calificaciones = calificaciones;
+    }
+}
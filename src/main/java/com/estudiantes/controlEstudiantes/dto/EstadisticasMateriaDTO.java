@@ -0,0 +1,168 @@
+package com.estudiantes.controlEstudiantes.dto;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+
+public class EstadisticasMateriaDTO {
+    
+    // Intervalos de 0.5 entre 0.0 y 5.0; el último incluye el 5.0
+    public static final int INTERVALOS_HISTOGRAMA = 10;
+    private static final BigDecimal ANCHO_INTERVALO = new BigDecimal("0.5");
+    
+    private Long materiaId;
+    private Boolean soloPeriodoActual;
+    private Long cantidad;
+    private BigDecimal promedio;
+    private BigDecimal notaMinima;
+    private BigDecimal notaMaxima;
+    private BigDecimal desviacionEstandar;
+    private Long aprobadas;
+    private BigDecimal porcentajeAprobacion;
+    private List<Intervalo> histograma;
+    
+    // Constructores
+    public EstadisticasMateriaDTO() {}
+    
+    public EstadisticasMateriaDTO(Long materiaId, Boolean soloPeriodoActual, Long cantidad, BigDecimal promedio,
+                                  BigDecimal notaMinima, BigDecimal notaMaxima, BigDecimal desviacionEstandar,
+                                  Long aprobadas, long[] cantidadesPorIntervalo) {
+        this.materiaId = materiaId;
+        this.soloPeriodoActual = soloPeriodoActual;
+        this.cantidad = cantidad;
+        this.promedio = promedio;
+        this.notaMinima = notaMinima;
+        this.notaMaxima = notaMaxima;
+        this.desviacionEstandar = desviacionEstandar;
+        this.aprobadas = aprobadas;
+        this.porcentajeAprobacion = cantidad == 0 ? null
+                : BigDecimal.valueOf(aprobadas * 100).divide(BigDecimal.valueOf(cantidad), 1, RoundingMode.HALF_UP);
+        this.histograma = new ArrayList<>(INTERVALOS_HISTOGRAMA);
+        for (int i = 0; i < INTERVALOS_HISTOGRAMA; i++) {
+            BigDecimal desde = ANCHO_INTERVALO.multiply(BigDecimal.valueOf(i));
+            this.histograma.add(new Intervalo(desde, desde.add(ANCHO_INTERVALO), cantidadesPorIntervalo[i]));
+        }
+    }
+    
+    // Getters y Setters
+    public Long getMateriaId() {
+        return materiaId;
+    }
+    
+    public void setMateriaId(Long materiaId) {
+        this.materiaId = materiaId;
+    }
+    
+    public Boolean getSoloPeriodoActual() {
+        return soloPeriodoActual;
+    }
+    
+    public void setSoloPeriodoActual(Boolean soloPeriodoActual) {
+        this.soloPeriodoActual = soloPeriodoActual;
+    }
+    
+    public Long getCantidad() {
+        return cantidad;
+    }
+    
+    public void setCantidad(Long cantidad) {
+        this.cantidad = cantidad;
+    }
+    
+    public BigDecimal getPromedio() {
+        return promedio;
+    }
+    
+    public void setPromedio(BigDecimal promedio) {
+        this.promedio = promedio;
+    }
+    
+    public BigDecimal getNotaMinima() {
+        return notaMinima;
+    }
+    
+    public void setNotaMinima(BigDecimal notaMinima) {
+        this.notaMinima = notaMinima;
+    }
+    
+    public BigDecimal getNotaMaxima() {
+        return notaMaxima;
+    }
+    
+    public void setNotaMaxima(BigDecimal notaMaxima) {
+        this.notaMaxima = notaMaxima;
+    }
+    
+    public BigDecimal getDesviacionEstandar() {
+        return desviacionEstandar;
+    }
+    
+    public void setDesviacionEstandar(BigDecimal desviacionEstandar) {
+        this.desviacionEstandar = desviacionEstandar;
+    }
+    
+    public Long getAprobadas() {
+        return aprobadas;
+    }
+    
+    public void setAprobadas(Long aprobadas) {
+        this.aprobadas = aprobadas;
+    }
+    
+    public BigDecimal getPorcentajeAprobacion() {
+        return porcentajeAprobacion;
+    }
+    
+    public void setPorcentajeAprobacion(BigDecimal porcentajeAprobacion) {
+        this.porcentajeAprobacion = porcentajeAprobacion;
+    }
+    
+    public List<Intervalo> getHistograma() {
+        return histograma;
+    }
+    
+    public void setHistograma(List<Intervalo> histograma) {
+        this.histograma = histograma;
+    }
+    
+    // Cantidad de notas en [desde, hasta)
+    public static class Intervalo {
+        
+        private BigDecimal desde;
+        private BigDecimal hasta;
+        private Long cantidad;
+        
+        public Intervalo() {}
+        
+        public Intervalo(BigDecimal desde, BigDecimal hasta, Long cantidad) {
+            this.desde = desde;
+            this.hasta = hasta;
+            this.cantidad = cantidad;
+        }
+        
+        public BigDecimal getDesde() {
+            return desde;
+        }
+        
+        public void setDesde(BigDecimal desde) {
+            this.desde = desde;
+        }
+        
+        public BigDecimal getHasta() {
+            return hasta;
+        }
+        
+        public void setHasta(BigDecimal hasta) {
+            this.hasta = hasta;
+        }
+        
+        public Long getCantidad() {
+            return cantidad;
+        }
+        
+        public void setCantidad(Long cantidad) {
+            this.cantidad = cantidad;
+        }
+    }
+}
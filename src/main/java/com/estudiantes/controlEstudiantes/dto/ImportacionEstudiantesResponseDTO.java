@@ -0,0 +1,106 @@
+package com.estudiantes.controlEstudiantes.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class ImportacionEstudiantesResponseDTO {
+    
+    private Integer procesadas = 0;
+    private Integer importadas = 0;
+    private Integer rechazadas = 0;
+    private Long duracionMs;
+    private Boolean erroresTruncados = false;
+    private List<ErrorFila> errores = new ArrayList<>();
+    
+    // Constructores
+    public ImportacionEstudiantesResponseDTO() {}
+    
+    // Getters y Setters
+    public Integer getProcesadas() {
+        return procesadas;
+    }
+    
+    public void setProcesadas(Integer procesadas) {
+        this.procesadas = procesadas;
+    }
+    
+    public Integer getImportadas() {
+        return importadas;
+    }
+    
+    public void setImportadas(Integer importadas) {
+        this.importadas = importadas;
+    }
+    
+    public Integer getRechazadas() {
+        return rechazadas;
+    }
+    
+    public void setRechazadas(Integer rechazadas) {
+        this.rechazadas = rechazadas;
+    }
+    
+    public Long getDuracionMs() {
+        return duracionMs;
+    }
+    
+    public void setDuracionMs(Long duracionMs) {
+        this.duracionMs = duracionMs;
+    }
+    
+    public Boolean getErroresTruncados() {
+        return erroresTruncados;
+    }
+    
+    public void setErroresTruncados(Boolean erroresTruncados) {
+        this.erroresTruncados = erroresTruncados;
+    }
+    
+    public List<ErrorFila> getErrores() {
+        return errores;
+    }
+    
+    public void setErrores(List<ErrorFila> errores) {
+        this.errores = errores;
+    }
+    
+    // Error de una fila del archivo, identificada por su número de línea
+    public static class ErrorFila {
+        
+        private Integer linea;
+        private String email;
+        private String error;
+        
+        public ErrorFila() {}
+        
+        public ErrorFila(Integer linea, String email, String error) {
+            this.linea = linea;
+            this.email = email;
+            this.error = error;
+        }
+        
+        public Integer getLinea() {
+            return linea;
+        }
+        
+        public void setLinea(Integer linea) {
+            this.linea = linea;
+        }
+        
+        public String getEmail() {
+            return email;
+        }
+        
+        public void setEmail(String email) {
+            this.email = email;
+        }
+        
+        public String getError() {
+            return error;
+        }
+        
+        public void setError(String error) {
+            this.error = error;
+        }
+    }
+}
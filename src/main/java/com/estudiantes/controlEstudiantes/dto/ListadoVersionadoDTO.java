@@ -0,0 +1,41 @@
+package com.estudiantes.controlEstudiantes.dto;
+
+import java.util.List;
+
+/**
+ * Listado junto con el ETag de la misma lectura. Sin filas cuando el cliente ya tenía esa versión.
+ */
+public class ListadoVersionadoDTO<T> {
+    
+    private String etag;
+    private List<T> datos;
+    
+    // Constructores
+    public ListadoVersionadoDTO() {}
+    
+    public ListadoVersionadoDTO(String etag, List<T> datos) {
+        this.etag = etag;
+        this.datos = datos;
+    }
+    
+    public boolean isSinCambios() {
+        return datos == null;
+    }
+    
+    // Getters y Setters
+    public String getEtag() {
+        return etag;
+    }
+    
+    public void setEtag(String etag) {
+        this.etag = etag;
+    }
+    
+    public List<T> getDatos() {
+        return datos;
+    }
+    
+    public void setDatos(List<T> datos) {
+        this.datos = datos;
+    }
+}
@@ -0,0 +1,65 @@
+package com.estudiantes.controlEstudiantes.dto;
+
+import java.math.BigDecimal;
+
+public class MateriaPromedioDTO {
+    
+    private Long materiaId;
+    private String codigo;
+    private String nombre;
+    private BigDecimal promedio;
+    private Integer cantidadCalificaciones;
+    
+    // Constructores
+    public MateriaPromedioDTO() {}
+    
+    public MateriaPromedioDTO(Long materiaId, String codigo, String nombre, BigDecimal promedio,
+                              Integer cantidadCalificaciones) {
+        this.materiaId = materiaId;
+        this.codigo = codigo;
+        this.nombre = nombre;
+        this.promedio = promedio;
+        this.cantidadCalificaciones = cantidadCalificaciones;
+    }
+    
+    // Getters y Setters
+    public Long getMateriaId() {
+        return materiaId;
+    }
+    
+    public void setMateriaId(Long materiaId) {
+        this.materiaId = materiaId;
+    }
+    
+    public String getCodigo() {
+        return codigo;
+    }
+    
+    public void setCodigo(String codigo) {
+        this.codigo = codigo;
+    }
+    
+    public String getNombre() {
+        return nombre;
+    }
+    
+    public void setNombre(String nombre) {
+        this.nombre = nombre;
+    }
+    
+    public BigDecimal getPromedio() {
+        return promedio;
+    }
+    
+    public void setPromedio(BigDecimal promedio) {
+        this.promedio = promedio;
+    }
+    
+    public Integer getCantidadCalificaciones() {
+        return cantidadCalificaciones;
+    }
+    
+    public void setCantidadCalificaciones(Integer cantidadCalificaciones) {
+        this.cantidadCalificaciones = cantidadCalificaciones;
+    }
+}
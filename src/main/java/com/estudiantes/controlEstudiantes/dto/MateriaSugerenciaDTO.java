@@ -0,0 +1,42 @@
+package com.estudiantes.controlEstudiantes.dto;
+
+public class MateriaSugerenciaDTO {
+    
+    private Long id;
+    private String codigo;
+    private String nombre;
+    
+    // Constructores
+    public MateriaSugerenciaDTO() {}
+    
+    public MateriaSugerenciaDTO(Long id, String codigo, String nombre) {
+        this.id = id;
+        this.codigo = codigo;
+        this.nombre = nombre;
+    }
+    
+    // Getters y Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public String getCodigo() {
+        return codigo;
+    }
+    
+    public void setCodigo(String codigo) {
+        this.codigo = codigo;
+    }
+    
+    public String getNombre() {
+        return nombre;
+    }
+    
+    public void setNombre(String nombre) {
+        this.nombre = nombre;
+    }
+}
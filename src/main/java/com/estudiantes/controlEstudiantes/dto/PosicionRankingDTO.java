@@ -0,0 +1,85 @@
+package com.estudiantes.controlEstudiantes.dto;
+
+import java.math.BigDecimal;
+
+public class PosicionRankingDTO {
+    
+    private Long estudianteId;
+    private String nombreEstudiante;
+    private Long materiaId;
+    private BigDecimal promedio;
+    private Long posicion;
+    private Long totalEstudiantes;
+    private BigDecimal percentil;
+    
+    // Constructores
+    public PosicionRankingDTO() {}
+    
+    public PosicionRankingDTO(Long estudianteId, String nombreEstudiante, Long materiaId, BigDecimal promedio,
+                              Long posicion, Long totalEstudiantes, BigDecimal percentil) {
+        this.estudianteId = estudianteId;
+        this.nombreEstudiante = nombreEstudiante;
+        this.materiaId = materiaId;
+        this.promedio = promedio;
+        this.posicion = posicion;
+        this.totalEstudiantes = totalEstudiantes;
+        this.percentil = percentil;
+    }
+    
+    // Getters y Setters
+    public Long getEstudianteId() {
+        return estudianteId;
+    }
+    
+    public void setEstudianteId(Long estudianteId) {
+        this.estudianteId = estudianteId;
+    }
+    
+    public String getNombreEstudiante() {
+        return nombreEstudiante;
+    }
+    
+    public void setNombreEstudiante(String nombreEstudiante) {
+        this.nombreEstudiante = nombreEstudiante;
+    }
+    
+    public Long getMateriaId() {
+        return materiaId;
+    }
+    
+    public void setMateriaId(Long materiaId) {
+        this.materiaId = materiaId;
+    }
+    
+    public BigDecimal getPromedio() {
+        return promedio;
+    }
+    
+    public void setPromedio(BigDecimal promedio) {
+        this.promedio = promedio;
+    }
+    
+    public Long getPosicion() {
+        return posicion;
+    }
+    
+    public void setPosicion(Long posicion) {
+        this.posicion = posicion;
+    }
+    
+    public Long getTotalEstudiantes() {
+        return totalEstudiantes;
+    }
+    
+    public void setTotalEstudiantes(Long totalEstudiantes) {
+        this.totalEstudiantes = totalEstudiantes;
+    }
+    
+    public BigDecimal getPercentil() {
+        return percentil;
+    }
+    
+    public void setPercentil(BigDecimal percentil) {
+        this.percentil = percentil;
+    }
+}
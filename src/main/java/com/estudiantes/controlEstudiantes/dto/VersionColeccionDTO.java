@@ -0,0 +1,70 @@
+package com.estudiantes.controlEstudiantes.dto;
+
+import java.nio.charset.StandardCharsets;
+
+import org.springframework.util.DigestUtils;
+
+/**
+ * Sello de versión de un listado, calculado con una consulta de agregados sin leer las filas completas.
+ *
+ * Cualquier alta cambia el máximo o la suma de ids, cualquier baja cambia la cantidad y cualquier UPDATE
+ * suma 1 a la versión de la fila, así que el ETag cambia con cada escritura que afecta al listado.
+ * La versión es el campo @Version de Estudiante, Materia y Calificacion (columna de V6): Hibernate la
+ * incrementa en cada UPDATE y la usa también para el control optimista de concurrencia.
+ */
+public class VersionColeccionDTO {
+    
+    private Long cantidad;
+    private Long maximoId;
+    private Long sumaIds;
+    private Long sumaVersiones;
+    
+    // Constructores
+    public VersionColeccionDTO() {}
+    
+    public VersionColeccionDTO(Long cantidad, Long maximoId, Long sumaIds, Long sumaVersiones) {
+        this.cantidad = cantidad;
+        this.maximoId = maximoId;
+        this.sumaIds = sumaIds;
+        this.sumaVersiones = sumaVersiones;
+    }
+    
+    // ETag fuerte y opaco, en el mismo formato que ShallowEtagHeaderFilter
+    public String getEtag() {
+        String sello = cantidad + ":" + maximoId + ":" + sumaIds + ":" + sumaVersiones;
+        return "\"0" + DigestUtils.md5DigestAsHex(sello.getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+    
+    // Getters y Setters
+    public Long getCantidad() {
+        return cantidad;
+    }
+    
+    public void setCantidad(Long cantidad) {
+        this.cantidad = cantidad;
+    }
+    
+    public Long getMaximoId() {
+        return maximoId;
+    }
+    
+    public void setMaximoId(Long maximoId) {
+        this.maximoId = maximoId;
+    }
+    
+    public Long getSumaIds() {
+        return sumaIds;
+    }
+    
+    public void setSumaIds(Long sumaIds) {
+        this.sumaIds = sumaIds;
+    }
+    
+    public Long getSumaVersiones() {
+        return sumaVersiones;
+    }
+    
+    public void setSumaVersiones(Long sumaVersiones) {
+        this.sumaVersiones = sumaVersiones;
+    }
+}
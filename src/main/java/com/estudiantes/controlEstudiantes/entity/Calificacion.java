@@ -11,8 +11,12 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
 import jakarta.persistence.PreUpdate;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import jakarta.validation.constraints.DecimalMax;
 import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.NotNull;
@@ -20,10 +24,16 @@ import jakarta.validation.constraints.Size;
 
 @Entity
 @Table(name = "calificaciones")
+// Plan de carga para listados que recorren el estudiante de cada calificación
+@NamedEntityGraph(name = Calificacion.GRAFO_ESTUDIANTE, attributeNodes = @NamedAttributeNode("estudiante"))
 public class Calificacion {
     
+    public static final String GRAFO_ESTUDIANTE = "Calificacion.estudiante";
+    
+    // Secuencia con asignación de a 50 IDs: permite agrupar los INSERT en lotes JDBC
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "calificaciones_seq")
+    @SequenceGenerator(name = "calificaciones_seq", sequenceName = "calificaciones_seq", allocationSize = 50)
     private Long id;
     
     // Relación con Estudiante
@@ -64,6 +74,10 @@ public class Calificacion {
     @Column
     private LocalDateTime fechaActualizacion;
     
+    @Version
+    @Column(nullable = false)
+    private Long version;
+    
     // Constructores
     public Calificacion() {}
     
@@ -154,6 +168,14 @@ public class Calificacion {
         this.fechaActualizacion = fechaActualizacion;
     }
     
+    public Long getVersion() {
+        return version;
+    }
+    
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+    
     // Métodos de utilidad
     public String getNotaConFormato() {
         return nota.toString() + "/5.0";
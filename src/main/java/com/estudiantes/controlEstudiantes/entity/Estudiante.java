@@ -11,7 +11,9 @@ import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.PreUpdate;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
@@ -24,8 +26,10 @@ import jakarta.validation.constraints.Size;
 @Table(name = "estudiantes")
 public class Estudiante {
     
+    // Secuencia con asignación de a 50 IDs: permite agrupar los INSERT en lotes JDBC
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "estudiantes_seq")
+    @SequenceGenerator(name = "estudiantes_seq", sequenceName = "estudiantes_seq", allocationSize = 50)
     private Long id;
     
     @NotBlank(message = "El nombre es obligatorio")
@@ -90,6 +94,10 @@ public class Estudiante {
     @Column
     private LocalDateTime fechaActualizacion;
     
+    @Version
+    @Column(nullable = false)
+    private Long version;
+    
     // Constructores
     public Estudiante() {}
     
@@ -231,6 +239,14 @@ public class Estudiante {
         this.fechaActualizacion = fechaActualizacion;
     }
     
+    public Long getVersion() {
+        return version;
+    }
+    
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+    
     // Método para obtener el nombre completo
     public String getNombreCompleto() {
         return this.nombre + " " + this.apellido;
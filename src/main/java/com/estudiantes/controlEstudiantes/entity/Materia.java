@@ -2,6 +2,10 @@ package com.estudiantes.controlEstudiantes.entity;
 
 import java.time.LocalDateTime;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
@@ -10,8 +14,11 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
 import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
@@ -20,8 +27,17 @@ import jakarta.validation.constraints.Size;
 
 @Entity
 @Table(name = "materias")
+// Catálogo que cambia pocas veces por semestre: se guarda en la caché de segundo nivel (application.conf)
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Materia.REGION_CACHE)
+// Plan de carga para listados que muestran el profesor: lo trae en el mismo SELECT
+@NamedEntityGraph(name = Materia.GRAFO_PROFESOR, attributeNodes = @NamedAttributeNode("profesor"))
 public class Materia {
     
+    public static final String GRAFO_PROFESOR = "Materia.profesor";
+    public static final String REGION_CACHE = "materias";
+    public static final String REGION_CACHE_CONSULTAS = "materias-consultas";
+    
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -70,6 +86,10 @@ public class Materia {
     @Column
     private LocalDateTime fechaActualizacion;
     
+    @Version
+    @Column(nullable = false)
+    private Long version;
+    
     // Constructores
     public Materia() {}
     
@@ -177,6 +197,14 @@ public class Materia {
         this.fechaActualizacion = fechaActualizacion;
     }
     
+    public Long getVersion() {
+        return version;
+    }
+    
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+    
     public String getNombreCompleto() {
         return this.codigo + " - " + this.nombre;
     }
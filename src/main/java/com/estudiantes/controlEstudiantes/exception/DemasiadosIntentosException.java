@@ -0,0 +1,15 @@
+package com.estudiantes.controlEstudiantes.exception;
+
+public class DemasiadosIntentosException extends RuntimeException {
+    
+    private final long segundosReintento;
+    
+    public DemasiadosIntentosException(String message, long segundosReintento) {
+        super(message);
+        this.segundosReintento = segundosReintento;
+    }
+    
+    public long getSegundosReintento() {
+        return segundosReintento;
+    }
+}
@@ -1,13 +1,17 @@
 package com.estudiantes.controlEstudiantes.exception;
 
+import java.sql.SQLTransientConnectionException;
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.Map;
 
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -62,6 +66,19 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
     }
     
+    // Un parámetro de la petición con un valor que el endpoint no admite
+    @ExceptionHandler(SolicitudInvalidaException.class)
+    public ResponseEntity<ErrorResponse> handleSolicitudInvalida(SolicitudInvalidaException ex, WebRequest request) {
+        ErrorResponse errorResponse = new ErrorResponse(
+            HttpStatus.BAD_REQUEST.value(),
+            "Solicitud inválida",
+            ex.getMessage(),
+            request.getDescription(false).replace("uri=", ""),
+            LocalDateTime.now()
+        );
+        return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+    }
+    
     @ExceptionHandler(BadCredentialsException.class)
     public ResponseEntity<ErrorResponse> handleBadCredentials(BadCredentialsException ex, WebRequest request) {
         ErrorResponse errorResponse = new ErrorResponse(
@@ -86,8 +103,58 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(errorResponse, HttpStatus.FORBIDDEN);
     }
     
+    // Otra transacción modificó la fila desde que se leyó (@Version): el cliente debe releer y reintentar
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ErrorResponse> handleOptimisticLocking(OptimisticLockingFailureException ex, WebRequest request) {
+        ErrorResponse errorResponse = new ErrorResponse(
+            HttpStatus.CONFLICT.value(),
+            "Conflicto de concurrencia",
+            "El recurso fue modificado por otra operación, vuelva a consultarlo e intente nuevamente",
+            request.getDescription(false).replace("uri=", ""),
+            LocalDateTime.now()
+        );
+        return new ResponseEntity<>(errorResponse, HttpStatus.CONFLICT);
+    }
+    
+    // No se obtuvo conexión del pool dentro de connection-timeout (la base está saturada o caída)
+    // o la cola del pool de BCrypt está llena
+    @ExceptionHandler({CannotCreateTransactionException.class, ServicioSaturadoException.class})
+    public ResponseEntity<ErrorResponse> handleServicioSaturado(Exception ex, WebRequest request) {
+        ErrorResponse errorResponse = new ErrorResponse(
+            HttpStatus.SERVICE_UNAVAILABLE.value(),
+            "Servicio no disponible",
+            "El servidor está saturado, intente nuevamente en unos segundos",
+            request.getDescription(false).replace("uri=", ""),
+            LocalDateTime.now()
+        );
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(errorResponse);
+    }
+    
+    @ExceptionHandler(DemasiadosIntentosException.class)
+    public ResponseEntity<ErrorResponse> handleDemasiadosIntentos(DemasiadosIntentosException ex, WebRequest request) {
+        ErrorResponse errorResponse = new ErrorResponse(
+            HttpStatus.TOO_MANY_REQUESTS.value(),
+            "Demasiados intentos",
+            ex.getMessage(),
+            request.getDescription(false).replace("uri=", ""),
+            LocalDateTime.now()
+        );
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getSegundosReintento()))
+                .body(errorResponse);
+    }
+    
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ErrorResponse> handleGlobalException(Exception ex, WebRequest request) {
+        // Con réplicas (LazyConnectionDataSourceProxy) la conexión se pide en la primera sentencia: un pool
+        // agotado no llega como CannotCreateTransactionException sino envuelto en una DataAccessException
+        // o una excepción de Hibernate, con el timeout de Hikari como causa
+        if (esPoolAgotado(ex)) {
+            return handleServicioSaturado(ex, request);
+        }
+        
         // Agregar logging del error completo para debugging
         ex.printStackTrace();
         System.err.println("Error completo: " + ex.getClass().getName() + " - " + ex.getMessage());
@@ -101,4 +168,13 @@ public class GlobalExceptionHandler {
         );
         return new ResponseEntity<>(errorResponse, HttpStatus.INTERNAL_SERVER_ERROR);
     }
+    
+    private static boolean esPoolAgotado(Throwable ex) {
+        for (Throwable causa = ex; causa != null; causa = causa.getCause()) {
+            if (causa instanceof SQLTransientConnectionException) {
+                return true;
+            }
+        }
+        return false;
+    }
 }
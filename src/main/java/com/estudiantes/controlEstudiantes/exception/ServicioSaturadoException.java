@@ -0,0 +1,12 @@
+package com.estudiantes.controlEstudiantes.exception;
+
+public class ServicioSaturadoException extends RuntimeException {
+    
+    public ServicioSaturadoException(String message) {
+        super(message);
+    }
+    
+    public ServicioSaturadoException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,12 @@
+package com.estudiantes.controlEstudiantes.exception;
+
+public class SolicitudInvalidaException extends RuntimeException {
+    
+    public SolicitudInvalidaException(String message) {
+        super(message);
+    }
+    
+    public SolicitudInvalidaException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -1,58 +1,127 @@
 package com.estudiantes.controlEstudiantes.repository;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.estudiantes.controlEstudiantes.dto.CalificacionResponseDTO;
+import com.estudiantes.controlEstudiantes.dto.EstadisticasMateriaDTO;
+import com.estudiantes.controlEstudiantes.dto.VersionColeccionDTO;
 import com.estudiantes.controlEstudiantes.entity.Calificacion;
 import com.estudiantes.controlEstudiantes.entity.Estudiante;
 import com.estudiantes.controlEstudiantes.entity.Materia;
 
+import jakarta.persistence.QueryHint;
+
 @Repository
 public interface CalificacionRepository extends JpaRepository<Calificacion, Long> {
     
-    // Consulta para obtener todas las calificaciones con entidades relacionadas cargadas
-    @Query("SELECT c FROM Calificacion c " +
-           "LEFT JOIN FETCH c.estudiante " +
-           "LEFT JOIN FETCH c.materia " +
-           "LEFT JOIN FETCH c.profesor")
-    List<Calificacion> findAllWithRelations();
-    
-    // Buscar calificaciones por estudiante con entidades relacionadas
-    @Query("SELECT c FROM Calificacion c " +
-           "LEFT JOIN FETCH c.estudiante " +
-           "LEFT JOIN FETCH c.materia " +
-           "LEFT JOIN FETCH c.profesor " +
-           "WHERE c.estudiante.id = :estudianteId")
-    List<Calificacion> findByEstudianteIdWithRelations(@Param("estudianteId") Long estudianteId);
-    
-    // Buscar calificaciones por materia con entidades relacionadas
-    @Query("SELECT c FROM Calificacion c " +
-           "LEFT JOIN FETCH c.estudiante " +
-           "LEFT JOIN FETCH c.materia " +
-           "LEFT JOIN FETCH c.profesor " +
-           "WHERE c.materia.id = :materiaId")
-    List<Calificacion> findByMateriaIdWithRelations(@Param("materiaId") Long materiaId);
-    
-    // Buscar calificaciones por profesor con entidades relacionadas
-    @Query("SELECT c FROM Calificacion c " +
-           "LEFT JOIN FETCH c.estudiante " +
-           "LEFT JOIN FETCH c.materia " +
-           "LEFT JOIN FETCH c.profesor " +
-           "WHERE c.profesor.id = :profesorId")
-    List<Calificacion> findByProfesorIdWithRelations(@Param("profesorId") Long profesorId);
-    
-    // Buscar calificacion por ID con entidades relacionadas
-    @Query("SELECT c FROM Calificacion c " +
-           "LEFT JOIN FETCH c.estudiante " +
-           "LEFT JOIN FETCH c.materia " +
-           "LEFT JOIN FETCH c.profesor " +
+    // Proyección con solo las columnas de CalificacionResponseDTO; evita hidratar y rastrear las entidades
+    String SELECT_RESPONSE_DTO = "SELECT new com.estudiantes.controlEstudiantes.dto.CalificacionResponseDTO(" +
+           "c.id, e.id, CONCAT(e.nombre, ' ', e.apellido), e.cedula, " +
+           "m.id, m.nombre, m.codigo, " +
+           "p.id, CONCAT(p.nombre, ' ', p.apellido), " +
+           "c.nota, c.tipoEvaluacion, c.observaciones, c.fechaCreacion, c.fechaActualizacion) " +
+           "FROM Calificacion c " +
+           "JOIN c.estudiante e " +
+           "JOIN c.materia m " +
+           "JOIN c.profesor p ";
+    
+    // Todas las calificaciones como DTO
+    @Query(SELECT_RESPONSE_DTO)
+    List<CalificacionResponseDTO> findAllAsDTO();
+    
+    // Página de calificaciones por cursor (keyset sobre el id), evita OFFSET y COUNT
+    @Query(SELECT_RESPONSE_DTO +
+           "WHERE c.id > :despuesDeId " +
+           "ORDER BY c.id ASC")
+    List<CalificacionResponseDTO> findPaginaAsDTO(@Param("despuesDeId") Long despuesDeId, Pageable pageable);
+    
+    // Recorrido completo en modo cursor: las filas se leen de a lotes y no se materializa la tabla
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(SELECT_RESPONSE_DTO +
+           "ORDER BY c.id ASC")
+    Stream<CalificacionResponseDTO> streamAllAsDTO();
+    
+    // Calificaciones de un estudiante como DTO
+    @Query(SELECT_RESPONSE_DTO +
+           "WHERE e.id = :estudianteId")
+    List<CalificacionResponseDTO> findByEstudianteIdAsDTO(@Param("estudianteId") Long estudianteId);
+    
+    // Sello de versión de las calificaciones de un estudiante, para el ETag. Suma también las versiones de
+    // estudiante, materia y profesor porque sus nombres aparecen en cada fila del listado
+    @Query("SELECT new com.estudiantes.controlEstudiantes.dto.VersionColeccionDTO(" +
+           "COUNT(c), MAX(c.id), SUM(c.id), SUM(c.version + e.version + m.version + p.version)) " +
+           "FROM Calificacion c JOIN c.estudiante e JOIN c.materia m JOIN c.profesor p " +
+           "WHERE e.id = :estudianteId")
+    VersionColeccionDTO calcularVersionPorEstudiante(@Param("estudianteId") Long estudianteId);
+    
+    // Calificaciones de una materia como DTO
+    @Query(SELECT_RESPONSE_DTO +
+           "WHERE m.id = :materiaId")
+    List<CalificacionResponseDTO> findByMateriaIdAsDTO(@Param("materiaId") Long materiaId);
+    
+    // Calificaciones asignadas por un profesor como DTO
+    @Query(SELECT_RESPONSE_DTO +
+           "WHERE p.id = :profesorId")
+    List<CalificacionResponseDTO> findByProfesorIdAsDTO(@Param("profesorId") Long profesorId);
+    
+    // Calificaciones de un estudiante en una materia como DTO
+    @Query(SELECT_RESPONSE_DTO +
+           "WHERE e.id = :estudianteId AND m.id = :materiaId")
+    List<CalificacionResponseDTO> findByEstudianteIdAndMateriaIdAsDTO(@Param("estudianteId") Long estudianteId,
+                                                                      @Param("materiaId") Long materiaId);
+    
+    // Mejores calificaciones (top-N con el Pageable); empates por nota los gana la más antigua.
+    // Las consultas de ranking recorren idx_calificaciones_nota_id o idx_calificaciones_materia_nota_id
+    // (V7) en el orden del ORDER BY y cortan en el LIMIT
+    @Query(SELECT_RESPONSE_DTO +
+           "ORDER BY c.nota DESC, c.id ASC")
+    List<CalificacionResponseDTO> findMejoresAsDTO(Pageable pageable);
+    
+    @Query(SELECT_RESPONSE_DTO +
+           "WHERE m.id = :materiaId " +
+           "ORDER BY c.nota DESC, c.id ASC")
+    List<CalificacionResponseDTO> findMejoresPorMateriaAsDTO(@Param("materiaId") Long materiaId, Pageable pageable);
+    
+    @Query(SELECT_RESPONSE_DTO +
+           "WHERE e.carrera = :carrera " +
+           "ORDER BY c.nota DESC, c.id ASC")
+    List<CalificacionResponseDTO> findMejoresPorCarreraAsDTO(@Param("carrera") String carrera, Pageable pageable);
+    
+    @Query(SELECT_RESPONSE_DTO +
+           "WHERE c.fechaCreacion >= :desde " +
+           "ORDER BY c.nota DESC, c.id ASC")
+    List<CalificacionResponseDTO> findMejoresDesdeAsDTO(@Param("desde") LocalDateTime desde, Pageable pageable);
+    
+    // Calificación por ID como DTO
+    @Query(SELECT_RESPONSE_DTO +
            "WHERE c.id = :id")
-    Calificacion findByIdWithRelations(@Param("id") Long id);
+    Optional<CalificacionResponseDTO> findByIdAsDTO(@Param("id") Long id);
+    
+    // Calificaciones aprobatorias (nota >= 3.0) como DTO
+    @Query(SELECT_RESPONSE_DTO +
+           "WHERE c.nota >= 3.0")
+    List<CalificacionResponseDTO> findCalificacionesAprobatoriasAsDTO();
+    
+    // Calificaciones reprobatorias (nota < 3.0) como DTO
+    @Query(SELECT_RESPONSE_DTO +
+           "WHERE c.nota < 3.0")
+    List<CalificacionResponseDTO> findCalificacionesReprobatoriasAsDTO();
     
     // Buscar calificaciones por estudiante
     List<Calificacion> findByEstudiante(Estudiante estudiante);
@@ -64,7 +133,8 @@ public interface CalificacionRepository extends JpaRepository<Calificacion, Long
     // Buscar calificaciones por materia
     List<Calificacion> findByMateria(Materia materia);
     
-    // Buscar calificaciones por materia ID
+    // Buscar calificaciones por materia ID, con el estudiante cargado en el mismo SELECT
+    @EntityGraph(Calificacion.GRAFO_ESTUDIANTE)
     @Query("SELECT c FROM Calificacion c WHERE c.materia.id = :materiaId")
     List<Calificacion> findByMateriaId(@Param("materiaId") Long materiaId);
     
@@ -104,6 +174,51 @@ public interface CalificacionRepository extends JpaRepository<Calificacion, Long
     @Query("SELECT AVG(c.nota) FROM Calificacion c WHERE c.materia.id = :materiaId")
     BigDecimal calcularPromedioMateria(@Param("materiaId") Long materiaId);
     
+    // Promedio de cada estudiante en una materia con su posición (rank: los empates comparten puesto) y
+    // su percentil (porcentaje de estudiantes de la materia con promedio menor). Las funciones de ventana
+    // se calculan sobre todos los estudiantes antes del filtro externo; los promedios salen del índice
+    // (materia_id, estudiante_id) INCLUDE (nota) sin leer la tabla
+    String SELECT_RANKING_MATERIA = "SELECT r.estudiante_id, e.nombre || ' ' || e.apellido, r.promedio, " +
+           "r.posicion, r.total, r.percentil " +
+           "FROM (SELECT c.estudiante_id, round(avg(c.nota), 2) AS promedio, " +
+           "rank() OVER (ORDER BY avg(c.nota) DESC) AS posicion, " +
+           "count(*) OVER () AS total, " +
+           "round((100 * percent_rank() OVER (ORDER BY avg(c.nota)))::numeric, 1) AS percentil " +
+           "FROM calificaciones c WHERE c.materia_id = :materiaId GROUP BY c.estudiante_id) r " +
+           "JOIN estudiantes e ON e.id = r.estudiante_id ";
+    
+    // Ranking de estudiantes de una materia por promedio
+    @Query(value = SELECT_RANKING_MATERIA +
+           "ORDER BY r.posicion, r.estudiante_id LIMIT :limite", nativeQuery = true)
+    List<Object[]> calcularRankingMateria(@Param("materiaId") Long materiaId, @Param("limite") int limite);
+    
+    // Posición de un estudiante en el ranking de una materia (sin filas si no tiene notas en ella)
+    @Query(value = SELECT_RANKING_MATERIA +
+           "WHERE r.estudiante_id = :estudianteId", nativeQuery = true)
+    List<Object[]> calcularPosicionEnMateria(@Param("materiaId") Long materiaId,
+                                             @Param("estudianteId") Long estudianteId);
+    
+    String INTERVALO_NOTA = "least(width_bucket(c.nota, 0, 5, " + EstadisticasMateriaDTO.INTERVALOS_HISTOGRAMA + "), " +
+           EstadisticasMateriaDTO.INTERVALOS_HISTOGRAMA + ")";
+    
+    // Estadísticas de una materia en una sola pasada: una fila por intervalo del histograma (columna 0
+    // de 1 a INTERVALOS_HISTOGRAMA, solo los que tienen notas) y una fila de totales con la columna 0 nula
+    @Query(value = "SELECT " + INTERVALO_NOTA + ", count(*), round(avg(c.nota), 2), min(c.nota), max(c.nota), " +
+           "round(stddev_samp(c.nota), 2), count(*) FILTER (WHERE c.nota >= 3.0) " +
+           "FROM calificaciones c WHERE c.materia_id = :materiaId " +
+           "GROUP BY GROUPING SETS ((" + INTERVALO_NOTA + "), ())", nativeQuery = true)
+    List<Object[]> calcularEstadisticasMateria(@Param("materiaId") Long materiaId);
+    
+    // Cantidad de calificaciones por materia y nota desde una fecha, base de las estadísticas del período
+    @Query("SELECT c.materia.id, c.nota, COUNT(c) FROM Calificacion c WHERE c.fechaCreacion >= :desde " +
+           "GROUP BY c.materia.id, c.nota")
+    List<Object[]> contarNotasPorMateriaDesde(@Param("desde") LocalDateTime desde);
+    
+    // Suma y cantidad de notas por estudiante y materia, base de los promedios mantenidos en memoria
+    @Query("SELECT c.estudiante.id, c.materia.id, SUM(c.nota), COUNT(c) FROM Calificacion c " +
+           "GROUP BY c.estudiante.id, c.materia.id")
+    List<Object[]> sumarNotasPorEstudianteYMateria();
+    
     // Contar calificaciones aprobatorias de un estudiante
     @Query("SELECT COUNT(c) FROM Calificacion c WHERE c.estudiante.id = :estudianteId AND c.nota >= 3.0")
     Long contarCalificacionesAprobatoriasEstudiante(@Param("estudianteId") Long estudianteId);
@@ -112,8 +227,7 @@ public interface CalificacionRepository extends JpaRepository<Calificacion, Long
     @Query("SELECT COUNT(c) FROM Calificacion c WHERE c.estudiante.id = :estudianteId AND c.nota < 3.0")
     Long contarCalificacionesReprobatoriasEstudiante(@Param("estudianteId") Long estudianteId);
     
-    // Buscar mejores calificaciones (top 10)
-    @Query("SELECT c FROM Calificacion c ORDER BY c.nota DESC")
+    // Buscar mejores calificaciones (top 10): consulta derivada, Spring Data agrega el LIMIT 10
     List<Calificacion> findTop10ByOrderByNotaDesc();
     
     // Buscar calificaciones por rango de notas
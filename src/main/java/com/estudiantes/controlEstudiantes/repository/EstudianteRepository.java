@@ -1,5 +1,6 @@
 package com.estudiantes.controlEstudiantes.repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -8,6 +9,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.estudiantes.controlEstudiantes.dto.VersionColeccionDTO;
 import com.estudiantes.controlEstudiantes.entity.Estudiante;
 import com.estudiantes.controlEstudiantes.entity.RolEstudiante;
 
@@ -26,6 +28,13 @@ public interface EstudianteRepository extends JpaRepository<Estudiante, Long> {
     // Verificar si existe por cédula
     boolean existsByCedula(String cedula);
     
+    // Emails y cédulas ya registrados dentro de un conjunto (verificación de duplicados por lote)
+    @Query("SELECT e.email FROM Estudiante e WHERE e.email IN :emails")
+    List<String> findEmailsExistentes(@Param("emails") Collection<String> emails);
+    
+    @Query("SELECT e.cedula FROM Estudiante e WHERE e.cedula IN :cedulas")
+    List<String> findCedulasExistentes(@Param("cedulas") Collection<String> cedulas);
+    
     // Buscar por rol
     List<Estudiante> findByRol(RolEstudiante rol);
     
@@ -41,13 +50,29 @@ public interface EstudianteRepository extends JpaRepository<Estudiante, Long> {
     // Buscar por carrera y semestre
     List<Estudiante> findByCarreraAndSemestre(String carrera, Integer semestre);
     
-    // Buscar por nombre completo (ignorando mayúsculas)
-    @Query("SELECT e FROM Estudiante e WHERE LOWER(CONCAT(e.nombre, ' ', e.apellido)) LIKE LOWER(CONCAT('%', :nombreCompleto, '%'))")
-    List<Estudiante> findByNombreCompletoContainingIgnoreCase(@Param("nombreCompleto") String nombreCompleto);
+    // Buscar activos por nombre completo sin distinguir mayúsculas ni tildes, tolerando errores de tipeo.
+    // Usa la columna generada nombre_busqueda y su índice GiST de trigramas (V5): <% filtra los nombres
+    // con alguna parte parecida al texto y <<-> los ordena del más al menos parecido. Un texto corto que
+    // es solo un fragmento de una palabra ("rez" en "perez") no llega al umbral de <%, por eso también
+    // se aceptan los nombres que contienen el fragmento; el mismo índice resuelve el ILIKE. El fragmento
+    // llega con \, % y _ escapados (\ es el escape por defecto de ILIKE), o null para no usar el ILIKE
+    @Query(value = "SELECT e.* FROM estudiantes e " +
+            "WHERE e.activo AND (normalizar_busqueda(:texto) <% e.nombre_busqueda " +
+            "OR e.nombre_busqueda ILIKE '%' || normalizar_busqueda(:fragmento) || '%') " +
+            "ORDER BY normalizar_busqueda(:texto) <<-> e.nombre_busqueda " +
+            "LIMIT :limite", nativeQuery = true)
+    List<Estudiante> buscarPorNombre(@Param("texto") String texto, @Param("fragmento") String fragmento,
+                                     @Param("limite") int limite);
     
     // Buscar estudiantes activos por rol
     List<Estudiante> findByRolAndActivoTrue(RolEstudiante rol);
     
+    // Sello de versión de los activos con un rol, para el ETag del listado
+    @Query("SELECT new com.estudiantes.controlEstudiantes.dto.VersionColeccionDTO(" +
+           "COUNT(e), MAX(e.id), SUM(e.id), SUM(e.version)) " +
+           "FROM Estudiante e WHERE e.rol = :rol AND e.activo = true")
+    VersionColeccionDTO calcularVersionPorRol(@Param("rol") RolEstudiante rol);
+    
     // Contar estudiantes por carrera
     @Query("SELECT COUNT(e) FROM Estudiante e WHERE e.carrera = :carrera AND e.activo = true")
     Long countByCarreraAndActivoTrue(@Param("carrera") String carrera);
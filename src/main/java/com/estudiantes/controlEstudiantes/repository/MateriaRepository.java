@@ -3,47 +3,91 @@ package com.estudiantes.controlEstudiantes.repository;
 import java.util.List;
 import java.util.Optional;
 
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.estudiantes.controlEstudiantes.dto.VersionColeccionDTO;
 import com.estudiantes.controlEstudiantes.entity.Estudiante;
 import com.estudiantes.controlEstudiantes.entity.Materia;
 
+import jakarta.persistence.QueryHint;
+
 @Repository
 public interface MateriaRepository extends JpaRepository<Materia, Long> {
     
+    // Los métodos que devuelven materias para mostrar usan el grafo Materia.profesor:
+    // el profesor llega en el mismo SELECT en lugar de una consulta por cada materia
+    
+    // Buscar por ID con el profesor cargado
+    @EntityGraph(Materia.GRAFO_PROFESOR)
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = Materia.REGION_CACHE_CONSULTAS)
+    })
+    @Query("SELECT m FROM Materia m WHERE m.id = :id")
+    Optional<Materia> findConProfesorById(@Param("id") Long id);
+    
     // Buscar por código
+    @EntityGraph(Materia.GRAFO_PROFESOR)
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = Materia.REGION_CACHE_CONSULTAS)
+    })
     Optional<Materia> findByCodigo(String codigo);
     
     // Verificar si existe por código
     boolean existsByCodigo(String codigo);
     
     // Buscar materias activas
+    @EntityGraph(Materia.GRAFO_PROFESOR)
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = Materia.REGION_CACHE_CONSULTAS)
+    })
     List<Materia> findByActivaTrue();
     
+    // Sello de versión del catálogo activo (incluye al profesor que muestra cada materia), para el ETag
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = Materia.REGION_CACHE_CONSULTAS)
+    })
+    @Query("SELECT new com.estudiantes.controlEstudiantes.dto.VersionColeccionDTO(" +
+           "COUNT(m), MAX(m.id), SUM(m.id), SUM(m.version + COALESCE(p.version, 0))) " +
+           "FROM Materia m LEFT JOIN m.profesor p WHERE m.activa = true")
+    VersionColeccionDTO calcularVersionCatalogo();
+    
     // Buscar por carrera
+    @EntityGraph(Materia.GRAFO_PROFESOR)
     List<Materia> findByCarrera(String carrera);
     
     // Buscar por semestre
+    @EntityGraph(Materia.GRAFO_PROFESOR)
     List<Materia> findBySemestre(Integer semestre);
     
     // Buscar por carrera y semestre
+    @EntityGraph(Materia.GRAFO_PROFESOR)
     List<Materia> findByCarreraAndSemestre(String carrera, Integer semestre);
     
     // Buscar por profesor
     List<Materia> findByProfesor(Estudiante profesor);
     
     // Buscar materias que dicta un profesor específico
+    @EntityGraph(Materia.GRAFO_PROFESOR)
     @Query("SELECT m FROM Materia m WHERE m.profesor.id = :profesorId AND m.activa = true")
     List<Materia> findMateriasByProfesorId(@Param("profesorId") Long profesorId);
     
     // Buscar por nombre que contenga
+    @EntityGraph(Materia.GRAFO_PROFESOR)
     @Query("SELECT m FROM Materia m WHERE LOWER(m.nombre) LIKE LOWER(CONCAT('%', :nombre, '%')) AND m.activa = true")
     List<Materia> findByNombreContainingIgnoreCase(@Param("nombre") String nombre);
     
     // Buscar por código que contenga
+    @EntityGraph(Materia.GRAFO_PROFESOR)
     @Query("SELECT m FROM Materia m WHERE LOWER(m.codigo) LIKE LOWER(CONCAT('%', :codigo, '%')) AND m.activa = true")
     List<Materia> findByCodigoContainingIgnoreCase(@Param("codigo") String codigo);
     
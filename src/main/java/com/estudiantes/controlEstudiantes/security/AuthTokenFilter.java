@@ -1,9 +1,13 @@
 package com.estudiantes.controlEstudiantes.security;
 
 import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 import java.util.logging.Logger;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -11,6 +15,9 @@ import org.springframework.security.web.authentication.WebAuthenticationDetailsS
 import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -18,12 +25,27 @@ import jakarta.servlet.http.HttpServletResponse;
 
 public class AuthTokenFilter extends OncePerRequestFilter {
     
+    // Tiempo de cada etapa de la autenticación por token, con las etiquetas etapa y exception
+    private static final String TIMER_ETAPAS = "autenticacion.jwt";
+    
     @Autowired
     private JwtUtils jwtUtils;
     
     @Autowired
     private UserDetailsServiceImpl userDetailsService;
     
+    @Autowired
+    private RevocacionTokens revocacionTokens;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Value("${jwt.stateless:false}")
+    private boolean stateless;
+    
+    // Un timer por etapa y excepción, registrado la primera vez que se usa y no en cada petición
+    private final Map<String, Timer> timersPorEtapa = new ConcurrentHashMap<>();
+    
     private static final Logger authLogger = Logger.getLogger(AuthTokenFilter.class.getName());
     
     @Override
@@ -31,10 +53,9 @@ public class AuthTokenFilter extends OncePerRequestFilter {
                                   FilterChain filterChain) throws ServletException, IOException {
         try {
             String jwt = parseJwt(request);
-            if (jwt != null && jwtUtils.validateJwtToken(jwt)) {
-                String email = jwtUtils.getEmailFromJwtToken(jwt);
-                
-                UserDetails userDetails = userDetailsService.loadUserByUsername(email);
+            Claims claims = jwt != null ? medir("validar-token", () -> jwtUtils.validarYObtenerClaims(jwt)) : null;
+            UserDetails userDetails = claims != null ? medir("cargar-usuario", () -> obtenerUsuario(claims)) : null;
+            if (userDetails != null) {
                 UsernamePasswordAuthenticationToken authentication = 
                         new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
                 authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
@@ -48,6 +69,47 @@ public class AuthTokenFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
     
+    /**
+     * En modo stateless el usuario se arma desde los claims firmados y solo se consulta el registro
+     * de revocaciones en memoria; en otro caso (o con tokens sin esos claims) se carga desde la base.
+     * Devuelve null si el token pertenece a un usuario revocado o inactivo.
+     */
+    private UserDetails obtenerUsuario(Claims claims) {
+        UserDetailsImpl usuario = stateless ? UserDetailsImpl.desdeClaims(claims) : null;
+        if (usuario == null) {
+            usuario = (UserDetailsImpl) userDetailsService.loadUserByUsername(claims.getSubject());
+        }
+        
+        Long emitidoEnMillis = JwtUtils.obtenerEmisionMillis(claims);
+        if (!usuario.isEnabled()
+                || (emitidoEnMillis != null && revocacionTokens.estaRevocado(usuario.getId(), emitidoEnMillis))) {
+            authLogger.warning(() -> "Token rechazado para usuario revocado o inactivo: " + claims.getSubject());
+            return null;
+        }
+        return usuario;
+    }
+    
+    private <T> T medir(String etapa, Supplier<T> paso) {
+        Timer.Sample muestra = Timer.start(meterRegistry);
+        String excepcion = "none";
+        try {
+            return paso.get();
+        } catch (RuntimeException e) {
+            excepcion = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            muestra.stop(timer(etapa, excepcion));
+        }
+    }
+    
+    private Timer timer(String etapa, String excepcion) {
+        return timersPorEtapa.computeIfAbsent(etapa + "|" + excepcion, clave -> Timer.builder(TIMER_ETAPAS)
+                .tag("etapa", etapa)
+                .tag("exception", excepcion)
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+    }
+    
     private String parseJwt(HttpServletRequest request) {
         String headerAuth = request.getHeader("Authorization");
         
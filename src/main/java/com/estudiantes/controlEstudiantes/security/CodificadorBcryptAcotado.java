@@ -0,0 +1,122 @@
+package com.estudiantes.controlEstudiantes.security;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import com.estudiantes.controlEstudiantes.exception.ServicioSaturadoException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * PasswordEncoder que ejecuta el BCrypt del delegado en un pool propio de tamaño fijo, con una cola
+ * acotada. Así el cifrado nunca ocupa más núcleos que los hilos del pool y los GET baratos no esperan
+ * detrás de una ráfaga de logins. Con la cola llena falla enseguida con ServicioSaturadoException (503)
+ * en lugar de acumular peticiones.
+ *
+ * Publica por operación (codificar, verificar) la espera en cola (bcrypt.espera) y el tiempo de cálculo
+ * (bcrypt.calculo) por separado, más la profundidad de la cola y los rechazos.
+ */
+public class CodificadorBcryptAcotado implements PasswordEncoder, AutoCloseable {
+    
+    private final PasswordEncoder delegado;
+    private final ThreadPoolExecutor pool;
+    private final Medicion codificar;
+    private final Medicion verificar;
+    private final Counter rechazos;
+    
+    public CodificadorBcryptAcotado(PasswordEncoder delegado, int hilos, int colaMaxima, MeterRegistry meterRegistry) {
+        this.delegado = delegado;
+        AtomicInteger contador = new AtomicInteger();
+        ThreadFactory fabrica = tarea -> {
+            Thread hilo = new Thread(tarea, "bcrypt-" + contador.incrementAndGet());
+            hilo.setDaemon(true);
+            return hilo;
+        };
+        this.pool = new ThreadPoolExecutor(hilos, hilos, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(colaMaxima), fabrica, new ThreadPoolExecutor.AbortPolicy());
+        
+        this.codificar = new Medicion("codificar", meterRegistry);
+        this.verificar = new Medicion("verificar", meterRegistry);
+        this.rechazos = Counter.builder("bcrypt.rechazos").register(meterRegistry);
+        Gauge.builder("bcrypt.cola", pool, ejecutor -> ejecutor.getQueue().size()).register(meterRegistry);
+    }
+    
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return ejecutar(codificar, () -> delegado.encode(rawPassword));
+    }
+    
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return ejecutar(verificar, () -> delegado.matches(rawPassword, encodedPassword));
+    }
+    
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegado.upgradeEncoding(encodedPassword);
+    }
+    
+    @Override
+    public void close() {
+        pool.shutdown();
+    }
+    
+    private <T> T ejecutar(Medicion medicion, Supplier<T> calculo) {
+        long encolada = System.nanoTime();
+        Future<T> resultado;
+        try {
+            resultado = pool.submit(() -> {
+                long inicio = System.nanoTime();
+                medicion.espera.record(inicio - encolada, TimeUnit.NANOSECONDS);
+                try {
+                    return calculo.get();
+                } finally {
+                    medicion.calculo.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rechazos.increment();
+            throw new ServicioSaturadoException("El servidor está saturado, intente nuevamente en unos segundos", e);
+        }
+        
+        try {
+            return resultado.get();
+        } catch (InterruptedException e) {
+            resultado.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new ServicioSaturadoException("Cifrado de contraseña interrumpido", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+    
+    private static final class Medicion {
+        private final Timer espera;
+        private final Timer calculo;
+        
+        private Medicion(String operacion, MeterRegistry meterRegistry) {
+            this.espera = Timer.builder("bcrypt.espera").tag("operacion", operacion)
+                    .publishPercentileHistogram().register(meterRegistry);
+            this.calculo = Timer.builder("bcrypt.calculo").tag("operacion", operacion)
+                    .publishPercentileHistogram().register(meterRegistry);
+        }
+    }
+}
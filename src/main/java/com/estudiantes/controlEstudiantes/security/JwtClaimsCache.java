@@ -0,0 +1,71 @@
+package com.estudiantes.controlEstudiantes.security;
+
+import java.util.concurrent.TimeUnit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import io.jsonwebtoken.Claims;
+
+/**
+ * Caché acotada de tokens JWT cuya firma ya fue verificada, sobre Caffeine: las lecturas no se
+ * bloquean entre sí y el desalojo por tamaño es aproximadamente LRU. Cada entrada vence con su
+ * token, así que un token expirado nunca se devuelve desde la caché.
+ */
+class JwtClaimsCache {
+    
+    private final Cache<String, Entrada> entradas;
+    
+    JwtClaimsCache(int capacidad) {
+        this.entradas = capacidad <= 0 ? null : Caffeine.newBuilder()
+                .maximumSize(capacidad)
+                .expireAfter(new Expiry<String, Entrada>() {
+                    @Override
+                    public long expireAfterCreate(String token, Entrada entrada, long ahoraNanos) {
+                        long restanteMillis = entrada.expiracionMillis - System.currentTimeMillis();
+                        return TimeUnit.MILLISECONDS.toNanos(Math.max(0, restanteMillis));
+                    }
+                    
+                    @Override
+                    public long expireAfterUpdate(String token, Entrada entrada, long ahoraNanos, long duracionActual) {
+                        return expireAfterCreate(token, entrada, ahoraNanos);
+                    }
+                    
+                    @Override
+                    public long expireAfterRead(String token, Entrada entrada, long ahoraNanos, long duracionActual) {
+                        return duracionActual;
+                    }
+                })
+                .build();
+    }
+    
+    Claims obtener(String token, long ahoraMillis) {
+        if (entradas == null) {
+            return null;
+        }
+        Entrada entrada = entradas.getIfPresent(token);
+        // Caffeine vence por nanoTime; el control contra el reloj de pared cubre la diferencia entre ambos
+        if (entrada == null || ahoraMillis >= entrada.expiracionMillis) {
+            return null;
+        }
+        return entrada.claims;
+    }
+    
+    void guardar(String token, Claims claims) {
+        if (entradas == null || claims.getExpiration() == null) {
+            return;
+        }
+        entradas.put(token, new Entrada(claims, claims.getExpiration().getTime()));
+    }
+    
+    private static final class Entrada {
+        private final Claims claims;
+        private final long expiracionMillis;
+        
+        private Entrada(Claims claims, long expiracionMillis) {
+            this.claims = claims;
+            this.expiracionMillis = expiracionMillis;
+        }
+    }
+}
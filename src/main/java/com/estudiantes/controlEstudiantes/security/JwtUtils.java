@@ -9,35 +9,75 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Component;
 
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.MalformedJwtException;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.UnsupportedJwtException;
 import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SecurityException;
+import jakarta.annotation.PostConstruct;
 
 @Component
 public class JwtUtils {
     
     private static final Logger logger = Logger.getLogger(JwtUtils.class.getName());
     
+    public static final String CLAIM_ID = "id";
+    public static final String CLAIM_ROL = "rol";
+    public static final String CLAIM_ACTIVO = "activo";
+    // Instante de emisión en milisegundos: iat solo tiene resolución de segundos
+    public static final String CLAIM_EMITIDO = "emitido";
+    
     @Value("${jwt.secret}")
     private String jwtSecret;
     
     @Value("${jwt.expiration}")
     private Long jwtExpiration;
     
+    @Value("${jwt.cache.max-entries:10000}")
+    private int cacheMaxEntries;
+    
+    // La clave HMAC y el parser son inmutables y thread-safe: se construyen una sola vez
+    private SecretKey signingKey;
+    private JwtParser jwtParser;
+    private JwtClaimsCache claimsCache;
+    
+    @PostConstruct
+    public void init() {
+        this.signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        this.jwtParser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
+        this.claimsCache = new JwtClaimsCache(cacheMaxEntries);
+    }
+    
     private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        return signingKey;
     }
     
     public String generateJwtToken(Authentication authentication) {
+        return generateJwtToken(authentication, System.currentTimeMillis());
+    }
+    
+    /**
+     * emitidoMillis es el instante en que se leyeron los datos del usuario para autenticarlo: una
+     * revocación posterior a esa lectura alcanza al token aunque se firme después.
+     */
+    public String generateJwtToken(Authentication authentication, long emitidoMillis) {
         UserDetailsImpl userPrincipal = (UserDetailsImpl) authentication.getPrincipal();
+        long ahoraMillis = System.currentTimeMillis();
         
         return Jwts.builder()
                 .setSubject(userPrincipal.getEmail())
-                .setIssuedAt(new Date())
-                .setExpiration(new Date(System.currentTimeMillis() + jwtExpiration))
+                .claim(CLAIM_ID, userPrincipal.getId())
+                .claim(CLAIM_ROL, userPrincipal.getRol().name())
+                .claim(CLAIM_ACTIVO, userPrincipal.isEnabled())
+                .claim(CLAIM_EMITIDO, emitidoMillis)
+                .setIssuedAt(new Date(ahoraMillis))
+                .setExpiration(new Date(ahoraMillis + jwtExpiration))
                 .signWith(getSigningKey(), SignatureAlgorithm.HS256)
                 .compact();
     }
@@ -52,21 +92,52 @@ public class JwtUtils {
     }
     
     public String getEmailFromJwtToken(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
+        return jwtParser.parseClaimsJws(token)
                 .getBody()
                 .getSubject();
     }
     
+    /**
+     * Valida el token y devuelve sus claims en una sola pasada, o null si el token no es válido.
+     * Los tokens ya verificados se sirven desde una caché acotada hasta su expiración, así que
+     * las peticiones repetidas de la misma sesión no vuelven a decodificar ni a verificar la firma.
+     */
+    public Claims validarYObtenerClaims(String authToken) {
+        if (authToken == null || authToken.isEmpty()) {
+            return null;
+        }
+        
+        Claims claims = claimsCache.obtener(authToken, System.currentTimeMillis());
+        if (claims != null) {
+            return claims;
+        }
+        
+        claims = parsearClaims(authToken);
+        if (claims != null) {
+            claimsCache.guardar(authToken, claims);
+        }
+        return claims;
+    }
+    
+    /**
+     * Instante de emisión del token en milisegundos, o null si no lo declara. Los tokens sin el
+     * claim emitido usan iat, truncado al segundo.
+     */
+    public static Long obtenerEmisionMillis(Claims claims) {
+        Number emitido = claims.get(CLAIM_EMITIDO, Number.class);
+        if (emitido != null) {
+            return emitido.longValue();
+        }
+        return claims.getIssuedAt() != null ? claims.getIssuedAt().getTime() : null;
+    }
+    
     public boolean validateJwtToken(String authToken) {
+        return parsearClaims(authToken) != null;
+    }
+    
+    private Claims parsearClaims(String authToken) {
         try {
-            Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(authToken);
-            return true;
+            return jwtParser.parseClaimsJws(authToken).getBody();
         } catch (SecurityException e) {
             logger.severe(() -> "JWT signature inválida: " + e.getMessage());
         } catch (MalformedJwtException e) {
@@ -78,14 +149,11 @@ public class JwtUtils {
         } catch (IllegalArgumentException e) {
             logger.severe(() -> "JWT claims string está vacío: " + e.getMessage());
         }
-        return false;
+        return null;
     }
     
     public Date getExpirationDateFromJwtToken(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
+        return jwtParser.parseClaimsJws(token)
                 .getBody()
                 .getExpiration();
     }
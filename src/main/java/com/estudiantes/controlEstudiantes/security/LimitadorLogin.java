@@ -0,0 +1,100 @@
+package com.estudiantes.controlEstudiantes.security;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.estudiantes.controlEstudiantes.exception.DemasiadosIntentosException;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Limita los intentos de login por IP y por email con cubetas de tokens en memoria. Se consulta antes
+ * de buscar al usuario y de verificar la contraseña: una ráfaga de intentos se rechaza con 429 sin
+ * gastar la CPU de BCrypt (unos 100 ms por intento) que necesitan el resto de los endpoints.
+ *
+ * El intento se cobra antes de verificar, así una ráfaga simultánea no pasa toda a BCrypt; un login
+ * exitoso repone la cubeta de su email y devuelve el token a la de su IP, así muchos usuarios detrás de
+ * la misma IP (un NAT, un proxy) pueden iniciar sesión. Las devoluciones a una IP salen de una tercera
+ * cubeta: con una cuenta válida no se puede mantener llena la cubeta de la IP a fuerza de logins
+ * exitosos, pasadas esas devoluciones cada login cuenta como un intento más. Un login rechazado por
+ * saturación (503) no llegó a verificar la contraseña y devuelve el intento a ambas cubetas.
+ * El estado es local a cada instancia de la aplicación.
+ */
+@Component
+public class LimitadorLogin {
+    
+    private static final Logger logger = Logger.getLogger(LimitadorLogin.class.getName());
+    
+    @Value("${login.limite.ip.capacidad:20}")
+    private int capacidadPorIp;
+    
+    @Value("${login.limite.ip.recarga-por-minuto:20}")
+    private int recargaPorIp;
+    
+    @Value("${login.limite.ip.devoluciones-por-minuto:60}")
+    private int devolucionesPorIp;
+    
+    @Value("${login.limite.email.capacidad:5}")
+    private int capacidadPorEmail;
+    
+    @Value("${login.limite.email.recarga-por-minuto:5}")
+    private int recargaPorEmail;
+    
+    @Value("${login.limite.max-claves:100000}")
+    private int maxClaves;
+    
+    private LimitadorTokens porIp;
+    private LimitadorTokens devolucionesIp;
+    private LimitadorTokens porEmail;
+    
+    @PostConstruct
+    public void init() {
+        this.porIp = new LimitadorTokens(capacidadPorIp, recargaPorIp, maxClaves);
+        this.devolucionesIp = new LimitadorTokens(devolucionesPorIp, devolucionesPorIp, maxClaves);
+        this.porEmail = new LimitadorTokens(capacidadPorEmail, recargaPorEmail, maxClaves);
+    }
+    
+    /**
+     * Consume un intento de la IP y, si quedaba, uno del email.
+     * @throws DemasiadosIntentosException si alguna de las dos cubetas está vacía
+     */
+    public void verificar(String ip, String email) {
+        long ahora = System.nanoTime();
+        long espera = porIp.consumir(ip, ahora);
+        if (espera == 0 && email != null) {
+            espera = porEmail.consumir(normalizar(email), ahora);
+        }
+        if (espera > 0) {
+            // fine y no warning: durante un ataque escribir cada rechazo en el log también es carga
+            logger.fine(() -> "Login rechazado por exceso de intentos desde " + ip);
+            long segundos = Math.max(1, (long) Math.ceil(espera / (double) TimeUnit.SECONDS.toNanos(1)));
+            throw new DemasiadosIntentosException("Demasiados intentos de inicio de sesión, intente nuevamente en "
+                    + segundos + " segundos", segundos);
+        }
+    }
+    
+    public void registrarExito(String ip, String email) {
+        long ahora = System.nanoTime();
+        if (devolucionesIp.consumir(ip, ahora) == 0) {
+            porIp.devolver(ip, ahora);
+        }
+        porEmail.reponer(normalizar(email));
+    }
+    
+    // El intento no llegó a verificar la contraseña (servidor saturado): no cuenta para ninguna cubeta
+    public void devolverIntento(String ip, String email) {
+        long ahora = System.nanoTime();
+        porIp.devolver(ip, ahora);
+        if (email != null) {
+            porEmail.devolver(normalizar(email), ahora);
+        }
+    }
+    
+    private static String normalizar(String email) {
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,112 @@
+package com.estudiantes.controlEstudiantes.security;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Cubetas de tokens por clave: cada intento consume un token y los tokens se recargan a ritmo
+ * constante hasta la capacidad. Las claves se reparten en FRANJAS mapas LRU, cada uno con su lock,
+ * así los intentos de claves distintas rara vez compiten. Cada franja guarda a lo sumo
+ * maxClaves / FRANJAS cubetas y descarta la usada hace más tiempo; una cubeta descartada vuelve llena.
+ */
+class LimitadorTokens {
+    
+    private static final int FRANJAS = 16;
+    
+    private final double capacidad;
+    private final double tokensPorNano;
+    private final Franja[] franjas = new Franja[FRANJAS];
+    
+    LimitadorTokens(int capacidad, int recargaPorMinuto, int maxClaves) {
+        this.capacidad = capacidad;
+        this.tokensPorNano = recargaPorMinuto / 60_000_000_000.0;
+        for (int i = 0; i < FRANJAS; i++) {
+            franjas[i] = new Franja(Math.max(1, maxClaves / FRANJAS));
+        }
+    }
+    
+    // Consume un token de la clave: devuelve 0 si lo había, o los nanos que faltan para el próximo
+    long consumir(String clave, long ahoraNanos) {
+        if (capacidad <= 0) {
+            return 0;
+        }
+        Franja franja = franja(clave);
+        franja.lock.lock();
+        try {
+            Cubeta cubeta = franja.cubetas.get(clave);
+            if (cubeta == null) {
+                cubeta = new Cubeta(capacidad, ahoraNanos);
+                franja.cubetas.put(clave, cubeta);
+            } else {
+                cubeta.tokens = Math.min(capacidad, cubeta.tokens + (ahoraNanos - cubeta.actualizadaNanos) * tokensPorNano);
+                cubeta.actualizadaNanos = ahoraNanos;
+            }
+            
+            if (cubeta.tokens >= 1) {
+                cubeta.tokens--;
+                return 0;
+            }
+            return tokensPorNano > 0 ? (long) Math.ceil((1 - cubeta.tokens) / tokensPorNano) : Long.MAX_VALUE;
+        } finally {
+            franja.lock.unlock();
+        }
+    }
+    
+    // Devuelve un token consumido, sin pasar de la capacidad (sin entrada equivale a llena)
+    void devolver(String clave, long ahoraNanos) {
+        Franja franja = franja(clave);
+        franja.lock.lock();
+        try {
+            Cubeta cubeta = franja.cubetas.get(clave);
+            if (cubeta != null) {
+                cubeta.tokens = Math.min(capacidad,
+                        cubeta.tokens + 1 + (ahoraNanos - cubeta.actualizadaNanos) * tokensPorNano);
+                cubeta.actualizadaNanos = ahoraNanos;
+            }
+        } finally {
+            franja.lock.unlock();
+        }
+    }
+    
+    // Deja la cubeta de la clave llena (sin entrada equivale a llena)
+    void reponer(String clave) {
+        Franja franja = franja(clave);
+        franja.lock.lock();
+        try {
+            franja.cubetas.remove(clave);
+        } finally {
+            franja.lock.unlock();
+        }
+    }
+    
+    private Franja franja(String clave) {
+        int hash = clave.hashCode();
+        return franjas[(hash ^ (hash >>> 16)) & (FRANJAS - 1)];
+    }
+    
+    private static final class Franja {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Map<String, Cubeta> cubetas;
+        
+        private Franja(int capacidad) {
+            // accessOrder = true: la entrada más antigua es la usada hace más tiempo
+            this.cubetas = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Cubeta> eldest) {
+                    return size() > capacidad;
+                }
+            };
+        }
+    }
+    
+    private static final class Cubeta {
+        private double tokens;
+        private long actualizadaNanos;
+        
+        private Cubeta(double tokens, long actualizadaNanos) {
+            this.tokens = tokens;
+            this.actualizadaNanos = actualizadaNanos;
+        }
+    }
+}
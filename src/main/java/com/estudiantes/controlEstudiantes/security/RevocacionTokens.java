@@ -0,0 +1,42 @@
+package com.estudiantes.controlEstudiantes.security;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Registro en memoria de usuarios cuyos tokens emitidos hasta cierto instante dejan de ser válidos
+ * (desactivación, cambio de email o de contraseña). Una entrada solo necesita vivir lo que dura un
+ * token, así que las más antiguas que jwt.expiration se descartan al registrar nuevas.
+ *
+ * El registro es local a cada instancia: con varios nodos detrás de un balanceador habría que
+ * compartirlo (por ejemplo en la base de datos o en Redis).
+ */
+@Component
+public class RevocacionTokens {
+    
+    @Value("${jwt.expiration}")
+    private Long jwtExpiration;
+    
+    // id de usuario -> instante (epoch en milisegundos) a partir del cual se aceptan de nuevo sus tokens
+    private final Map<Long, Long> revocadosHasta = new ConcurrentHashMap<>();
+    
+    public void revocar(Long usuarioId) {
+        long ahoraMillis = System.currentTimeMillis();
+        revocadosHasta.put(usuarioId, ahoraMillis);
+        
+        long limiteMillis = ahoraMillis - jwtExpiration;
+        revocadosHasta.values().removeIf(instante -> instante < limiteMillis);
+    }
+    
+    /**
+     * Compara en milisegundos: un token emitido en el mismo segundo que la revocación, pero
+     * después de ella (el nuevo login tras cambiar la contraseña), sigue siendo válido.
+     */
+    public boolean estaRevocado(Long usuarioId, long emitidoEnMillis) {
+        Long hasta = revocadosHasta.get(usuarioId);
+        return hasta != null && emitidoEnMillis < hasta;
+    }
+}
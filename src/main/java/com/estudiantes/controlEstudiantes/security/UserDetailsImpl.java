@@ -11,6 +11,8 @@ import org.springframework.security.core.userdetails.UserDetails;
 import com.estudiantes.controlEstudiantes.entity.Estudiante;
 import com.estudiantes.controlEstudiantes.entity.RolEstudiante;
 
+import io.jsonwebtoken.Claims;
+
 public class UserDetailsImpl implements UserDetails {
     
     private Long id;
@@ -45,6 +47,29 @@ public class UserDetailsImpl implements UserDetails {
         );
     }
     
+    /**
+     * Reconstruye el usuario a partir de los claims firmados del token, sin consultar la base de datos.
+     * Devuelve null si el token no trae los claims necesarios (tokens emitidos antes de incluirlos).
+     */
+    public static UserDetailsImpl desdeClaims(Claims claims) {
+        Number id = claims.get(JwtUtils.CLAIM_ID, Number.class);
+        String rol = claims.get(JwtUtils.CLAIM_ROL, String.class);
+        Boolean activo = claims.get(JwtUtils.CLAIM_ACTIVO, Boolean.class);
+        if (id == null || rol == null || activo == null) {
+            return null;
+        }
+        
+        RolEstudiante rolEstudiante = RolEstudiante.valueOf(rol);
+        return new UserDetailsImpl(
+            id.longValue(),
+            claims.getSubject(),
+            null,
+            rolEstudiante,
+            activo,
+            List.of(new SimpleGrantedAuthority("ROLE_" + rolEstudiante.name()))
+        );
+    }
+    
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
         return authorities;
@@ -1,6 +1,8 @@
 package com.estudiantes.controlEstudiantes.security;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
@@ -16,12 +18,20 @@ public class UserDetailsServiceImpl implements UserDetailsService {
     @Autowired
     EstudianteRepository estudianteRepository;
     
+    public static final String CACHE_USUARIOS = "usuarios";
+    
     @Override
     @Transactional
+    @Cacheable(CACHE_USUARIOS)
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
         Estudiante estudiante = estudianteRepository.findByEmail(email)
                 .orElseThrow(() -> new UsernameNotFoundException("Usuario no encontrado con email: " + email));
         
         return UserDetailsImpl.build(estudiante);
     }
+    
+    @CacheEvict(CACHE_USUARIOS)
+    public void invalidarUsuario(String email) {
+        // La anotación se encarga de eliminar la entrada
+    }
 }
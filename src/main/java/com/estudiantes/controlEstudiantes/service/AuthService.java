@@ -7,6 +7,7 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 
+import com.estudiantes.controlEstudiantes.config.MetricasConfig;
 import com.estudiantes.controlEstudiantes.dto.LoginRequestDTO;
 import com.estudiantes.controlEstudiantes.dto.LoginResponseDTO;
 import com.estudiantes.controlEstudiantes.entity.Estudiante;
@@ -15,7 +16,10 @@ import com.estudiantes.controlEstudiantes.repository.EstudianteRepository;
 import com.estudiantes.controlEstudiantes.security.JwtUtils;
 import com.estudiantes.controlEstudiantes.security.UserDetailsImpl;
 
+import io.micrometer.core.annotation.Timed;
+
 @Service
+@Timed(value = MetricasConfig.TIMER_SERVICIOS, histogram = true)
 public class AuthService {
     
     @Autowired
@@ -28,6 +32,10 @@ public class AuthService {
     JwtUtils jwtUtils;
     
     public LoginResponseDTO authenticateUser(LoginRequestDTO loginRequest) {
+        // Antes de leer al usuario: si su contraseña cambia o se desactiva mientras se verifica, la
+        // revocación es posterior a este instante y alcanza al token
+        long leidoMillis = System.currentTimeMillis();
+        
         // Verificar que el usuario existe y está activo
         Estudiante estudiante = estudianteRepository.findByEmail(loginRequest.getEmail())
                 .orElseThrow(() -> new ResourceNotFoundException("Usuario no encontrado con email: " + loginRequest.getEmail()));
@@ -43,7 +51,7 @@ public class AuthService {
         SecurityContextHolder.getContext().setAuthentication(authentication);
         
         // Generar JWT
-        String jwt = jwtUtils.generateJwtToken(authentication);
+        String jwt = jwtUtils.generateJwtToken(authentication, leidoMillis);
         
         // Obtener detalles del usuario
         UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
@@ -0,0 +1,227 @@
+package com.estudiantes.controlEstudiantes.service;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Logger;
+import java.util.regex.Pattern;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.estudiantes.controlEstudiantes.dto.MateriaSugerenciaDTO;
+import com.estudiantes.controlEstudiantes.entity.Materia;
+import com.estudiantes.controlEstudiantes.repository.MateriaRepository;
+
+/**
+ * Trie en memoria sobre el código y el nombre de las materias activas, para sugerir materias mientras
+ * se escribe sin consultar la base. Los textos se normalizan (minúsculas, sin tildes, espacios simples)
+ * y el nombre se indexa desde cada palabra, así "datos" sugiere "Base de Datos".
+ *
+ * Cada nodo guarda ya ordenadas sus primeras MAX_SUGERENCIAS materias, por lo que una consulta solo
+ * recorre el prefijo. Las escrituras de MateriaService se aplican al confirmar la transacción y
+ * actualizan únicamente los nodos de los términos afectados; las consultas leen sin bloqueo.
+ * Las escrituras se serializan con un ReentrantLock y no con synchronized: la reconstrucción consulta
+ * la base con el lock tomado, y un monitor fijaría el hilo portador si corre en un hilo virtual.
+ * El estado es local a cada instancia de la aplicación.
+ */
+@Component
+public class AutocompletadoMaterias {
+    
+    private static final Logger logger = Logger.getLogger(AutocompletadoMaterias.class.getName());
+    
+    // Sugerencias que guarda cada nodo; ninguna consulta puede pedir más
+    public static final int MAX_SUGERENCIAS = 20;
+    
+    private static final Pattern MARCAS_DIACRITICAS = Pattern.compile("\\p{M}+");
+    private static final Pattern ESPACIOS = Pattern.compile("\\s+");
+    
+    private static final Comparator<Sugerencia> ORDEN = Comparator
+            .comparing((Sugerencia sugerencia) -> sugerencia.nombreNormalizado)
+            .thenComparing(sugerencia -> sugerencia.id);
+    
+    @Autowired
+    private MateriaRepository materiaRepository;
+    
+    // Se reemplaza completa al reconstruir; los cambios incrementales la modifican en su lugar
+    private volatile Nodo raiz = new Nodo();
+    
+    // Materias indexadas por id, para retirar sus términos anteriores. Solo se usa con el lock tomado
+    private Map<Long, Sugerencia> indexadas = new HashMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    
+    public List<MateriaSugerenciaDTO> sugerir(String texto, int limite) {
+        String prefijo = normalizar(texto);
+        if (prefijo.isEmpty()) {
+            return Collections.emptyList();
+        }
+        
+        Nodo nodo = raiz;
+        for (int i = 0; i < prefijo.length() && nodo != null; i++) {
+            nodo = nodo.hijos.get(prefijo.charAt(i));
+        }
+        if (nodo == null) {
+            return Collections.emptyList();
+        }
+        
+        Sugerencia[] mejores = nodo.mejores;
+        int cantidad = Math.min(Math.max(1, Math.min(limite, MAX_SUGERENCIAS)), mejores.length);
+        List<MateriaSugerenciaDTO> sugerencias = new ArrayList<>(cantidad);
+        for (int i = 0; i < cantidad; i++) {
+            sugerencias.add(new MateriaSugerenciaDTO(mejores[i].id, mejores[i].codigo, mejores[i].nombre));
+        }
+        return sugerencias;
+    }
+    
+    // Registra el estado de una materia creada, modificada o desactivada cuando la transacción actual confirma
+    public void registrar(Materia materia) {
+        Long id = materia.getId();
+        Sugerencia sugerencia = Boolean.TRUE.equals(materia.getActiva())
+                ? new Sugerencia(id, materia.getCodigo(), materia.getNombre())
+                : null;
+        TransaccionUtils.despuesDelCommit(() -> aplicar(id, sugerencia));
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void inicializar() {
+        reconstruir();
+    }
+    
+    /**
+     * Vuelve a cargar las materias activas desde la base. Los cambios que confirmen mientras tanto
+     * esperan el lock y se aplican después sobre el trie nuevo; aplicarlos es idempotente.
+     */
+    public void reconstruir() {
+        lock.lock();
+        try {
+            Nodo nuevaRaiz = new Nodo();
+            Map<Long, Sugerencia> nuevas = new HashMap<>();
+            Set<Nodo> modificados = new HashSet<>();
+            
+            for (Materia materia : materiaRepository.findByActivaTrue()) {
+                Sugerencia sugerencia = new Sugerencia(materia.getId(), materia.getCodigo(), materia.getNombre());
+                nuevas.put(sugerencia.id, sugerencia);
+                agregar(nuevaRaiz, sugerencia, modificados);
+            }
+            for (Nodo nodo : modificados) {
+                nodo.recalcularMejores(nuevas);
+            }
+            
+            indexadas = nuevas;
+            raiz = nuevaRaiz;
+            logger.info("Autocompletado de materias construido con " + nuevas.size() + " materias activas");
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    private void aplicar(Long id, Sugerencia nueva) {
+        lock.lock();
+        try {
+            Set<Nodo> modificados = new HashSet<>();
+            Sugerencia anterior = nueva == null ? indexadas.remove(id) : indexadas.put(id, nueva);
+            if (anterior != null) {
+                quitar(raiz, anterior, modificados);
+            }
+            if (nueva != null) {
+                agregar(raiz, nueva, modificados);
+            }
+            for (Nodo nodo : modificados) {
+                nodo.recalcularMejores(indexadas);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    private static void agregar(Nodo raiz, Sugerencia sugerencia, Set<Nodo> modificados) {
+        for (String termino : sugerencia.terminos) {
+            Nodo nodo = raiz;
+            for (int i = 0; i < termino.length(); i++) {
+                nodo = nodo.hijos.computeIfAbsent(termino.charAt(i), caracter -> new Nodo());
+                nodo.materias.add(sugerencia.id);
+                modificados.add(nodo);
+            }
+        }
+    }
+    
+    private static void quitar(Nodo raiz, Sugerencia sugerencia, Set<Nodo> modificados) {
+        for (String termino : sugerencia.terminos) {
+            Nodo padre = raiz;
+            for (int i = 0; i < termino.length(); i++) {
+                Nodo nodo = padre.hijos.get(termino.charAt(i));
+                if (nodo == null) {
+                    // Ya podado por otro término de la misma materia
+                    break;
+                }
+                nodo.materias.remove(sugerencia.id);
+                if (nodo.materias.isEmpty()) {
+                    // Sin materias en el nodo tampoco quedan en sus descendientes
+                    padre.hijos.remove(termino.charAt(i));
+                    break;
+                }
+                modificados.add(nodo);
+                padre = nodo;
+            }
+        }
+    }
+    
+    static String normalizar(String texto) {
+        if (texto == null) {
+            return "";
+        }
+        String sinTildes = MARCAS_DIACRITICAS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD)).replaceAll("");
+        return ESPACIOS.matcher(sinTildes.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+    
+    private static final class Nodo {
+        private final Map<Character, Nodo> hijos = new ConcurrentHashMap<>();
+        // Materias con algún término que pasa por este nodo; solo se usa con el lock tomado
+        private final Set<Long> materias = new HashSet<>();
+        // Lo único que leen las consultas: las primeras materias del nodo, ya ordenadas
+        private volatile Sugerencia[] mejores = new Sugerencia[0];
+        
+        void recalcularMejores(Map<Long, Sugerencia> indexadas) {
+            mejores = materias.stream()
+                    .map(indexadas::get)
+                    .sorted(ORDEN)
+                    .limit(MAX_SUGERENCIAS)
+                    .toArray(Sugerencia[]::new);
+        }
+    }
+    
+    private static final class Sugerencia {
+        private final Long id;
+        private final String codigo;
+        private final String nombre;
+        private final String nombreNormalizado;
+        private final Set<String> terminos = new LinkedHashSet<>();
+        
+        private Sugerencia(Long id, String codigo, String nombre) {
+            this.id = id;
+            this.codigo = codigo;
+            this.nombre = nombre;
+            this.nombreNormalizado = normalizar(nombre);
+            
+            terminos.add(normalizar(codigo));
+            // El nombre completo y lo que sigue a cada espacio: "base de datos", "de datos", "datos"
+            terminos.add(nombreNormalizado);
+            for (int i = nombreNormalizado.indexOf(' '); i >= 0; i = nombreNormalizado.indexOf(' ', i + 1)) {
+                terminos.add(nombreNormalizado.substring(i + 1));
+            }
+            terminos.remove("");
+        }
+    }
+}
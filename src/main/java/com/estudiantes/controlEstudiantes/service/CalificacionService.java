@@ -1,15 +1,30 @@
 package com.estudiantes.controlEstudiantes.service;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.estudiantes.controlEstudiantes.config.MetricasConfig;
+import com.estudiantes.controlEstudiantes.dto.CalificacionLoteResponseDTO;
+import com.estudiantes.controlEstudiantes.dto.CalificacionPaginaDTO;
 import com.estudiantes.controlEstudiantes.dto.CalificacionRequestDTO;
 import com.estudiantes.controlEstudiantes.dto.CalificacionResponseDTO;
+import com.estudiantes.controlEstudiantes.dto.EstadisticasMateriaDTO;
+import com.estudiantes.controlEstudiantes.dto.ListadoVersionadoDTO;
+import com.estudiantes.controlEstudiantes.dto.PosicionRankingDTO;
 import com.estudiantes.controlEstudiantes.entity.Calificacion;
 import com.estudiantes.controlEstudiantes.entity.Estudiante;
 import com.estudiantes.controlEstudiantes.entity.Materia;
@@ -18,11 +33,29 @@ import com.estudiantes.controlEstudiantes.exception.ResourceNotFoundException;
 import com.estudiantes.controlEstudiantes.repository.CalificacionRepository;
 import com.estudiantes.controlEstudiantes.repository.EstudianteRepository;
 import com.estudiantes.controlEstudiantes.repository.MateriaRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 
 @Service
+@Timed(value = MetricasConfig.TIMER_SERVICIOS, histogram = true)
 @Transactional
 public class CalificacionService {
     
+    // Límite de filas por página en el listado por cursor
+    private static final int TAMANO_MAXIMO_PAGINA = 1000;
+    
+    // Límite de filas de los rankings; coincide con lo que guarda el ranking del período en memoria
+    private static final int LIMITE_MAXIMO_RANKING = RankingPeriodoActual.CAPACIDAD;
+    
+    // Cada cuántas filas se hace flush de la salida al transmitir
+    private static final int TAMANO_LOTE_STREAM = 500;
+    
+    // Cada cuántas calificaciones nuevas se hace flush y se vacía el contexto en la carga por lote
+    private static final int TAMANO_LOTE_INSERCION = 500;
+    
     @Autowired
     private CalificacionRepository calificacionRepository;
     
@@ -32,19 +65,70 @@ public class CalificacionService {
     @Autowired
     private MateriaRepository materiaRepository;
     
+    @Autowired
+    private PromediosCalificaciones promediosCalificaciones;
+    
+    @Autowired
+    private RankingPeriodoActual rankingPeriodoActual;
+    
+    @Autowired
+    private EstadisticasPeriodoActual estadisticasPeriodoActual;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Transactional(readOnly = true)
     public List<CalificacionResponseDTO> obtenerTodasLasCalificaciones() {
-        return calificacionRepository.findAllWithRelations()
-                .stream()
-                .map(this::convertirAResponseDTO)
-                .collect(Collectors.toList());
+        return calificacionRepository.findAllAsDTO();
     }
     
-    public CalificacionResponseDTO obtenerCalificacionPorId(Long id) {
-        Calificacion calificacion = calificacionRepository.findByIdWithRelations(id);
-        if (calificacion == null) {
-            throw new ResourceNotFoundException("Calificación no encontrada con ID: " + id);
+    @Transactional(readOnly = true)
+    public CalificacionPaginaDTO obtenerPaginaCalificaciones(Long despuesDeId, int tamano) {
+        int tamanoPagina = Math.max(1, Math.min(tamano, TAMANO_MAXIMO_PAGINA));
+        Long cursor = despuesDeId != null ? despuesDeId : 0L;
+        
+        // Se pide una fila extra para saber si existe otra página sin ejecutar un COUNT
+        List<CalificacionResponseDTO> filas = calificacionRepository.findPaginaAsDTO(
+                cursor, PageRequest.of(0, tamanoPagina + 1));
+        boolean hayMas = filas.size() > tamanoPagina;
+        
+        List<CalificacionResponseDTO> calificaciones = hayMas ? filas.subList(0, tamanoPagina) : filas;
+        Long siguienteCursor = hayMas ? calificaciones.get(calificaciones.size() - 1).getId() : null;
+        
+        return new CalificacionPaginaDTO(calificaciones, siguienteCursor, hayMas);
+    }
+    
+    /**
+     * Escribe todas las calificaciones como NDJSON (un objeto JSON por línea) a medida que se leen
+     * del cursor, de modo que la memoria usada no depende del tamaño de la tabla.
+     */
+    @Transactional(readOnly = true)
+    public long escribirCalificacionesNdjson(OutputStream salida) throws IOException {
+        long total = 0;
+        try (Stream<CalificacionResponseDTO> calificaciones = calificacionRepository.streamAllAsDTO()) {
+            Iterator<CalificacionResponseDTO> iterador = calificaciones.iterator();
+            while (iterador.hasNext()) {
+                salida.write(objectMapper.writeValueAsBytes(iterador.next()));
+                salida.write('\n');
+                total++;
+                
+                // Los DTO no quedan en el contexto de persistencia; solo se vacía la salida cada tanto
+                if (total % TAMANO_LOTE_STREAM == 0) {
+                    salida.flush();
+                }
+            }
         }
-        return convertirAResponseDTO(calificacion);
+        salida.flush();
+        return total;
+    }
+    
+    @Transactional(readOnly = true)
+    public CalificacionResponseDTO obtenerCalificacionPorId(Long id) {
+        return calificacionRepository.findByIdAsDTO(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Calificación no encontrada con ID: " + id));
     }
     
     public CalificacionResponseDTO crearCalificacion(CalificacionRequestDTO calificacionRequestDTO, String emailProfesor) {
@@ -76,7 +160,81 @@ public class CalificacionService {
         calificacion.setProfesor(profesor);
         
         Calificacion calificacionGuardada = calificacionRepository.save(calificacion);
-        return convertirAResponseDTO(calificacionGuardada);
+        promediosCalificaciones.registrarAlta(estudiante.getId(), materia.getId(), calificacionGuardada.getNota());
+        estadisticasPeriodoActual.registrarAlta(materia.getId(), calificacionGuardada.getFechaCreacion(),
+                calificacionGuardada.getNota());
+        CalificacionResponseDTO respuesta = convertirAResponseDTO(calificacionGuardada);
+        rankingPeriodoActual.registrar(respuesta);
+        return respuesta;
+    }
+    
+    /**
+     * Crea varias calificaciones en una sola transacción. El profesor y las materias se validan una vez,
+     * los estudiantes se cargan con una sola consulta IN y los INSERT se envían en lotes JDBC.
+     * Las filas que no pasan la validación se informan en la respuesta sin detener el resto del lote.
+     */
+    public CalificacionLoteResponseDTO crearCalificacionesEnLote(List<CalificacionRequestDTO> filas, String emailProfesor) {
+        Estudiante profesor = estudianteRepository.findByEmail(emailProfesor)
+                .orElseThrow(() -> new ResourceNotFoundException("Profesor no encontrado"));
+        
+        if (profesor.getRol() != RolEstudiante.PROFESOR) {
+            throw new IllegalArgumentException("Solo los profesores pueden asignar calificaciones");
+        }
+        
+        Map<Long, Materia> materias = materiaRepository.findAllById(
+                filas.stream().map(CalificacionRequestDTO::getMateriaId).collect(Collectors.toSet()))
+                .stream()
+                .collect(Collectors.toMap(Materia::getId, Function.identity()));
+        Map<Long, Estudiante> estudiantes = estudianteRepository.findAllById(
+                filas.stream().map(CalificacionRequestDTO::getEstudianteId).collect(Collectors.toSet()))
+                .stream()
+                .collect(Collectors.toMap(Estudiante::getId, Function.identity()));
+        
+        List<CalificacionLoteResponseDTO.ResultadoFila> resultados = new ArrayList<>(filas.size());
+        int pendientesDeFlush = 0;
+        for (int i = 0; i < filas.size(); i++) {
+            CalificacionRequestDTO fila = filas.get(i);
+            
+            Materia materia = materias.get(fila.getMateriaId());
+            if (materia == null) {
+                resultados.add(CalificacionLoteResponseDTO.ResultadoFila.rechazada(i, fila,
+                        "Materia no encontrada con ID: " + fila.getMateriaId()));
+                continue;
+            }
+            if (materia.getProfesor() == null || !materia.getProfesor().getId().equals(profesor.getId())) {
+                resultados.add(CalificacionLoteResponseDTO.ResultadoFila.rechazada(i, fila,
+                        "Solo puede calificar las materias que dicta"));
+                continue;
+            }
+            Estudiante estudiante = estudiantes.get(fila.getEstudianteId());
+            if (estudiante == null) {
+                resultados.add(CalificacionLoteResponseDTO.ResultadoFila.rechazada(i, fila,
+                        "Estudiante no encontrado con ID: " + fila.getEstudianteId()));
+                continue;
+            }
+            
+            Calificacion calificacion = convertirAEntity(fila);
+            calificacion.setEstudiante(estudiante);
+            calificacion.setMateria(materia);
+            calificacion.setProfesor(profesor);
+            
+            // Con IDs de secuencia el ID se asigna al persistir y el INSERT queda encolado para el lote
+            Calificacion calificacionGuardada = calificacionRepository.save(calificacion);
+            promediosCalificaciones.registrarAlta(estudiante.getId(), materia.getId(), calificacionGuardada.getNota());
+            estadisticasPeriodoActual.registrarAlta(materia.getId(), calificacionGuardada.getFechaCreacion(),
+                    calificacionGuardada.getNota());
+            rankingPeriodoActual.registrar(convertirAResponseDTO(calificacionGuardada));
+            resultados.add(CalificacionLoteResponseDTO.ResultadoFila.creada(i, fila, calificacionGuardada.getId()));
+            
+            if (++pendientesDeFlush == TAMANO_LOTE_INSERCION) {
+                // Envía los INSERT encolados y libera las entidades nuevas del contexto de persistencia
+                entityManager.flush();
+                entityManager.clear();
+                pendientesDeFlush = 0;
+            }
+        }
+        
+        return new CalificacionLoteResponseDTO(resultados);
     }
     
     public CalificacionResponseDTO actualizarCalificacion(Long id, CalificacionRequestDTO calificacionRequestDTO, String emailProfesor) {
@@ -88,13 +246,21 @@ public class CalificacionService {
             throw new IllegalArgumentException("Solo puede modificar calificaciones que usted ha asignado");
         }
         
+        BigDecimal notaAnterior = calificacion.getNota();
+        
         // Actualizar campos
         calificacion.setNota(calificacionRequestDTO.getNota());
         calificacion.setTipoEvaluacion(calificacionRequestDTO.getTipoEvaluacion());
         calificacion.setObservaciones(calificacionRequestDTO.getObservaciones());
         
         Calificacion calificacionActualizada = calificacionRepository.save(calificacion);
-        return convertirAResponseDTO(calificacionActualizada);
+        promediosCalificaciones.registrarCambio(calificacion.getEstudiante().getId(), calificacion.getMateria().getId(),
+                notaAnterior, calificacionActualizada.getNota());
+        estadisticasPeriodoActual.registrarCambio(calificacion.getMateria().getId(), calificacion.getFechaCreacion(),
+                notaAnterior, calificacionActualizada.getNota());
+        CalificacionResponseDTO respuesta = convertirAResponseDTO(calificacionActualizada);
+        rankingPeriodoActual.registrar(respuesta);
+        return respuesta;
     }
     
     public void eliminarCalificacion(Long id, String emailProfesor) {
@@ -107,65 +273,147 @@ public class CalificacionService {
         }
         
         calificacionRepository.delete(calificacion);
+        promediosCalificaciones.registrarBaja(calificacion.getEstudiante().getId(), calificacion.getMateria().getId(),
+                calificacion.getNota());
+        estadisticasPeriodoActual.registrarBaja(calificacion.getMateria().getId(), calificacion.getFechaCreacion(),
+                calificacion.getNota());
+        rankingPeriodoActual.registrarBaja(calificacion.getId());
     }
     
+    @Transactional(readOnly = true)
     public List<CalificacionResponseDTO> obtenerCalificacionesPorEstudiante(Long estudianteId) {
-        return calificacionRepository.findByEstudianteIdWithRelations(estudianteId)
-                .stream()
-                .map(this::convertirAResponseDTO)
-                .collect(Collectors.toList());
+        return calificacionRepository.findByEstudianteIdAsDTO(estudianteId);
+    }
+    
+    // Sello y filas en la misma transacción de solo lectura, es decir en la misma conexión y réplica. El sello
+    // se lee primero: las filas nunca son más viejas que el ETag con el que se entregan
+    @Transactional(readOnly = true)
+    public ListadoVersionadoDTO<CalificacionResponseDTO> obtenerCalificacionesPorEstudianteVersionadas(
+            Long estudianteId, Predicate<String> sinCambios) {
+        String etag = calificacionRepository.calcularVersionPorEstudiante(estudianteId).getEtag();
+        if (sinCambios.test(etag)) {
+            return new ListadoVersionadoDTO<>(etag, null);
+        }
+        return new ListadoVersionadoDTO<>(etag, obtenerCalificacionesPorEstudiante(estudianteId));
     }
     
+    @Transactional(readOnly = true)
     public List<CalificacionResponseDTO> obtenerCalificacionesPorMateria(Long materiaId) {
-        return calificacionRepository.findByMateriaIdWithRelations(materiaId)
-                .stream()
-                .map(this::convertirAResponseDTO)
-                .collect(Collectors.toList());
+        return calificacionRepository.findByMateriaIdAsDTO(materiaId);
     }
     
+    @Transactional(readOnly = true)
     public List<CalificacionResponseDTO> obtenerCalificacionesPorProfesor(Long profesorId) {
-        return calificacionRepository.findByProfesorIdWithRelations(profesorId)
-                .stream()
-                .map(this::convertirAResponseDTO)
-                .collect(Collectors.toList());
+        return calificacionRepository.findByProfesorIdAsDTO(profesorId);
     }
     
+    @Transactional(readOnly = true)
     public List<CalificacionResponseDTO> obtenerCalificacionesEstudianteEnMateria(Long estudianteId, Long materiaId) {
-        return calificacionRepository.findByEstudianteIdAndMateriaId(estudianteId, materiaId)
-                .stream()
-                .map(this::convertirAResponseDTO)
-                .collect(Collectors.toList());
+        return calificacionRepository.findByEstudianteIdAndMateriaIdAsDTO(estudianteId, materiaId);
     }
     
+    @Transactional(readOnly = true)
     public BigDecimal calcularPromedioGeneralEstudiante(Long estudianteId) {
+        if (promediosCalificaciones.estaListo()) {
+            return promediosCalificaciones.promedioEstudiante(estudianteId);
+        }
         BigDecimal promedio = calificacionRepository.calcularPromedioGeneralEstudiante(estudianteId);
         return promedio != null ? promedio : BigDecimal.ZERO;
     }
     
+    @Transactional(readOnly = true)
     public BigDecimal calcularPromedioEstudianteEnMateria(Long estudianteId, Long materiaId) {
+        if (promediosCalificaciones.estaListo()) {
+            return promediosCalificaciones.promedioEstudianteEnMateria(estudianteId, materiaId);
+        }
         BigDecimal promedio = calificacionRepository.calcularPromedioEstudianteEnMateria(estudianteId, materiaId);
         return promedio != null ? promedio : BigDecimal.ZERO;
     }
     
+    @Transactional(readOnly = true)
     public BigDecimal calcularPromedioMateria(Long materiaId) {
+        if (promediosCalificaciones.estaListo()) {
+            return promediosCalificaciones.promedioMateria(materiaId);
+        }
         BigDecimal promedio = calificacionRepository.calcularPromedioMateria(materiaId);
         return promedio != null ? promedio : BigDecimal.ZERO;
     }
     
-    public List<CalificacionResponseDTO> obtenerCalificacionesAprobatorias() {
-        return calificacionRepository.findCalificacionesAprobatorias()
+    @Transactional(readOnly = true)
+    public List<CalificacionResponseDTO> obtenerMejoresCalificaciones(int limite) {
+        return calificacionRepository.findMejoresAsDTO(PageRequest.of(0, limiteRanking(limite)));
+    }
+    
+    @Transactional(readOnly = true)
+    public List<CalificacionResponseDTO> obtenerMejoresCalificacionesPorMateria(Long materiaId, int limite) {
+        return calificacionRepository.findMejoresPorMateriaAsDTO(materiaId, PageRequest.of(0, limiteRanking(limite)));
+    }
+    
+    @Transactional(readOnly = true)
+    public List<CalificacionResponseDTO> obtenerMejoresCalificacionesPorCarrera(String carrera, int limite) {
+        return calificacionRepository.findMejoresPorCarreraAsDTO(carrera, PageRequest.of(0, limiteRanking(limite)));
+    }
+    
+    // Desde el montículo en memoria; solo consulta la base para reconstruirlo
+    @Transactional(readOnly = true)
+    public List<CalificacionResponseDTO> obtenerMejoresCalificacionesPeriodoActual(int limite) {
+        return rankingPeriodoActual.obtenerMejores(limiteRanking(limite));
+    }
+    
+    @Transactional(readOnly = true)
+    public List<PosicionRankingDTO> obtenerRankingMateria(Long materiaId, int limite) {
+        return calificacionRepository.calcularRankingMateria(materiaId, limiteRanking(limite))
                 .stream()
-                .map(this::convertirAResponseDTO)
+                .map(fila -> convertirAPosicionDTO(materiaId, fila))
                 .collect(Collectors.toList());
     }
     
-    public List<CalificacionResponseDTO> obtenerCalificacionesReprobatorias() {
-        return calificacionRepository.findCalificacionesReprobatorias()
+    @Transactional(readOnly = true)
+    public PosicionRankingDTO obtenerPosicionEnMateria(Long materiaId, Long estudianteId) {
+        return calificacionRepository.calcularPosicionEnMateria(materiaId, estudianteId)
                 .stream()
-                .map(this::convertirAResponseDTO)
-                .collect(Collectors.toList());
+                .findFirst()
+                .map(fila -> convertirAPosicionDTO(materiaId, fila))
+                .orElseThrow(() -> new ResourceNotFoundException(
+                        "El estudiante " + estudianteId + " no tiene calificaciones en la materia " + materiaId));
+    }
+    
+    // Todo el historial en una consulta; el período en curso, desde la distribución en memoria
+    @Transactional(readOnly = true)
+    public EstadisticasMateriaDTO obtenerEstadisticasMateria(Long materiaId, boolean soloPeriodoActual) {
+        // Materia está en la caché de segundo nivel: normalmente no consulta la base
+        if (materiaRepository.findById(materiaId).isEmpty()) {
+            throw new ResourceNotFoundException("Materia no encontrada con ID: " + materiaId);
+        }
+        if (soloPeriodoActual) {
+            return estadisticasPeriodoActual.calcular(materiaId);
+        }
+        
+        Object[] totales = null;
+        long[] cantidadesPorIntervalo = new long[EstadisticasMateriaDTO.INTERVALOS_HISTOGRAMA];
+        for (Object[] fila : calificacionRepository.calcularEstadisticasMateria(materiaId)) {
+            if (fila[0] == null) {
+                totales = fila;
+            } else {
+                cantidadesPorIntervalo[((Number) fila[0]).intValue() - 1] = ((Number) fila[1]).longValue();
+            }
+        }
+        return new EstadisticasMateriaDTO(materiaId, false, ((Number) totales[1]).longValue(),
+                (BigDecimal) totales[2], (BigDecimal) totales[3], (BigDecimal) totales[4], (BigDecimal) totales[5],
+                ((Number) totales[6]).longValue(), cantidadesPorIntervalo);
     }
     
+    @Transactional(readOnly = true)
+    public List<CalificacionResponseDTO> obtenerCalificacionesAprobatorias() {
+        return calificacionRepository.findCalificacionesAprobatoriasAsDTO();
+    }
+    
+    @Transactional(readOnly = true)
+    public List<CalificacionResponseDTO> obtenerCalificacionesReprobatorias() {
+        return calificacionRepository.findCalificacionesReprobatoriasAsDTO();
+    }
+    
+    @Transactional(readOnly = true)
     public boolean puedeVerCalificacion(String emailUsuario, Long idCalificacion, RolEstudiante rolUsuario) {
         Calificacion calificacion = calificacionRepository.findById(idCalificacion)
                 .orElseThrow(() -> new ResourceNotFoundException("Calificación no encontrada con ID: " + idCalificacion));
@@ -199,7 +447,17 @@ public class CalificacionService {
         return false;
     }
     
+    private static int limiteRanking(int limite) {
+        return Math.max(1, Math.min(limite, LIMITE_MAXIMO_RANKING));
+    }
+    
     // Métodos de conversión
+    private static PosicionRankingDTO convertirAPosicionDTO(Long materiaId, Object[] fila) {
+        return new PosicionRankingDTO(((Number) fila[0]).longValue(), (String) fila[1], materiaId,
+                (BigDecimal) fila[2], ((Number) fila[3]).longValue(), ((Number) fila[4]).longValue(),
+                (BigDecimal) fila[5]);
+    }
+    
     private CalificacionResponseDTO convertirAResponseDTO(Calificacion calificacion) {
         CalificacionResponseDTO dto = new CalificacionResponseDTO();
         dto.setId(calificacion.getId());
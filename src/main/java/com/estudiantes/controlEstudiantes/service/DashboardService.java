@@ -0,0 +1,82 @@
+package com.estudiantes.controlEstudiantes.service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.estudiantes.controlEstudiantes.config.MetricasConfig;
+import com.estudiantes.controlEstudiantes.dto.CalificacionResponseDTO;
+import com.estudiantes.controlEstudiantes.dto.DashboardEstudianteDTO;
+import com.estudiantes.controlEstudiantes.dto.EstudianteResponseDTO;
+import com.estudiantes.controlEstudiantes.dto.MateriaPromedioDTO;
+import com.estudiantes.controlEstudiantes.repository.CalificacionRepository;
+
+import io.micrometer.core.annotation.Timed;
+
+/**
+ * Arma en una sola respuesta lo que la página inicial del estudiante pedía en cinco llamadas: perfil,
+ * calificaciones, promedio general, materias cursadas y promedio por materia.
+ *
+ * Va a la base dos veces, dentro de la misma transacción y conexión: el perfil y las calificaciones.
+ * Las materias, sus cantidades y los promedios se calculan sobre esas mismas calificaciones, así nunca
+ * contradicen la lista que se devuelve (con el mismo redondeo que PromediosCalificaciones).
+ */
+@Service
+@Timed(value = MetricasConfig.TIMER_SERVICIOS, histogram = true)
+@Transactional(readOnly = true)
+public class DashboardService {
+    
+    @Autowired
+    private EstudianteService estudianteService;
+    
+    @Autowired
+    private CalificacionRepository calificacionRepository;
+    
+    public DashboardEstudianteDTO obtenerDashboardEstudiante(Long estudianteId) {
+        EstudianteResponseDTO perfil = estudianteService.obtenerEstudiantePorId(estudianteId);
+        List<CalificacionResponseDTO> calificaciones = calificacionRepository.findByEstudianteIdAsDTO(estudianteId);
+        
+        // Una entrada por materia, en el orden en que aparece; luego se ordena por nombre
+        Map<Long, AcumuladoMateria> materias = new LinkedHashMap<>();
+        long sumaDecimas = 0;
+        for (CalificacionResponseDTO calificacion : calificaciones) {
+            long decimas = PromediosCalificaciones.aDecimas(calificacion.getNota());
+            AcumuladoMateria materia = materias.computeIfAbsent(calificacion.getMateriaId(),
+                    id -> new AcumuladoMateria(id, calificacion.getCodigoMateria(), calificacion.getNombreMateria()));
+            materia.sumaDecimas += decimas;
+            materia.cantidad++;
+            sumaDecimas += decimas;
+        }
+        
+        List<MateriaPromedioDTO> listaMaterias = new ArrayList<>(materias.size());
+        for (AcumuladoMateria materia : materias.values()) {
+            listaMaterias.add(new MateriaPromedioDTO(materia.materiaId, materia.codigo, materia.nombre,
+                    PromediosCalificaciones.promedio(materia.sumaDecimas, materia.cantidad), materia.cantidad));
+        }
+        listaMaterias.sort(Comparator.comparing(MateriaPromedioDTO::getNombre));
+        
+        BigDecimal promedioGeneral = PromediosCalificaciones.promedio(sumaDecimas, calificaciones.size());
+        return new DashboardEstudianteDTO(perfil, promedioGeneral, listaMaterias, calificaciones);
+    }
+    
+    private static final class AcumuladoMateria {
+        private final Long materiaId;
+        private final String codigo;
+        private final String nombre;
+        private long sumaDecimas;
+        private int cantidad;
+        
+        private AcumuladoMateria(Long materiaId, String codigo, String nombre) {
+            this.materiaId = materiaId;
+            this.codigo = codigo;
+            this.nombre = nombre;
+        }
+    }
+}
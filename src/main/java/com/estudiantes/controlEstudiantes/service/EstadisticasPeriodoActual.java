@@ -0,0 +1,310 @@
+package com.estudiantes.controlEstudiantes.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Logger;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.estudiantes.controlEstudiantes.dto.EstadisticasMateriaDTO;
+import com.estudiantes.controlEstudiantes.repository.CalificacionRepository;
+
+/**
+ * Distribución de las notas del período académico en curso por materia, en memoria para que las
+ * estadísticas del período se respondan sin consultar la base. Los períodos son los de RankingPeriodoActual.
+ *
+ * Como la nota es numeric(3,1) entre 0.0 y 5.0, cada materia guarda un int[51] con la cantidad de notas de
+ * cada valor en décimas: promedio, mínimo, máximo, desviación, aprobadas e histograma salen exactos de un
+ * recorrido de 51 posiciones, y cada alta, cambio o baja es un incremento. Los cambios se aplican al
+ * confirmar cada transacción; la distribución se reconstruye desde la base al cambiar de período, una sola
+ * lectura a la vez, y la verificación periódica la compara con la tabla. Si un cambio no cuadra con la
+ * distribución (quitar una nota que no tiene), se invalida y se reconstruye en la próxima lectura.
+ *
+ * Una lectura de la tabla solo se instala si no se aplicaron cambios mientras duraba ni quedan escrituras
+ * sin terminar: una confirmada antes de la lectura pero aplicada después se contaría dos veces. Si no lo
+ * logra en MAX_INTENTOS_RECONSTRUCCION intentos, responde con la última lectura sin instalarla. El estado
+ * es local a cada instancia de la aplicación.
+ */
+@Component
+public class EstadisticasPeriodoActual {
+    
+    private static final Logger logger = Logger.getLogger(EstadisticasPeriodoActual.class.getName());
+    
+    private static final int VALORES_NOTA = 51;
+    private static final int DECIMAS_POR_INTERVALO = (VALORES_NOTA - 1) / EstadisticasMateriaDTO.INTERVALOS_HISTOGRAMA;
+    
+    // Mismo umbral que Calificacion.esAprobatoria (3.0)
+    private static final int DECIMAS_APROBATORIA = 30;
+    
+    // Reintentos de reconstrucción si hubo escrituras mientras se leía la tabla
+    private static final int MAX_INTENTOS_RECONSTRUCCION = 3;
+    
+    @Autowired
+    private CalificacionRepository calificacionRepository;
+    
+    // La reconstrucción consulta la base sin el lock; las escrituras solo lo toman para incrementar
+    private final ReentrantLock lock = new ReentrantLock();
+    private Map<Long, int[]> conteosPorMateria = new HashMap<>();
+    
+    // Una reconstrucción a la vez: las lecturas que llegan durante ella esperan y usan la instalada
+    private final ReentrantLock reconstruccion = new ReentrantLock();
+    
+    // Inicio del período que contienen los conteos; null si hay que reconstruirlos
+    private LocalDateTime inicioPeriodo;
+    
+    // Cuenta los cambios aplicados, para detectar escrituras concurrentes con una reconstrucción
+    private long cambiosAplicados;
+    
+    // Escrituras registradas cuya transacción todavía no terminó
+    private int escriturasPendientes;
+    
+    public EstadisticasMateriaDTO calcular(Long materiaId) {
+        int[] conteos = copiarConteos(materiaId);
+        
+        long cantidad = 0;
+        long sumaDecimas = 0;
+        long sumaCuadrados = 0;
+        long aprobadas = 0;
+        int minima = -1;
+        int maxima = -1;
+        long[] cantidadesPorIntervalo = new long[EstadisticasMateriaDTO.INTERVALOS_HISTOGRAMA];
+        for (int decimas = 0; decimas < VALORES_NOTA; decimas++) {
+            long veces = conteos[decimas];
+            if (veces == 0) {
+                continue;
+            }
+            cantidad += veces;
+            sumaDecimas += veces * decimas;
+            sumaCuadrados += veces * decimas * decimas;
+            if (minima < 0) {
+                minima = decimas;
+            }
+            maxima = decimas;
+            if (decimas >= DECIMAS_APROBATORIA) {
+                aprobadas += veces;
+            }
+            // El 5.0 cae en el último intervalo, igual que en calcularEstadisticasMateria
+            cantidadesPorIntervalo[Math.min(decimas / DECIMAS_POR_INTERVALO, cantidadesPorIntervalo.length - 1)] += veces;
+        }
+        
+        BigDecimal promedio = null;
+        BigDecimal desviacion = null;
+        if (cantidad > 0) {
+            promedio = BigDecimal.valueOf(sumaDecimas).divide(BigDecimal.valueOf(cantidad * 10), 2, RoundingMode.HALF_UP);
+        }
+        if (cantidad > 1) {
+            // Desviación muestral, como stddev_samp
+            double varianzaDecimas = (sumaCuadrados - (double) sumaDecimas * sumaDecimas / cantidad) / (cantidad - 1);
+            desviacion = BigDecimal.valueOf(Math.sqrt(Math.max(0, varianzaDecimas)) / 10).setScale(2, RoundingMode.HALF_UP);
+        }
+        return new EstadisticasMateriaDTO(materiaId, true, cantidad, promedio,
+                minima < 0 ? null : BigDecimal.valueOf(minima, 1), maxima < 0 ? null : BigDecimal.valueOf(maxima, 1),
+                desviacion, aprobadas, cantidadesPorIntervalo);
+    }
+    
+    // Registra una nota nueva cuando la transacción actual confirma
+    public void registrarAlta(Long materiaId, LocalDateTime fechaCreacion, BigDecimal nota) {
+        registrar(materiaId, fechaCreacion, -1, (int) PromediosCalificaciones.aDecimas(nota));
+    }
+    
+    // Registra el cambio de una nota existente cuando la transacción actual confirma
+    public void registrarCambio(Long materiaId, LocalDateTime fechaCreacion, BigDecimal notaAnterior, BigDecimal notaNueva) {
+        int anterior = (int) PromediosCalificaciones.aDecimas(notaAnterior);
+        int nueva = (int) PromediosCalificaciones.aDecimas(notaNueva);
+        if (anterior != nueva) {
+            registrar(materiaId, fechaCreacion, anterior, nueva);
+        }
+    }
+    
+    // Registra la eliminación de una nota cuando la transacción actual confirma
+    public void registrarBaja(Long materiaId, LocalDateTime fechaCreacion, BigDecimal nota) {
+        registrar(materiaId, fechaCreacion, (int) PromediosCalificaciones.aDecimas(nota), -1);
+    }
+    
+    /**
+     * Lee la distribución del período instalado desde la tabla y, si no hubo escrituras mientras tanto,
+     * la compara con la de memoria y la reemplaza si difieren.
+     */
+    @Scheduled(cron = "${calificaciones.estadisticas.verificacion.cron:0 15 3 * * *}")
+    public void verificar() {
+        LocalDateTime inicio;
+        long cambiosAntes;
+        lock.lock();
+        try {
+            inicio = inicioPeriodo;
+            cambiosAntes = cambiosAplicados;
+        } finally {
+            lock.unlock();
+        }
+        if (inicio == null) {
+            // Sin construir o invalidada: se reconstruye en la próxima lectura
+            return;
+        }
+        
+        Map<Long, int[]> leidos = contarDesdeTabla(inicio);
+        lock.lock();
+        try {
+            if (!inicio.equals(inicioPeriodo) || !puedeInstalar(cambiosAntes)) {
+                logger.info("Verificación de estadísticas del período omitida por escrituras concurrentes");
+                return;
+            }
+            if (!iguales(leidos, conteosPorMateria)) {
+                logger.warning("Estadísticas del período desviadas de la tabla de calificaciones, se reemplazan");
+                conteosPorMateria = leidos;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    private void registrar(Long materiaId, LocalDateTime fechaCreacion, int decimasAnteriores, int decimasNuevas) {
+        lock.lock();
+        try {
+            escriturasPendientes++;
+        } finally {
+            lock.unlock();
+        }
+        TransaccionUtils.despuesDelCommit(() -> aplicar(materiaId, fechaCreacion, decimasAnteriores, decimasNuevas),
+                this::terminarEscritura);
+    }
+    
+    private int[] copiarConteos(Long materiaId) {
+        LocalDateTime inicioActual = RankingPeriodoActual.inicioDelPeriodo(LocalDate.now());
+        int[] conteos = copiarSiInstalado(inicioActual, materiaId);
+        if (conteos != null) {
+            return conteos;
+        }
+        reconstruccion.lock();
+        try {
+            // Otra lectura pudo instalarla mientras se esperaba
+            conteos = copiarSiInstalado(inicioActual, materiaId);
+            if (conteos != null) {
+                return conteos;
+            }
+            Map<Long, int[]> leidos = reconstruir(inicioActual);
+            lock.lock();
+            try {
+                return copia(leidos.get(materiaId));
+            } finally {
+                lock.unlock();
+            }
+        } finally {
+            reconstruccion.unlock();
+        }
+    }
+    
+    // null si los conteos instalados no son los del período pedido
+    private int[] copiarSiInstalado(LocalDateTime inicio, Long materiaId) {
+        lock.lock();
+        try {
+            return inicio.equals(inicioPeriodo) ? copia(conteosPorMateria.get(materiaId)) : null;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    // Devuelve la última lectura de la tabla, instalada o no
+    private Map<Long, int[]> reconstruir(LocalDateTime inicio) {
+        Map<Long, int[]> leidos = null;
+        for (int intento = 1; intento <= MAX_INTENTOS_RECONSTRUCCION; intento++) {
+            long cambiosAntes = cambiosLeidos();
+            leidos = contarDesdeTabla(inicio);
+            lock.lock();
+            try {
+                if (puedeInstalar(cambiosAntes)) {
+                    conteosPorMateria = leidos;
+                    inicioPeriodo = inicio;
+                    return leidos;
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+        logger.warning("Estadísticas del período sin instalar por escrituras concurrentes; se reintenta en la próxima lectura");
+        return leidos;
+    }
+    
+    // Con el lock tomado. Un cambio aplicado durante la lectura pudo quedar fuera de ella, y una escritura
+    // sin terminar pudo confirmar antes de la lectura y aplicarse después, sobre los conteos ya instalados
+    private boolean puedeInstalar(long cambiosAntes) {
+        return cambiosAplicados == cambiosAntes && escriturasPendientes == 0;
+    }
+    
+    private Map<Long, int[]> contarDesdeTabla(LocalDateTime inicio) {
+        Map<Long, int[]> nuevos = new HashMap<>();
+        List<Object[]> filas = calificacionRepository.contarNotasPorMateriaDesde(inicio);
+        for (Object[] fila : filas) {
+            int decimas = (int) PromediosCalificaciones.aDecimas((BigDecimal) fila[1]);
+            nuevos.computeIfAbsent((Long) fila[0], k -> new int[VALORES_NOTA])[decimas] += ((Number) fila[2]).intValue();
+        }
+        return nuevos;
+    }
+    
+    // decimasAnteriores o decimasNuevas en -1 indican alta o baja
+    private void aplicar(Long materiaId, LocalDateTime fechaCreacion, int decimasAnteriores, int decimasNuevas) {
+        lock.lock();
+        try {
+            cambiosAplicados++;
+            if (inicioPeriodo == null || fechaCreacion.isBefore(inicioPeriodo)) {
+                return;
+            }
+            int[] conteos = conteosPorMateria.computeIfAbsent(materiaId, k -> new int[VALORES_NOTA]);
+            if (decimasAnteriores >= 0 && conteos[decimasAnteriores] == 0) {
+                // La nota que se quita no está en la distribución: está desviada de la tabla
+                logger.warning(() -> "Estadísticas del período sin la nota que se quita en la materia " + materiaId +
+                        ", se reconstruyen en la próxima lectura");
+                inicioPeriodo = null;
+                return;
+            }
+            if (decimasAnteriores >= 0) {
+                conteos[decimasAnteriores]--;
+            }
+            if (decimasNuevas >= 0) {
+                conteos[decimasNuevas]++;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    private void terminarEscritura() {
+        lock.lock();
+        try {
+            escriturasPendientes--;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    private long cambiosLeidos() {
+        lock.lock();
+        try {
+            return cambiosAplicados;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    // La tabla no produce materias sin notas; en memoria pueden quedar en cero tras las bajas
+    private static boolean iguales(Map<Long, int[]> leidos, Map<Long, int[]> enMemoria) {
+        for (Map.Entry<Long, int[]> entrada : enMemoria.entrySet()) {
+            if (!Arrays.equals(entrada.getValue(), copia(leidos.get(entrada.getKey())))) {
+                return false;
+            }
+        }
+        return enMemoria.keySet().containsAll(leidos.keySet());
+    }
+    
+    private static int[] copia(int[] conteos) {
+        return conteos == null ? new int[VALORES_NOTA] : conteos.clone();
+    }
+}
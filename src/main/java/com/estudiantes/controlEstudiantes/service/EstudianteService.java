@@ -1,6 +1,8 @@
 package com.estudiantes.controlEstudiantes.service;
 
 import java.util.List;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
@@ -8,8 +10,10 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.estudiantes.controlEstudiantes.config.MetricasConfig;
 import com.estudiantes.controlEstudiantes.dto.EstudianteRequestDTO;
 import com.estudiantes.controlEstudiantes.dto.EstudianteResponseDTO;
+import com.estudiantes.controlEstudiantes.dto.ListadoVersionadoDTO;
 import com.estudiantes.controlEstudiantes.entity.Estudiante;
 import com.estudiantes.controlEstudiantes.entity.RolEstudiante;
 import com.estudiantes.controlEstudiantes.exception.DuplicateResourceException;
@@ -17,11 +21,21 @@ import com.estudiantes.controlEstudiantes.exception.ResourceNotFoundException;
 import com.estudiantes.controlEstudiantes.repository.CalificacionRepository;
 import com.estudiantes.controlEstudiantes.repository.EstudianteRepository;
 import com.estudiantes.controlEstudiantes.repository.MateriaRepository;
+import com.estudiantes.controlEstudiantes.security.RevocacionTokens;
+import com.estudiantes.controlEstudiantes.security.UserDetailsServiceImpl;
+
+import io.micrometer.core.annotation.Timed;
 
 @Service
+@Timed(value = MetricasConfig.TIMER_SERVICIOS, histogram = true)
 @Transactional
 public class EstudianteService {
     
+    private static final int LIMITE_MAXIMO_BUSQUEDA = 200;
+    
+    // Tres letras o dígitos seguidos: sin un trigrama completo el ILIKE recorrería todo el índice
+    private static final Pattern TRIGRAMA = Pattern.compile("[\\p{L}\\p{N}]{3}");
+    
     @Autowired
     private EstudianteRepository estudianteRepository;
     
@@ -34,6 +48,13 @@ public class EstudianteService {
     @Autowired
     private MateriaRepository materiaRepository;
     
+    @Autowired
+    private RevocacionTokens revocacionTokens;
+    
+    @Autowired
+    private UserDetailsServiceImpl userDetailsService;
+    
+    @Transactional(readOnly = true)
     public List<EstudianteResponseDTO> obtenerTodosLosEstudiantes() {
         return estudianteRepository.findByActivoTrue()
                 .stream()
@@ -41,6 +62,7 @@ public class EstudianteService {
                 .collect(Collectors.toList());
     }
     
+    @Transactional(readOnly = true)
     public List<EstudianteResponseDTO> obtenerProfesores() {
         return estudianteRepository.findByRol(RolEstudiante.PROFESOR)
                 .stream()
@@ -49,6 +71,17 @@ public class EstudianteService {
                 .collect(Collectors.toList());
     }
     
+    // Sello primero y filas después, en una sola transacción de solo lectura
+    @Transactional(readOnly = true)
+    public ListadoVersionadoDTO<EstudianteResponseDTO> obtenerProfesoresVersionados(Predicate<String> sinCambios) {
+        String etag = estudianteRepository.calcularVersionPorRol(RolEstudiante.PROFESOR).getEtag();
+        if (sinCambios.test(etag)) {
+            return new ListadoVersionadoDTO<>(etag, null);
+        }
+        return new ListadoVersionadoDTO<>(etag, obtenerProfesores());
+    }
+    
+    @Transactional(readOnly = true)
     public EstudianteResponseDTO obtenerEstudiantePorId(Long id) {
         Estudiante estudiante = estudianteRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Estudiante no encontrado con ID: " + id));
@@ -60,6 +93,7 @@ public class EstudianteService {
         return convertirAResponseDTO(estudiante);
     }
     
+    @Transactional(readOnly = true)
     public EstudianteResponseDTO obtenerEstudiantePorEmail(String email) {
         Estudiante estudiante = estudianteRepository.findByEmail(email)
                 .orElseThrow(() -> new ResourceNotFoundException("Estudiante no encontrado con email: " + email));
@@ -110,6 +144,10 @@ public class EstudianteService {
             throw new DuplicateResourceException("Ya existe un estudiante con la cédula: " + estudianteRequestDTO.getCedula());
         }
         
+        // Los tokens ya emitidos llevan el email como subject: si cambia, dejan de ser válidos
+        String emailAnterior = estudiante.getEmail();
+        boolean revocarTokens = !emailAnterior.equals(estudianteRequestDTO.getEmail());
+        
         // Actualizar campos
         estudiante.setNombre(estudianteRequestDTO.getNombre());
         estudiante.setApellido(estudianteRequestDTO.getApellido());
@@ -124,9 +162,11 @@ public class EstudianteService {
         // Solo actualizar contraseña si se proporciona
         if (estudianteRequestDTO.getPassword() != null && !estudianteRequestDTO.getPassword().trim().isEmpty()) {
             estudiante.setPassword(passwordEncoder.encode(estudianteRequestDTO.getPassword()));
+            revocarTokens = true;
         }
         
         Estudiante estudianteActualizado = estudianteRepository.save(estudiante);
+        invalidarSesionesDespuesDelCommit(revocarTokens ? id : null, emailAnterior, estudianteActualizado.getEmail());
         return convertirAResponseDTO(estudianteActualizado);
     }
     
@@ -137,8 +177,28 @@ public class EstudianteService {
         // Eliminación lógica
         estudiante.setActivo(false);
         estudianteRepository.save(estudiante);
+        invalidarSesionesDespuesDelCommit(id, estudiante.getEmail());
+    }
+    
+    /**
+     * Cuando la transacción confirma, quita los usuarios de la caché de autenticación y después revoca
+     * los tokens de usuarioRevocado (si no es null). Antes del commit, un login concurrente todavía leería
+     * la contraseña o el estado anteriores y recibiría un token emitido después de la revocación, y un
+     * rollback dejaría una revocación sin motivo. Revocar después de invalidar alcanza también a los
+     * logins que leyeron el usuario de la caché: su token lleva el instante de esa lectura (AuthService).
+     */
+    private void invalidarSesionesDespuesDelCommit(Long usuarioRevocado, String... emails) {
+        TransaccionUtils.despuesDelCommit(() -> {
+            for (String email : emails) {
+                userDetailsService.invalidarUsuario(email);
+            }
+            if (usuarioRevocado != null) {
+                revocacionTokens.revocar(usuarioRevocado);
+            }
+        });
     }
     
+    @Transactional(readOnly = true)
     public List<EstudianteResponseDTO> buscarPorCarrera(String carrera) {
         return estudianteRepository.findByCarrera(carrera)
                 .stream()
@@ -147,6 +207,7 @@ public class EstudianteService {
                 .collect(Collectors.toList());
     }
     
+    @Transactional(readOnly = true)
     public List<EstudianteResponseDTO> buscarPorSemestre(Integer semestre) {
         return estudianteRepository.findBySemestre(semestre)
                 .stream()
@@ -155,14 +216,24 @@ public class EstudianteService {
                 .collect(Collectors.toList());
     }
     
-    public List<EstudianteResponseDTO> buscarPorNombreCompleto(String nombreCompleto) {
-        return estudianteRepository.findByNombreCompletoContainingIgnoreCase(nombreCompleto)
+    @Transactional(readOnly = true)
+    public List<EstudianteResponseDTO> buscarPorNombreCompleto(String nombreCompleto, int limite) {
+        int limiteResultados = Math.max(1, Math.min(limite, LIMITE_MAXIMO_BUSQUEDA));
+        String texto = nombreCompleto.trim();
+        return estudianteRepository.buscarPorNombre(texto, fragmentoBusqueda(texto), limiteResultados)
                 .stream()
-                .filter(Estudiante::getActivo)
                 .map(this::convertirAResponseDTO)
                 .collect(Collectors.toList());
     }
     
+    // El texto como literal de ILIKE, con sus comodines escapados; null si no contiene un trigrama
+    private static String fragmentoBusqueda(String texto) {
+        if (!TRIGRAMA.matcher(texto).find()) {
+            return null;
+        }
+        return texto.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+    
     public boolean puedeEditarEstudiante(String emailUsuario, Long idEstudiante, RolEstudiante rolUsuario) {
         // Los admins pueden editar cualquier estudiante
         if (rolUsuario == RolEstudiante.ADMIN) {
@@ -176,6 +247,7 @@ public class EstudianteService {
         return estudiante.getEmail().equals(emailUsuario);
     }
 
+    @Transactional(readOnly = true)
     public List<EstudianteResponseDTO> obtenerEstudiantesDeMateria(Long materiaId, Long profesorId) {
         // Verificar que la materia existe y que el profesor tiene acceso a ella
         com.estudiantes.controlEstudiantes.entity.Materia materia = materiaRepository.findById(materiaId)
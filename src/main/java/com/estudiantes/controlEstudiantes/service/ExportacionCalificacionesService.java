@@ -0,0 +1,211 @@
+package com.estudiantes.controlEstudiantes.service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.apache.poi.ss.SpreadsheetVersion;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.estudiantes.controlEstudiantes.config.MetricasConfig;
+
+import io.micrometer.core.annotation.Timed;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Exporta calificaciones a CSV o XLSX leyendo con un cursor JDBC de solo avance y escribiendo cada fila
+ * directamente en la salida, así la memoria usada no depende de la cantidad de filas.
+ *
+ * En XLSX, cuando una hoja llega al máximo de filas del formato la exportación continúa en una hoja
+ * nueva con el mismo encabezado.
+ *
+ * En PostgreSQL el fetch size solo se respeta con autocommit desactivado, por eso la lectura corre
+ * dentro de una transacción de solo lectura.
+ */
+@Service
+@Timed(value = MetricasConfig.TIMER_SERVICIOS, histogram = true)
+public class ExportacionCalificacionesService {
+    
+    // Filas que el driver trae por viaje a la base
+    private static final int FETCH_SIZE = 1000;
+    
+    // Filas de la hoja XLSX que se mantienen en memoria; las anteriores se vuelcan a disco
+    private static final int VENTANA_FILAS_XLSX = 100;
+    
+    // Una hoja XLSX admite 1.048.576 filas contando el encabezado; al llenarse se continúa en otra
+    private static final int FILAS_POR_HOJA_XLSX = SpreadsheetVersion.EXCEL2007.getMaxRows() - 1;
+    
+    private static final String[] COLUMNAS = {
+        "id", "cedula", "estudiante", "email", "carrera", "codigo_materia", "materia",
+        "profesor", "nota", "tipo_evaluacion", "observaciones", "fecha_creacion"
+    };
+    
+    private static final String CONSULTA_BASE =
+        "SELECT c.id, e.cedula, e.nombre || ' ' || e.apellido AS estudiante, e.email, e.carrera, " +
+        "m.codigo, m.nombre AS materia, p.nombre || ' ' || p.apellido AS profesor, " +
+        "c.nota, c.tipo_evaluacion, c.observaciones, c.fecha_creacion " +
+        "FROM calificaciones c " +
+        "JOIN estudiantes e ON e.id = c.estudiante_id " +
+        "JOIN materias m ON m.id = c.materia_id " +
+        "JOIN estudiantes p ON p.id = c.profesor_id ";
+    
+    @Autowired
+    private DataSource dataSource;
+    
+    private JdbcTemplate jdbcTemplate;
+    
+    // Las pruebas lo reducen para cubrir el cambio de hoja sin generar un millón de filas
+    private int filasPorHojaXlsx = FILAS_POR_HOJA_XLSX;
+    
+    @PostConstruct
+    public void init() {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(FETCH_SIZE);
+    }
+    
+    @Transactional(readOnly = true)
+    public long exportarCsv(OutputStream salida, Long materiaId, Long profesorId, String carrera,
+                            LocalDate desde, LocalDate hasta) throws IOException {
+        Writer escritor = new BufferedWriter(new OutputStreamWriter(salida, StandardCharsets.UTF_8));
+        escribirLineaCsv(escritor, COLUMNAS);
+        
+        long[] total = {0};
+        consultar(materiaId, profesorId, carrera, desde, hasta, rs -> {
+            try {
+                escribirLineaCsv(escritor, new String[] {
+                    String.valueOf(rs.getLong(1)), rs.getString(2), rs.getString(3), rs.getString(4),
+                    rs.getString(5), rs.getString(6), rs.getString(7), rs.getString(8),
+                    rs.getBigDecimal(9).toPlainString(), rs.getString(10), rs.getString(11),
+                    String.valueOf(rs.getTimestamp(12).toLocalDateTime())
+                });
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            total[0]++;
+        });
+        
+        escritor.flush();
+        return total[0];
+    }
+    
+    @Transactional(readOnly = true)
+    public long exportarXlsx(OutputStream salida, Long materiaId, Long profesorId, String carrera,
+                             LocalDate desde, LocalDate hasta) throws IOException {
+        SXSSFWorkbook libro = new SXSSFWorkbook(VENTANA_FILAS_XLSX);
+        libro.setCompressTempFiles(true);
+        try {
+            CellStyle estiloFecha = libro.createCellStyle();
+            estiloFecha.setDataFormat(libro.getCreationHelper().createDataFormat().getFormat("yyyy-mm-dd hh:mm"));
+            
+            SXSSFSheet[] hoja = {crearHoja(libro, 1)};
+            long[] total = {0};
+            consultar(materiaId, profesorId, carrera, desde, hasta, rs -> {
+                int posicion = (int) (total[0]++ % filasPorHojaXlsx);
+                if (posicion == 0 && total[0] > 1) {
+                    hoja[0] = crearHoja(libro, libro.getNumberOfSheets() + 1);
+                }
+                Row fila = hoja[0].createRow(posicion + 1);
+                fila.createCell(0).setCellValue(rs.getLong(1));
+                for (int i = 2; i <= 8; i++) {
+                    fila.createCell(i - 1).setCellValue(rs.getString(i));
+                }
+                BigDecimal nota = rs.getBigDecimal(9);
+                fila.createCell(8).setCellValue(nota.doubleValue());
+                fila.createCell(9).setCellValue(rs.getString(10));
+                fila.createCell(10).setCellValue(rs.getString(11));
+                Timestamp fecha = rs.getTimestamp(12);
+                Cell celdaFecha = fila.createCell(11);
+                celdaFecha.setCellValue(fecha.toLocalDateTime());
+                celdaFecha.setCellStyle(estiloFecha);
+            });
+            
+            libro.write(salida);
+            salida.flush();
+            return total[0];
+        } finally {
+            // Elimina los archivos temporales donde SXSSF volcó las filas
+            libro.dispose();
+            libro.close();
+        }
+    }
+    
+    // La primera hoja se llama "Calificaciones"; las siguientes, "Calificaciones 2", "Calificaciones 3"...
+    private static SXSSFSheet crearHoja(SXSSFWorkbook libro, int numero) {
+        SXSSFSheet hoja = libro.createSheet(numero == 1 ? "Calificaciones" : "Calificaciones " + numero);
+        Row encabezado = hoja.createRow(0);
+        for (int i = 0; i < COLUMNAS.length; i++) {
+            encabezado.createCell(i).setCellValue(COLUMNAS[i]);
+        }
+        return hoja;
+    }
+    
+    private void consultar(Long materiaId, Long profesorId, String carrera, LocalDate desde, LocalDate hasta,
+                           RowCallbackHandler procesarFila) {
+        StringBuilder sql = new StringBuilder(CONSULTA_BASE).append("WHERE 1 = 1 ");
+        List<Object> parametros = new ArrayList<>();
+        if (materiaId != null) {
+            sql.append("AND c.materia_id = ? ");
+            parametros.add(materiaId);
+        }
+        if (profesorId != null) {
+            sql.append("AND c.profesor_id = ? ");
+            parametros.add(profesorId);
+        }
+        if (carrera != null && !carrera.isBlank()) {
+            sql.append("AND e.carrera = ? ");
+            parametros.add(carrera);
+        }
+        if (desde != null) {
+            sql.append("AND c.fecha_creacion >= ? ");
+            parametros.add(Timestamp.valueOf(desde.atStartOfDay()));
+        }
+        if (hasta != null) {
+            // hasta es inclusivo: se compara contra el inicio del día siguiente
+            sql.append("AND c.fecha_creacion < ? ");
+            parametros.add(Timestamp.valueOf(hasta.plusDays(1).atStartOfDay()));
+        }
+        sql.append("ORDER BY c.id");
+        
+        jdbcTemplate.query(sql.toString(), procesarFila, parametros.toArray());
+    }
+    
+    private static void escribirLineaCsv(Writer escritor, String[] valores) throws IOException {
+        for (int i = 0; i < valores.length; i++) {
+            if (i > 0) {
+                escritor.write(',');
+            }
+            escritor.write(escaparCsv(valores[i]));
+        }
+        escritor.write("\r\n");
+    }
+    
+    private static String escaparCsv(String valor) {
+        if (valor == null) {
+            return "";
+        }
+        if (valor.indexOf(',') >= 0 || valor.indexOf('"') >= 0 || valor.indexOf('\n') >= 0 || valor.indexOf('\r') >= 0) {
+            return '"' + valor.replace("\"", "\"\"") + '"';
+        }
+        return valor;
+    }
+}
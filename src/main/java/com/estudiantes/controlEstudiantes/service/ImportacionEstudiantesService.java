@@ -0,0 +1,266 @@
+package com.estudiantes.controlEstudiantes.service;
+
+import java.io.BufferedReader;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.estudiantes.controlEstudiantes.config.MetricasConfig;
+import com.estudiantes.controlEstudiantes.dto.EstudianteRequestDTO;
+import com.estudiantes.controlEstudiantes.dto.ImportacionEstudiantesResponseDTO;
+import com.estudiantes.controlEstudiantes.entity.Estudiante;
+import com.estudiantes.controlEstudiantes.entity.RolEstudiante;
+import com.estudiantes.controlEstudiantes.repository.EstudianteRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.annotation.Timed;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+
+/**
+ * Importación masiva de estudiantes desde CSV o NDJSON. El archivo se procesa por lotes:
+ * cada lote se valida, se verifica contra la base con una consulta IN por email y otra por cédula,
+ * las contraseñas se cifran en paralelo y los registros se insertan en una transacción propia.
+ * Un lote que falla al guardarse no revierte los lotes anteriores.
+ */
+@Service
+@Timed(value = MetricasConfig.TIMER_SERVICIOS, histogram = true)
+public class ImportacionEstudiantesService {
+    
+    private static final Logger logger = Logger.getLogger(ImportacionEstudiantesService.class.getName());
+    
+    private static final int TAMANO_LOTE = 500;
+    
+    // Máximo de errores detallados en el reporte; el resto solo se cuenta
+    private static final int MAX_ERRORES_REPORTADOS = 1000;
+    
+    @Autowired
+    private EstudianteRepository estudianteRepository;
+    
+    // Sin el pool acotado del PasswordEncoder principal: el cifrado ya se reparte en poolBcrypt
+    @Autowired
+    private BCryptPasswordEncoder passwordEncoder;
+    
+    @Autowired
+    private Validator validator;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    // Hilos para cifrar contraseñas (0 = la mitad de los procesadores, al menos uno): el resto queda para
+    // el login y los demás endpoints mientras dura una importación grande
+    @Value("${importacion.bcrypt.hilos:0}")
+    private int hilosBcrypt;
+    
+    private ExecutorService poolBcrypt;
+    private TransactionTemplate transactionTemplate;
+    
+    @PostConstruct
+    public void init() {
+        int hilos = hilosBcrypt > 0 ? hilosBcrypt : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger contador = new AtomicInteger();
+        ThreadFactory fabrica = tarea -> {
+            Thread hilo = new Thread(tarea, "importacion-bcrypt-" + contador.incrementAndGet());
+            hilo.setDaemon(true);
+            return hilo;
+        };
+        this.poolBcrypt = Executors.newFixedThreadPool(hilos, fabrica);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+    
+    @PreDestroy
+    public void cerrar() {
+        poolBcrypt.shutdown();
+    }
+    
+    public ImportacionEstudiantesResponseDTO importarCsv(InputStream entrada) {
+        return importar(LectorImportacionEstudiantes.csv(abrir(entrada)));
+    }
+    
+    public ImportacionEstudiantesResponseDTO importarNdjson(InputStream entrada) {
+        return importar(LectorImportacionEstudiantes.ndjson(abrir(entrada), objectMapper));
+    }
+    
+    private BufferedReader abrir(InputStream entrada) {
+        return new BufferedReader(new InputStreamReader(entrada, StandardCharsets.UTF_8));
+    }
+    
+    private ImportacionEstudiantesResponseDTO importar(LectorImportacionEstudiantes lector) {
+        long inicio = System.currentTimeMillis();
+        ImportacionEstudiantesResponseDTO reporte = new ImportacionEstudiantesResponseDTO();
+        
+        // Emails y cédulas ya guardados por lotes anteriores del mismo archivo
+        Set<String> emailsVistos = new HashSet<>();
+        Set<String> cedulasVistas = new HashSet<>();
+        
+        List<LectorImportacionEstudiantes.Fila> lote = new ArrayList<>(TAMANO_LOTE);
+        while (lector.hasNext()) {
+            lote.add(lector.next());
+            if (lote.size() == TAMANO_LOTE) {
+                procesarLote(lote, reporte, emailsVistos, cedulasVistas);
+                lote.clear();
+            }
+        }
+        if (!lote.isEmpty()) {
+            procesarLote(lote, reporte, emailsVistos, cedulasVistas);
+        }
+        
+        // Los rechazos de cada lote se registran por etapa; el reporte se entrega en orden de línea
+        reporte.getErrores().sort(Comparator.comparing(ImportacionEstudiantesResponseDTO.ErrorFila::getLinea));
+        reporte.setDuracionMs(System.currentTimeMillis() - inicio);
+        logger.info(() -> "Importación de estudiantes finalizada: " + reporte.getImportadas() + " importados, "
+                + reporte.getRechazadas() + " rechazados en " + reporte.getDuracionMs() + " ms");
+        return reporte;
+    }
+    
+    private void procesarLote(List<LectorImportacionEstudiantes.Fila> filas, ImportacionEstudiantesResponseDTO reporte,
+                              Set<String> emailsVistos, Set<String> cedulasVistas) {
+        reporte.setProcesadas(reporte.getProcesadas() + filas.size());
+        
+        // 1. Formato y reglas del DTO, y duplicados dentro del archivo: contra los lotes ya guardados y
+        // contra las filas anteriores de este lote, que solo pasan a los vistos si el lote se confirma
+        Set<String> emailsLote = new HashSet<>();
+        Set<String> cedulasLote = new HashSet<>();
+        List<LectorImportacionEstudiantes.Fila> validas = new ArrayList<>(filas.size());
+        for (LectorImportacionEstudiantes.Fila fila : filas) {
+            if (fila.getError() != null) {
+                rechazar(reporte, fila, fila.getError());
+                continue;
+            }
+            
+            EstudianteRequestDTO dto = fila.getEstudiante();
+            Set<ConstraintViolation<EstudianteRequestDTO>> violaciones = validator.validate(dto);
+            if (!violaciones.isEmpty()) {
+                rechazar(reporte, fila, violaciones.stream()
+                        .map(ConstraintViolation::getMessage)
+                        .sorted()
+                        .collect(Collectors.joining("; ")));
+                continue;
+            }
+            if (emailsVistos.contains(dto.getEmail()) || emailsLote.contains(dto.getEmail())) {
+                rechazar(reporte, fila, "El email está repetido en el archivo: " + dto.getEmail());
+                continue;
+            }
+            if (cedulasVistas.contains(dto.getCedula()) || cedulasLote.contains(dto.getCedula())) {
+                rechazar(reporte, fila, "La cédula está repetida en el archivo: " + dto.getCedula());
+                continue;
+            }
+            emailsLote.add(dto.getEmail());
+            cedulasLote.add(dto.getCedula());
+            validas.add(fila);
+        }
+        if (validas.isEmpty()) {
+            return;
+        }
+        
+        // 2. Duplicados contra la base: una consulta por email y otra por cédula para todo el lote
+        Set<String> emailsExistentes = new HashSet<>(estudianteRepository.findEmailsExistentes(
+                validas.stream().map(f -> f.getEstudiante().getEmail()).collect(Collectors.toList())));
+        Set<String> cedulasExistentes = new HashSet<>(estudianteRepository.findCedulasExistentes(
+                validas.stream().map(f -> f.getEstudiante().getCedula()).collect(Collectors.toList())));
+        
+        List<LectorImportacionEstudiantes.Fila> nuevas = new ArrayList<>(validas.size());
+        for (LectorImportacionEstudiantes.Fila fila : validas) {
+            EstudianteRequestDTO dto = fila.getEstudiante();
+            if (emailsExistentes.contains(dto.getEmail())) {
+                rechazar(reporte, fila, "Ya existe un estudiante con el email: " + dto.getEmail());
+            } else if (cedulasExistentes.contains(dto.getCedula())) {
+                rechazar(reporte, fila, "Ya existe un estudiante con la cédula: " + dto.getCedula());
+            } else {
+                nuevas.add(fila);
+            }
+        }
+        if (nuevas.isEmpty()) {
+            return;
+        }
+        
+        // 3. BCrypt es deliberadamente costoso: se reparte entre los hilos del pool
+        List<CompletableFuture<String>> hashes = nuevas.stream()
+                .map(fila -> CompletableFuture.supplyAsync(
+                        () -> passwordEncoder.encode(fila.getEstudiante().getPassword()), poolBcrypt))
+                .collect(Collectors.toList());
+        
+        List<Estudiante> estudiantes = new ArrayList<>(nuevas.size());
+        for (int i = 0; i < nuevas.size(); i++) {
+            estudiantes.add(crearEntidad(nuevas.get(i).getEstudiante(), hashes.get(i).join()));
+        }
+        
+        // 4. Inserción del lote en su propia transacción (INSERT agrupados por hibernate.jdbc.batch_size)
+        try {
+            transactionTemplate.executeWithoutResult(estado -> {
+                estudianteRepository.saveAll(estudiantes);
+                entityManager.flush();
+                entityManager.clear();
+            });
+            reporte.setImportadas(reporte.getImportadas() + estudiantes.size());
+            for (Estudiante estudiante : estudiantes) {
+                emailsVistos.add(estudiante.getEmail());
+                cedulasVistas.add(estudiante.getCedula());
+            }
+        } catch (DataAccessException e) {
+            String causa = e.getMostSpecificCause().getMessage();
+            for (LectorImportacionEstudiantes.Fila fila : nuevas) {
+                rechazar(reporte, fila, "No se pudo guardar el lote: " + causa);
+            }
+        }
+        
+        logger.info(() -> "Importación de estudiantes: " + reporte.getProcesadas() + " filas procesadas, "
+                + reporte.getImportadas() + " importadas");
+    }
+    
+    private void rechazar(ImportacionEstudiantesResponseDTO reporte, LectorImportacionEstudiantes.Fila fila, String error) {
+        reporte.setRechazadas(reporte.getRechazadas() + 1);
+        if (reporte.getErrores().size() < MAX_ERRORES_REPORTADOS) {
+            String email = fila.getEstudiante() != null ? fila.getEstudiante().getEmail() : null;
+            reporte.getErrores().add(new ImportacionEstudiantesResponseDTO.ErrorFila(fila.getLinea(), email, error));
+        } else {
+            reporte.setErroresTruncados(true);
+        }
+    }
+    
+    private Estudiante crearEntidad(EstudianteRequestDTO dto, String passwordCifrada) {
+        Estudiante estudiante = new Estudiante();
+        estudiante.setNombre(dto.getNombre());
+        estudiante.setApellido(dto.getApellido());
+        estudiante.setEmail(dto.getEmail());
+        estudiante.setCedula(dto.getCedula());
+        estudiante.setCarrera(dto.getCarrera());
+        estudiante.setSemestre(dto.getSemestre());
+        estudiante.setFechaNacimiento(dto.getFechaNacimiento());
+        estudiante.setTelefono(dto.getTelefono());
+        estudiante.setDireccion(dto.getDireccion());
+        estudiante.setPassword(passwordCifrada);
+        estudiante.setRol(RolEstudiante.ESTUDIANTE);
+        return estudiante;
+    }
+}
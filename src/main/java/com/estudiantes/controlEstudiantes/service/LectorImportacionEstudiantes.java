@@ -0,0 +1,242 @@
+package com.estudiantes.controlEstudiantes.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import com.estudiantes.controlEstudiantes.dto.EstudianteRequestDTO;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Lee estudiantes fila por fila desde CSV o NDJSON sin cargar el archivo completo en memoria.
+ * Las filas que no se pueden interpretar se devuelven con su error en lugar de cortar la lectura.
+ */
+abstract class LectorImportacionEstudiantes implements Iterator<LectorImportacionEstudiantes.Fila> {
+    
+    protected final BufferedReader lector;
+    protected int numeroLinea = 0;
+    private Fila siguiente;
+    
+    protected LectorImportacionEstudiantes(BufferedReader lector) {
+        this.lector = lector;
+    }
+    
+    static LectorImportacionEstudiantes csv(BufferedReader lector) {
+        return new Csv(lector);
+    }
+    
+    static LectorImportacionEstudiantes ndjson(BufferedReader lector, ObjectMapper objectMapper) {
+        return new Ndjson(lector, objectMapper);
+    }
+    
+    // Devuelve la próxima fila o null al terminar la entrada
+    protected abstract Fila leerFila() throws IOException;
+    
+    @Override
+    public boolean hasNext() {
+        if (siguiente == null) {
+            try {
+                siguiente = leerFila();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return siguiente != null;
+    }
+    
+    @Override
+    public Fila next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        Fila fila = siguiente;
+        siguiente = null;
+        return fila;
+    }
+    
+    protected String leerLinea() throws IOException {
+        String linea = lector.readLine();
+        if (linea != null) {
+            numeroLinea++;
+        }
+        return linea;
+    }
+    
+    static final class Fila {
+        private final int linea;
+        private final EstudianteRequestDTO estudiante;
+        private final String error;
+        
+        private Fila(int linea, EstudianteRequestDTO estudiante, String error) {
+            this.linea = linea;
+            this.estudiante = estudiante;
+            this.error = error;
+        }
+        
+        int getLinea() {
+            return linea;
+        }
+        
+        EstudianteRequestDTO getEstudiante() {
+            return estudiante;
+        }
+        
+        String getError() {
+            return error;
+        }
+    }
+    
+    /**
+     * CSV con encabezado (el orden de las columnas es libre). Admite valores entre comillas dobles,
+     * comillas escapadas ("") y saltos de línea dentro de un valor entre comillas.
+     */
+    private static final class Csv extends LectorImportacionEstudiantes {
+        
+        private Map<String, Integer> columnas;
+        
+        private Csv(BufferedReader lector) {
+            super(lector);
+        }
+        
+        @Override
+        protected Fila leerFila() throws IOException {
+            if (columnas == null) {
+                List<String> encabezado = leerRegistro();
+                if (encabezado == null) {
+                    return null;
+                }
+                columnas = new HashMap<>();
+                for (int i = 0; i < encabezado.size(); i++) {
+                    columnas.put(encabezado.get(i).trim().toLowerCase(Locale.ROOT), i);
+                }
+            }
+            
+            List<String> valores;
+            do {
+                valores = leerRegistro();
+                if (valores == null) {
+                    return null;
+                }
+            } while (valores.size() == 1 && valores.get(0).isBlank());
+            
+            int linea = numeroLinea;
+            try {
+                EstudianteRequestDTO estudiante = new EstudianteRequestDTO();
+                estudiante.setNombre(valor(valores, "nombre"));
+                estudiante.setApellido(valor(valores, "apellido"));
+                estudiante.setEmail(valor(valores, "email"));
+                estudiante.setCedula(valor(valores, "cedula"));
+                estudiante.setCarrera(valor(valores, "carrera"));
+                String semestre = valor(valores, "semestre");
+                estudiante.setSemestre(semestre != null ? Integer.valueOf(semestre) : null);
+                String fechaNacimiento = valor(valores, "fechanacimiento");
+                estudiante.setFechaNacimiento(fechaNacimiento != null ? LocalDate.parse(fechaNacimiento) : null);
+                estudiante.setTelefono(valor(valores, "telefono"));
+                estudiante.setDireccion(valor(valores, "direccion"));
+                estudiante.setPassword(valor(valores, "password"));
+                return new Fila(linea, estudiante, null);
+            } catch (NumberFormatException e) {
+                return new Fila(linea, null, "El semestre debe ser un número entero");
+            } catch (DateTimeParseException e) {
+                return new Fila(linea, null, "La fecha de nacimiento debe tener el formato AAAA-MM-DD");
+            }
+        }
+        
+        private String valor(List<String> valores, String columna) {
+            Integer indice = columnas.get(columna);
+            if (indice == null || indice >= valores.size()) {
+                return null;
+            }
+            String valor = valores.get(indice).trim();
+            return valor.isEmpty() ? null : valor;
+        }
+        
+        private List<String> leerRegistro() throws IOException {
+            String linea = leerLinea();
+            if (linea == null) {
+                return null;
+            }
+            
+            List<String> valores = new ArrayList<>();
+            StringBuilder actual = new StringBuilder();
+            boolean entreComillas = false;
+            int i = 0;
+            while (true) {
+                if (i == linea.length()) {
+                    if (!entreComillas) {
+                        break;
+                    }
+                    // El valor entre comillas continúa en la línea siguiente
+                    linea = leerLinea();
+                    if (linea == null) {
+                        break;
+                    }
+                    actual.append('\n');
+                    i = 0;
+                    continue;
+                }
+                
+                char c = linea.charAt(i++);
+                if (entreComillas) {
+                    if (c == '"') {
+                        if (i < linea.length() && linea.charAt(i) == '"') {
+                            actual.append('"');
+                            i++;
+                        } else {
+                            entreComillas = false;
+                        }
+                    } else {
+                        actual.append(c);
+                    }
+                } else if (c == '"') {
+                    entreComillas = true;
+                } else if (c == ',') {
+                    valores.add(actual.toString());
+                    actual.setLength(0);
+                } else {
+                    actual.append(c);
+                }
+            }
+            valores.add(actual.toString());
+            return valores;
+        }
+    }
+    
+    // Un objeto JSON por línea con los mismos campos de EstudianteRequestDTO
+    private static final class Ndjson extends LectorImportacionEstudiantes {
+        
+        private final ObjectMapper objectMapper;
+        
+        private Ndjson(BufferedReader lector, ObjectMapper objectMapper) {
+            super(lector);
+            this.objectMapper = objectMapper;
+        }
+        
+        @Override
+        protected Fila leerFila() throws IOException {
+            String linea;
+            do {
+                linea = leerLinea();
+                if (linea == null) {
+                    return null;
+                }
+            } while (linea.isBlank());
+            
+            try {
+                return new Fila(numeroLinea, objectMapper.readValue(linea, EstudianteRequestDTO.class), null);
+            } catch (JsonProcessingException e) {
+                return new Fila(numeroLinea, null, "JSON inválido: " + e.getOriginalMessage());
+            }
+        }
+    }
+}
@@ -1,14 +1,19 @@
 package com.estudiantes.controlEstudiantes.service;
 
 import java.util.List;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.estudiantes.controlEstudiantes.config.MetricasConfig;
+import com.estudiantes.controlEstudiantes.dto.ListadoVersionadoDTO;
 import com.estudiantes.controlEstudiantes.dto.MateriaRequestDTO;
 import com.estudiantes.controlEstudiantes.dto.MateriaResponseDTO;
+import com.estudiantes.controlEstudiantes.dto.MateriaSugerenciaDTO;
 import com.estudiantes.controlEstudiantes.entity.Estudiante;
 import com.estudiantes.controlEstudiantes.entity.Materia;
 import com.estudiantes.controlEstudiantes.entity.RolEstudiante;
@@ -17,7 +22,10 @@ import com.estudiantes.controlEstudiantes.exception.ResourceNotFoundException;
 import com.estudiantes.controlEstudiantes.repository.EstudianteRepository;
 import com.estudiantes.controlEstudiantes.repository.MateriaRepository;
 
+import io.micrometer.core.annotation.Timed;
+
 @Service
+@Timed(value = MetricasConfig.TIMER_SERVICIOS, histogram = true)
 @Transactional
 public class MateriaService {
     
@@ -27,6 +35,10 @@ public class MateriaService {
     @Autowired
     private EstudianteRepository estudianteRepository;
     
+    @Autowired
+    private AutocompletadoMaterias autocompletadoMaterias;
+    
+    @Transactional(readOnly = true)
     public List<MateriaResponseDTO> obtenerTodasLasMaterias() {
         return materiaRepository.findByActivaTrue()
                 .stream()
@@ -34,12 +46,31 @@ public class MateriaService {
                 .collect(Collectors.toList());
     }
     
+    // Catálogo activo con su ETag, sello primero y filas después en una sola transacción de solo lectura. El
+    // sello sale de la caché de consultas mientras no cambien las materias
+    @Transactional(readOnly = true)
+    public ListadoVersionadoDTO<MateriaResponseDTO> obtenerCatalogoVersionado(Predicate<String> sinCambios) {
+        String etag = materiaRepository.calcularVersionCatalogo().getEtag();
+        if (sinCambios.test(etag)) {
+            return new ListadoVersionadoDTO<>(etag, null);
+        }
+        return new ListadoVersionadoDTO<>(etag, obtenerTodasLasMaterias());
+    }
+    
+    @Transactional(readOnly = true)
     public MateriaResponseDTO obtenerMateriaPorId(Long id) {
-        Materia materia = materiaRepository.findById(id)
+        Materia materia = materiaRepository.findConProfesorById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Materia no encontrada con ID: " + id));
         return convertirAResponseDTO(materia);
     }
     
+    // Sugerencias por prefijo de código o de nombre, desde el trie en memoria: no consulta la base
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<MateriaSugerenciaDTO> autocompletar(String texto, int limite) {
+        return autocompletadoMaterias.sugerir(texto, limite);
+    }
+    
+    @Transactional(readOnly = true)
     public MateriaResponseDTO obtenerMateriaPorCodigo(String codigo) {
         Materia materia = materiaRepository.findByCodigo(codigo)
                 .orElseThrow(() -> new ResourceNotFoundException("Materia no encontrada con código: " + codigo));
@@ -68,6 +99,7 @@ public class MateriaService {
         }
         
         Materia materiaGuardada = materiaRepository.save(materia);
+        autocompletadoMaterias.registrar(materiaGuardada);
         return convertirAResponseDTO(materiaGuardada);
     }
     
@@ -104,6 +136,7 @@ public class MateriaService {
         }
         
         Materia materiaActualizada = materiaRepository.save(materia);
+        autocompletadoMaterias.registrar(materiaActualizada);
         return convertirAResponseDTO(materiaActualizada);
     }
     
@@ -114,8 +147,10 @@ public class MateriaService {
         // Eliminación lógica
         materia.setActiva(false);
         materiaRepository.save(materia);
+        autocompletadoMaterias.registrar(materia);
     }
     
+    @Transactional(readOnly = true)
     public List<MateriaResponseDTO> buscarPorCarrera(String carrera) {
         return materiaRepository.findByCarrera(carrera)
                 .stream()
@@ -124,6 +159,7 @@ public class MateriaService {
                 .collect(Collectors.toList());
     }
     
+    @Transactional(readOnly = true)
     public List<MateriaResponseDTO> buscarPorSemestre(Integer semestre) {
         return materiaRepository.findBySemestre(semestre)
                 .stream()
@@ -132,6 +168,7 @@ public class MateriaService {
                 .collect(Collectors.toList());
     }
     
+    @Transactional(readOnly = true)
     public List<MateriaResponseDTO> buscarPorCarreraYSemestre(String carrera, Integer semestre) {
         return materiaRepository.findByCarreraAndSemestre(carrera, semestre)
                 .stream()
@@ -140,6 +177,7 @@ public class MateriaService {
                 .collect(Collectors.toList());
     }
     
+    @Transactional(readOnly = true)
     public List<MateriaResponseDTO> buscarPorProfesor(Long profesorId) {
         return materiaRepository.findMateriasByProfesorId(profesorId)
                 .stream()
@@ -147,6 +185,7 @@ public class MateriaService {
                 .collect(Collectors.toList());
     }
     
+    @Transactional(readOnly = true)
     public List<MateriaResponseDTO> buscarPorNombre(String nombre) {
         return materiaRepository.findByNombreContainingIgnoreCase(nombre)
                 .stream()
@@ -154,6 +193,7 @@ public class MateriaService {
                 .collect(Collectors.toList());
     }
     
+    @Transactional(readOnly = true)
     public List<MateriaResponseDTO> buscarPorCodigo(String codigo) {
         return materiaRepository.findByCodigoContainingIgnoreCase(codigo)
                 .stream()
@@ -169,7 +209,7 @@ public class MateriaService {
         
         // Los profesores solo pueden editar las materias que dictan
         if (rolUsuario == RolEstudiante.PROFESOR) {
-            Materia materia = materiaRepository.findById(idMateria)
+            Materia materia = materiaRepository.findConProfesorById(idMateria)
                     .orElseThrow(() -> new ResourceNotFoundException("Materia no encontrada con ID: " + idMateria));
             
             return materia.getProfesor() != null && materia.getProfesor().getEmail().equals(emailUsuario);
@@ -0,0 +1,281 @@
+package com.estudiantes.controlEstudiantes.service;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Logger;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.estudiantes.controlEstudiantes.repository.CalificacionRepository;
+
+/**
+ * Sumas y conteos de notas por estudiante, por materia y por estudiante+materia, mantenidos en memoria
+ * para que los promedios se respondan sin recorrer la tabla de calificaciones.
+ *
+ * Las sumas se guardan en décimas (la columna nota es numeric(3,1)), así que son exactas. Los cambios se
+ * aplican al confirmar cada transacción; la verificación periódica compara con la tabla y reemplaza los
+ * agregados si encuentra diferencias.
+ *
+ * Una lectura de la tabla solo se instala si no se aplicaron cambios mientras duraba ni quedan escrituras
+ * sin terminar: una confirmada antes de la lectura pero aplicada después se contaría dos veces. Si no lo
+ * logra en MAX_INTENTOS_RECONSTRUCCION intentos, se conservan los agregados que había. El estado es local
+ * a cada instancia de la aplicación.
+ */
+@Component
+public class PromediosCalificaciones {
+    
+    private static final Logger logger = Logger.getLogger(PromediosCalificaciones.class.getName());
+    
+    // Reintentos de reconstrucción si hubo escrituras mientras se leía la tabla
+    private static final int MAX_INTENTOS_RECONSTRUCCION = 3;
+    
+    @Autowired
+    private CalificacionRepository calificacionRepository;
+    
+    private volatile Agregados agregados = new Agregados();
+    private volatile boolean listo = false;
+    
+    // Cuenta los cambios aplicados, para detectar escrituras concurrentes con una reconstrucción
+    private final AtomicLong cambiosAplicados = new AtomicLong();
+    
+    // Las lecturas de la tabla se hacen sin el lock; aplicar un cambio e instalar una lectura lo toman
+    private final ReentrantLock lock = new ReentrantLock();
+    
+    // Escrituras registradas cuya transacción todavía no terminó
+    private int escriturasPendientes;
+    
+    public boolean estaListo() {
+        return listo;
+    }
+    
+    public BigDecimal promedioEstudiante(Long estudianteId) {
+        return promedio(agregados.porEstudiante.get(estudianteId));
+    }
+    
+    public BigDecimal promedioMateria(Long materiaId) {
+        return promedio(agregados.porMateria.get(materiaId));
+    }
+    
+    public BigDecimal promedioEstudianteEnMateria(Long estudianteId, Long materiaId) {
+        return promedio(agregados.porEstudianteMateria.get(new ClaveEstudianteMateria(estudianteId, materiaId)));
+    }
+    
+    // Registra una nota nueva cuando la transacción actual confirma
+    public void registrarAlta(Long estudianteId, Long materiaId, BigDecimal nota) {
+        long decimas = aDecimas(nota);
+        registrar(() -> aplicar(estudianteId, materiaId, decimas, 1));
+    }
+    
+    // Registra el cambio de una nota existente cuando la transacción actual confirma
+    public void registrarCambio(Long estudianteId, Long materiaId, BigDecimal notaAnterior, BigDecimal notaNueva) {
+        long diferencia = aDecimas(notaNueva) - aDecimas(notaAnterior);
+        if (diferencia != 0) {
+            registrar(() -> aplicar(estudianteId, materiaId, diferencia, 0));
+        }
+    }
+    
+    // Registra la eliminación de una nota cuando la transacción actual confirma
+    public void registrarBaja(Long estudianteId, Long materiaId, BigDecimal nota) {
+        long decimas = aDecimas(nota);
+        registrar(() -> aplicar(estudianteId, materiaId, -decimas, -1));
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void inicializar() {
+        reconstruir();
+    }
+    
+    /**
+     * Recalcula los agregados desde la tabla y los compara con los mantenidos en memoria.
+     * Si difieren, se registra el desvío y se reemplazan por los recalculados.
+     */
+    @Scheduled(cron = "${calificaciones.promedios.verificacion.cron:0 0 3 * * *}")
+    public void verificar() {
+        long cambiosAntes = cambiosAplicados.get();
+        Agregados recalculados = calcularDesdeTabla();
+        
+        lock.lock();
+        try {
+            if (!puedeInstalar(cambiosAntes)) {
+                // Hubo escrituras durante la lectura: la comparación no es confiable, se deja para la próxima
+                logger.info("Verificación de promedios omitida por escrituras concurrentes");
+                return;
+            }
+            if (!recalculados.porEstudianteMateria.equals(agregados.porEstudianteMateria)) {
+                if (listo) {
+                    logger.warning(() -> "Promedios en memoria desviados de la tabla de calificaciones, se reemplazan");
+                }
+                agregados = recalculados;
+            }
+            listo = true;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    public void reconstruir() {
+        for (int intento = 1; intento <= MAX_INTENTOS_RECONSTRUCCION; intento++) {
+            long cambiosAntes = cambiosAplicados.get();
+            Agregados recalculados = calcularDesdeTabla();
+            
+            lock.lock();
+            try {
+                if (puedeInstalar(cambiosAntes)) {
+                    agregados = recalculados;
+                    listo = true;
+                    return;
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+        logger.warning("Promedios sin reconstruir por escrituras concurrentes; se reintenta en la próxima verificación");
+    }
+    
+    private void registrar(Runnable cambio) {
+        lock.lock();
+        try {
+            escriturasPendientes++;
+        } finally {
+            lock.unlock();
+        }
+        TransaccionUtils.despuesDelCommit(cambio, this::terminarEscritura);
+    }
+    
+    // Con el lock tomado. Un cambio aplicado durante la lectura pudo quedar fuera de ella, y una escritura
+    // sin terminar pudo confirmar antes de la lectura y aplicarse después, sobre los agregados ya instalados
+    private boolean puedeInstalar(long cambiosAntes) {
+        return cambiosAplicados.get() == cambiosAntes && escriturasPendientes == 0;
+    }
+    
+    private Agregados calcularDesdeTabla() {
+        Agregados nuevos = new Agregados();
+        List<Object[]> filas = calificacionRepository.sumarNotasPorEstudianteYMateria();
+        for (Object[] fila : filas) {
+            Long estudianteId = (Long) fila[0];
+            Long materiaId = (Long) fila[1];
+            long decimas = aDecimas((BigDecimal) fila[2]);
+            long cantidad = ((Number) fila[3]).longValue();
+            nuevos.sumar(estudianteId, materiaId, decimas, cantidad);
+        }
+        return nuevos;
+    }
+    
+    private void aplicar(Long estudianteId, Long materiaId, long decimas, long cantidad) {
+        lock.lock();
+        try {
+            agregados.sumar(estudianteId, materiaId, decimas, cantidad);
+            cambiosAplicados.incrementAndGet();
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    private void terminarEscritura() {
+        lock.lock();
+        try {
+            escriturasPendientes--;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    static long aDecimas(BigDecimal nota) {
+        // Mismo redondeo que aplica PostgreSQL al guardar en numeric(3,1)
+        return nota.setScale(1, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+    
+    private static BigDecimal promedio(Acumulado acumulado) {
+        return acumulado == null ? BigDecimal.ZERO : promedio(acumulado.sumaDecimas, acumulado.cantidad);
+    }
+    
+    static BigDecimal promedio(long sumaDecimas, long cantidad) {
+        if (cantidad == 0) {
+            return BigDecimal.ZERO;
+        }
+        // Igual que el AVG anterior: el resultado pasa por double antes de convertirse a BigDecimal
+        double valor = BigDecimal.valueOf(sumaDecimas)
+                .divide(BigDecimal.valueOf(cantidad * 10), MathContext.DECIMAL64)
+                .doubleValue();
+        return BigDecimal.valueOf(valor);
+    }
+    
+    private static final class Agregados {
+        private final Map<Long, Acumulado> porEstudiante = new ConcurrentHashMap<>();
+        private final Map<Long, Acumulado> porMateria = new ConcurrentHashMap<>();
+        private final Map<ClaveEstudianteMateria, Acumulado> porEstudianteMateria = new ConcurrentHashMap<>();
+        
+        void sumar(Long estudianteId, Long materiaId, long decimas, long cantidad) {
+            sumar(porEstudiante, estudianteId, decimas, cantidad);
+            sumar(porMateria, materiaId, decimas, cantidad);
+            sumar(porEstudianteMateria, new ClaveEstudianteMateria(estudianteId, materiaId), decimas, cantidad);
+        }
+        
+        private static <K> void sumar(Map<K, Acumulado> mapa, K clave, long decimas, long cantidad) {
+            // compute es atómico por clave; la entrada se elimina cuando ya no quedan notas
+            mapa.compute(clave, (k, actual) -> {
+                Acumulado nuevo = actual == null
+                        ? new Acumulado(decimas, cantidad)
+                        : new Acumulado(actual.sumaDecimas + decimas, actual.cantidad + cantidad);
+                return nuevo.cantidad <= 0 ? null : nuevo;
+            });
+        }
+    }
+    
+    private static final class Acumulado {
+        private final long sumaDecimas;
+        private final long cantidad;
+        
+        private Acumulado(long sumaDecimas, long cantidad) {
+            this.sumaDecimas = sumaDecimas;
+            this.cantidad = cantidad;
+        }
+        
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Acumulado otro = (Acumulado) o;
+            return sumaDecimas == otro.sumaDecimas && cantidad == otro.cantidad;
+        }
+        
+        @Override
+        public int hashCode() {
+            return Objects.hash(sumaDecimas, cantidad);
+        }
+    }
+    
+    private static final class ClaveEstudianteMateria {
+        private final Long estudianteId;
+        private final Long materiaId;
+        
+        private ClaveEstudianteMateria(Long estudianteId, Long materiaId) {
+            this.estudianteId = estudianteId;
+            this.materiaId = materiaId;
+        }
+        
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            ClaveEstudianteMateria otra = (ClaveEstudianteMateria) o;
+            return Objects.equals(estudianteId, otra.estudianteId) && Objects.equals(materiaId, otra.materiaId);
+        }
+        
+        @Override
+        public int hashCode() {
+            return Objects.hash(estudianteId, materiaId);
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.estudiantes.controlEstudiantes.service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.Month;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import com.estudiantes.controlEstudiantes.dto.CalificacionResponseDTO;
+import com.estudiantes.controlEstudiantes.repository.CalificacionRepository;
+
+/**
+ * Las CAPACIDAD mejores calificaciones del período académico en curso, en un montículo acotado en memoria
+ * para que el ranking del período se responda sin consultar la base. Los períodos son semestrales
+ * (enero-junio y julio-diciembre) según la fecha de creación de la calificación.
+ *
+ * La raíz del montículo es la peor de las guardadas: una calificación nueva entra si la supera, en
+ * O(log n). Las altas y los cambios se aplican al confirmar cada transacción. Si sale del montículo
+ * una calificación guardada estando lleno (se elimina o baja su nota), su reemplazo puede no estar en
+ * memoria: el montículo se invalida y se reconstruye desde la base en la próxima lectura, igual que al
+ * cambiar de período. El estado es local a cada instancia de la aplicación.
+ */
+@Component
+public class RankingPeriodoActual {
+    
+    public static final int CAPACIDAD = 100;
+    
+    // Mejor nota primero; a igual nota, la más antigua (mismo orden que findMejoresDesdeAsDTO)
+    private static final Comparator<CalificacionResponseDTO> MEJOR_PRIMERO =
+            Comparator.comparing(CalificacionResponseDTO::getNota).reversed()
+                    .thenComparing(CalificacionResponseDTO::getId);
+    
+    @Autowired
+    private CalificacionRepository calificacionRepository;
+    
+    // Lock y no synchronized: la reconstrucción consulta la base con el lock tomado
+    private final ReentrantLock lock = new ReentrantLock();
+    private final PriorityQueue<CalificacionResponseDTO> mejores = new PriorityQueue<>(CAPACIDAD, MEJOR_PRIMERO.reversed());
+    private final Map<Long, CalificacionResponseDTO> porId = new HashMap<>();
+    
+    // Inicio del período que contiene el montículo; null si hay que reconstruirlo
+    private LocalDateTime inicioPeriodo;
+    
+    public List<CalificacionResponseDTO> obtenerMejores(int limite) {
+        List<CalificacionResponseDTO> copia;
+        lock.lock();
+        try {
+            LocalDateTime inicioActual = inicioDelPeriodo(LocalDate.now());
+            if (!inicioActual.equals(inicioPeriodo)) {
+                reconstruir(inicioActual);
+            }
+            copia = new ArrayList<>(mejores);
+        } finally {
+            lock.unlock();
+        }
+        copia.sort(MEJOR_PRIMERO);
+        return copia.subList(0, Math.min(limite, copia.size()));
+    }
+    
+    // Registra una calificación nueva o modificada cuando la transacción actual confirma
+    public void registrar(CalificacionResponseDTO calificacion) {
+        TransaccionUtils.despuesDelCommit(() -> aplicar(calificacion.getId(), calificacion));
+    }
+    
+    // Registra la eliminación de una calificación cuando la transacción actual confirma
+    public void registrarBaja(Long calificacionId) {
+        TransaccionUtils.despuesDelCommit(() -> aplicar(calificacionId, null));
+    }
+    
+    static LocalDateTime inicioDelPeriodo(LocalDate fecha) {
+        Month primerMes = fecha.getMonthValue() <= 6 ? Month.JANUARY : Month.JULY;
+        return LocalDate.of(fecha.getYear(), primerMes, 1).atStartOfDay();
+    }
+    
+    private void reconstruir(LocalDateTime inicio) {
+        List<CalificacionResponseDTO> filas = calificacionRepository.findMejoresDesdeAsDTO(inicio, PageRequest.of(0, CAPACIDAD));
+        mejores.clear();
+        porId.clear();
+        for (CalificacionResponseDTO fila : filas) {
+            mejores.add(fila);
+            porId.put(fila.getId(), fila);
+        }
+        inicioPeriodo = inicio;
+    }
+    
+    private void aplicar(Long calificacionId, CalificacionResponseDTO nueva) {
+        lock.lock();
+        try {
+            if (inicioPeriodo == null) {
+                // Se reconstruye completo en la próxima lectura
+                return;
+            }
+            boolean lleno = mejores.size() >= CAPACIDAD;
+            // Quitar primero la versión guardada también evita duplicarla si una reconstrucción ya la leyó
+            CalificacionResponseDTO anterior = porId.remove(calificacionId);
+            if (anterior != null) {
+                mejores.remove(anterior);
+                if (lleno && (nueva == null || MEJOR_PRIMERO.compare(nueva, anterior) > 0)) {
+                    invalidar();
+                    return;
+                }
+            }
+            if (nueva != null && !nueva.getFechaCreacion().isBefore(inicioPeriodo)) {
+                ofrecer(nueva);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    private void ofrecer(CalificacionResponseDTO calificacion) {
+        if (mejores.size() < CAPACIDAD) {
+            mejores.add(calificacion);
+            porId.put(calificacion.getId(), calificacion);
+        } else if (MEJOR_PRIMERO.compare(calificacion, mejores.peek()) < 0) {
+            porId.remove(mejores.poll().getId());
+            mejores.add(calificacion);
+            porId.put(calificacion.getId(), calificacion);
+        }
+    }
+    
+    private void invalidar() {
+        mejores.clear();
+        porId.clear();
+        inicioPeriodo = null;
+    }
+}
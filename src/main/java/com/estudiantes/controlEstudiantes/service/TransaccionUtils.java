@@ -0,0 +1,43 @@
+package com.estudiantes.controlEstudiantes.service;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+final class TransaccionUtils {
+    
+    private TransaccionUtils() {}
+    
+    /**
+     * Ejecuta la acción cuando la transacción actual confirma (no se ejecuta si hace rollback).
+     * Sin transacción activa, la acción se ejecuta de inmediato.
+     */
+    static void despuesDelCommit(Runnable accion) {
+        despuesDelCommit(accion, () -> {});
+    }
+    
+    /**
+     * Como despuesDelCommit, y además ejecuta alTerminar cuando la transacción termina, confirme o haga
+     * rollback (si confirmó, después de la acción). Sin transacción activa, ejecuta ambas de inmediato.
+     */
+    static void despuesDelCommit(Runnable accion, Runnable alTerminar) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    accion.run();
+                }
+                
+                @Override
+                public void afterCompletion(int status) {
+                    alTerminar.run();
+                }
+            });
+        } else {
+            try {
+                accion.run();
+            } finally {
+                alTerminar.run();
+            }
+        }
+    }
+}
@@ -0,0 +1,53 @@
+-- Esquema base, equivalente al que generaba Hibernate con ddl-auto=update.
+-- En bases existentes esta versión se marca como baseline y no se ejecuta.
+
+CREATE TABLE IF NOT EXISTS estudiantes (
+    activo boolean NOT NULL,
+    fecha_nacimiento date NOT NULL,
+    semestre integer NOT NULL CHECK ((semestre >= 1) AND (semestre <= 12)),
+    fecha_actualizacion timestamp(6),
+    fecha_creacion timestamp(6) NOT NULL,
+    id bigint GENERATED BY DEFAULT AS IDENTITY,
+    telefono varchar(15),
+    cedula varchar(20) NOT NULL UNIQUE,
+    apellido varchar(50) NOT NULL,
+    nombre varchar(50) NOT NULL,
+    carrera varchar(100) NOT NULL,
+    email varchar(100) NOT NULL UNIQUE,
+    direccion varchar(200),
+    password varchar(255) NOT NULL,
+    rol varchar(255) NOT NULL CHECK (rol IN ('ADMIN', 'ESTUDIANTE', 'PROFESOR')),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE IF NOT EXISTS materias (
+    activa boolean NOT NULL,
+    creditos integer NOT NULL CHECK ((creditos <= 10) AND (creditos >= 1)),
+    semestre integer NOT NULL CHECK ((semestre <= 12) AND (semestre >= 1)),
+    fecha_actualizacion timestamp(6),
+    fecha_creacion timestamp(6) NOT NULL,
+    id bigint GENERATED BY DEFAULT AS IDENTITY,
+    profesor_id bigint,
+    codigo varchar(10) NOT NULL UNIQUE,
+    carrera varchar(100),
+    nombre varchar(100) NOT NULL,
+    descripcion varchar(500),
+    PRIMARY KEY (id),
+    CONSTRAINT FKlosr42j37shysjnxeimo0o14j FOREIGN KEY (profesor_id) REFERENCES estudiantes
+);
+
+CREATE TABLE IF NOT EXISTS calificaciones (
+    nota numeric(3,1) NOT NULL,
+    estudiante_id bigint NOT NULL,
+    fecha_actualizacion timestamp(6),
+    fecha_creacion timestamp(6) NOT NULL,
+    id bigint GENERATED BY DEFAULT AS IDENTITY,
+    materia_id bigint NOT NULL,
+    profesor_id bigint NOT NULL,
+    tipo_evaluacion varchar(20),
+    observaciones varchar(500),
+    PRIMARY KEY (id),
+    CONSTRAINT FK1lwwkqhc15wa32yyjq309e4i2 FOREIGN KEY (estudiante_id) REFERENCES estudiantes,
+    CONSTRAINT FKn69d245m2l2t398pjjy6us11g FOREIGN KEY (materia_id) REFERENCES materias,
+    CONSTRAINT FKo0g4ywk3cy1d2w3hd4fl3m81w FOREIGN KEY (profesor_id) REFERENCES estudiantes
+);
@@ -0,0 +1,29 @@
+-- Índices alineados con las consultas de CalificacionRepository.
+
+-- Calificaciones de un estudiante (find*WithRelations, promedio general) y de un estudiante en una
+-- materia (promedio en materia). INCLUDE (nota) permite resolver los AVG con index-only scans.
+CREATE INDEX IF NOT EXISTS idx_calificaciones_estudiante_materia
+    ON calificaciones (estudiante_id, materia_id) INCLUDE (nota);
+
+-- Calificaciones de una materia y su promedio
+CREATE INDEX IF NOT EXISTS idx_calificaciones_materia_estudiante
+    ON calificaciones (materia_id, estudiante_id) INCLUDE (nota);
+
+-- Calificaciones asignadas por un profesor
+CREATE INDEX IF NOT EXISTS idx_calificaciones_profesor
+    ON calificaciones (profesor_id);
+
+-- Rangos y ordenamiento por nota (findByNotaBetween, mejores calificaciones)
+CREATE INDEX IF NOT EXISTS idx_calificaciones_nota
+    ON calificaciones (nota);
+
+-- Conteo de aprobadas / reprobadas por estudiante
+CREATE INDEX IF NOT EXISTS idx_calificaciones_aprobadas_estudiante
+    ON calificaciones (estudiante_id) WHERE nota >= 3.0;
+
+CREATE INDEX IF NOT EXISTS idx_calificaciones_reprobadas_estudiante
+    ON calificaciones (estudiante_id) WHERE nota < 3.0;
+
+-- Materias de un profesor (también usado al validar quién califica)
+CREATE INDEX IF NOT EXISTS idx_materias_profesor
+    ON materias (profesor_id);
@@ -0,0 +1,10 @@
+-- Calificacion pasa de IDENTITY a una secuencia con incremento 50 (allocationSize de la entidad),
+-- así Hibernate asigna los IDs en memoria y puede enviar los INSERT en lotes.
+
+CREATE SEQUENCE IF NOT EXISTS calificaciones_seq INCREMENT BY 50;
+
+-- Hibernate (optimizador pooled) usa el valor devuelto como extremo superior del bloque:
+-- el próximo nextval debe ser max(id) + 50 para que el primer bloque empiece en max(id) + 1
+SELECT setval('calificaciones_seq', COALESCE((SELECT max(id) FROM calificaciones), 0) + 50, false);
+
+ALTER TABLE calificaciones ALTER COLUMN id DROP IDENTITY IF EXISTS;
@@ -0,0 +1,9 @@
+-- Estudiante pasa de IDENTITY a una secuencia con incremento 50 (allocationSize de la entidad),
+-- necesario para insertar en lotes JDBC durante la importación masiva.
+
+CREATE SEQUENCE IF NOT EXISTS estudiantes_seq INCREMENT BY 50;
+
+-- Mismo criterio que calificaciones_seq: el próximo nextval es el extremo superior del primer bloque
+SELECT setval('estudiantes_seq', COALESCE((SELECT max(id) FROM estudiantes), 0) + 50, false);
+
+ALTER TABLE estudiantes ALTER COLUMN id DROP IDENTITY IF EXISTS;
@@ -0,0 +1,21 @@
+-- Búsqueda de estudiantes por nombre sin distinguir mayúsculas ni tildes, resuelta con un índice de
+-- trigramas en lugar de recorrer la tabla con LIKE '%...%'. Ambas extensiones son de confianza desde
+-- PostgreSQL 13: las puede crear el dueño de la base sin ser superusuario.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE EXTENSION IF NOT EXISTS unaccent;
+
+-- unaccent() es STABLE porque depende del diccionario configurado; fijando el diccionario se puede
+-- declarar IMMUTABLE y usarla en una columna generada
+CREATE OR REPLACE FUNCTION normalizar_busqueda(texto text) RETURNS text
+    LANGUAGE sql IMMUTABLE PARALLEL SAFE STRICT
+    AS $$ SELECT lower(public.unaccent('public.unaccent'::regdictionary, texto)) $$;
+
+-- Nombre completo normalizado ("jose perez" para "José Pérez"); lo mantiene PostgreSQL en cada escritura
+ALTER TABLE estudiantes
+    ADD COLUMN IF NOT EXISTS nombre_busqueda text
+    GENERATED ALWAYS AS (normalizar_busqueda(nombre || ' ' || apellido)) STORED;
+
+-- GiST y no GIN: además del filtro por similitud (<%) resuelve el ORDER BY por distancia (<<->) de
+-- EstudianteRepository.buscarPorNombre como búsqueda de vecinos más cercanos, cortando en el LIMIT
+CREATE INDEX IF NOT EXISTS idx_estudiantes_nombre_busqueda
+    ON estudiantes USING gist (nombre_busqueda gist_trgm_ops);
@@ -0,0 +1,7 @@
+-- Columna de versión para @Version en estudiantes, materias y calificaciones. Hibernate la incrementa
+-- en cada UPDATE y la compara en el WHERE (control optimista); los listados la suman para su ETag.
+-- Las filas existentes empiezan en 0.
+
+ALTER TABLE estudiantes ADD COLUMN IF NOT EXISTS version bigint NOT NULL DEFAULT 0;
+ALTER TABLE materias ADD COLUMN IF NOT EXISTS version bigint NOT NULL DEFAULT 0;
+ALTER TABLE calificaciones ADD COLUMN IF NOT EXISTS version bigint NOT NULL DEFAULT 0;
@@ -0,0 +1,13 @@
+-- Índices de los rankings (top-N) de calificaciones. Siguen el ORDER BY nota DESC, id de las consultas,
+-- así PostgreSQL lee las primeras filas del índice y corta en el LIMIT en lugar de ordenar la tabla.
+
+-- Mejores calificaciones globales, por carrera y del período en curso. Reemplaza al índice simple
+-- sobre nota, que no servía para desempatar por id; los rangos de findByNotaBetween usan este.
+CREATE INDEX IF NOT EXISTS idx_calificaciones_nota_id
+    ON calificaciones (nota DESC, id);
+
+DROP INDEX IF EXISTS idx_calificaciones_nota;
+
+-- Mejores calificaciones de una materia
+CREATE INDEX IF NOT EXISTS idx_calificaciones_materia_nota_id
+    ON calificaciones (materia_id, nota DESC, id);
@@ -0,0 +1,105 @@
+package com.estudiantes.controlEstudiantes;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.estudiantes.controlEstudiantes.dto.MateriaSugerenciaDTO;
+import com.estudiantes.controlEstudiantes.entity.Materia;
+import com.estudiantes.controlEstudiantes.repository.MateriaRepository;
+import com.estudiantes.controlEstudiantes.service.AutocompletadoMaterias;
+
+/**
+ * Trie de sugerencias de materias sin base: prefijos de código y de cada palabra del nombre, sin tildes
+ * ni mayúsculas, orden por nombre, límite acotado y cambios incrementales. Sin transacción activa,
+ * registrar aplica el cambio de inmediato.
+ */
+class AutocompletadoMateriasTests {
+
+    private MateriaRepository materiaRepository;
+    private AutocompletadoMaterias autocompletado;
+
+    @BeforeEach
+    void crear() {
+        materiaRepository = Mockito.mock(MateriaRepository.class);
+        Mockito.when(materiaRepository.findByActivaTrue()).thenReturn(List.of(
+                materia(1L, "BD101", "Base de Datos"),
+                materia(2L, "CAL1", "Cálculo Diferencial"),
+                materia(3L, "CAL2", "Cálculo Integral"),
+                materia(4L, "ALG", "Álgebra Lineal")));
+        autocompletado = new AutocompletadoMaterias();
+        ReflectionTestUtils.setField(autocompletado, "materiaRepository", materiaRepository);
+        autocompletado.reconstruir();
+    }
+
+    @Test
+    void sugierePorPrefijoDeCodigoYDeCadaPalabraDelNombre() {
+        Assertions.assertEquals(List.of(1L), ids("bd1"));
+        Assertions.assertEquals(List.of(1L), ids("datos"));
+        Assertions.assertEquals(List.of(1L), ids("  BASE   de  "));
+        // Ordenadas por nombre: "base de datos" antes que "calculo diferencial"
+        Assertions.assertEquals(List.of(1L, 2L), ids("d"));
+        Assertions.assertEquals(List.of(4L), ids("algebra"));
+        Assertions.assertEquals(List.of(2L, 3L), ids("calculo"));
+        Assertions.assertEquals(List.of(3L), ids("cálculo int"));
+        Assertions.assertEquals(List.of(), ids("quimica"));
+        Assertions.assertEquals(List.of(), ids("   "));
+        Assertions.assertEquals(List.of(), autocompletado.sugerir(null, 10));
+    }
+
+    @Test
+    void elLimiteSeAcotaEntreUnoYElMaximo() {
+        Assertions.assertEquals(List.of(2L, 3L), ids("cal", 2));
+        Assertions.assertEquals(List.of(2L), ids("cal", 1));
+        Assertions.assertEquals(List.of(2L), ids("cal", 0));
+        Assertions.assertEquals(List.of(2L), ids("cal", -1));
+
+        List<Materia> muchas = new ArrayList<>();
+        for (long id = 1; id <= 30; id++) {
+            muchas.add(materia(id, "M" + id, String.format("Materia %02d", id)));
+        }
+        Mockito.when(materiaRepository.findByActivaTrue()).thenReturn(muchas);
+        autocompletado.reconstruir();
+        Assertions.assertEquals(AutocompletadoMaterias.MAX_SUGERENCIAS, ids("materia", 1000).size());
+    }
+
+    @Test
+    void losCambiosActualizanSoloLosTerminosAfectados() {
+        Materia renombrada = materia(2L, "CAL1", "Estadística");
+        autocompletado.registrar(renombrada);
+        Assertions.assertEquals(List.of(3L), ids("calculo"));
+        Assertions.assertEquals(List.of(2L), ids("estad"));
+        // El código no cambió y sigue indexado
+        Assertions.assertEquals(List.of(2L, 3L), ids("cal").stream().sorted().collect(Collectors.toList()));
+
+        renombrada.setActiva(false);
+        autocompletado.registrar(renombrada);
+        Assertions.assertEquals(List.of(), ids("estad"));
+        Assertions.assertEquals(List.of(3L), ids("cal"));
+
+        autocompletado.registrar(materia(5L, "FIS", "Física"));
+        Assertions.assertEquals(List.of(5L), ids("fisica"));
+    }
+
+    private List<Long> ids(String texto) {
+        return ids(texto, AutocompletadoMaterias.MAX_SUGERENCIAS);
+    }
+
+    private List<Long> ids(String texto, int limite) {
+        return autocompletado.sugerir(texto, limite).stream()
+                .map(MateriaSugerenciaDTO::getId)
+                .collect(Collectors.toList());
+    }
+
+    private static Materia materia(Long id, String codigo, String nombre) {
+        Materia materia = new Materia(nombre, codigo, null, 3, 1, "Sistemas");
+        materia.setId(id);
+        return materia;
+    }
+}
@@ -0,0 +1,59 @@
+package com.estudiantes.controlEstudiantes;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MvcResult;
+
+import com.estudiantes.controlEstudiantes.soporte.PruebaIntegracion;
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * Caché de segundo nivel del catálogo de materias: después de leer una materia y el listado de activas,
+ * modificarla o darla de baja se ve en la siguiente lectura, en el ETag del catálogo y en el
+ * autocompletado.
+ */
+class CacheMateriasTests extends PruebaIntegracion {
+
+    @Test
+    void escribirUnaMateriaActualizaCacheYAutocompletado() throws Exception {
+        long materia = datos.idMateria(3);
+        // Llena la caché de la entidad y de la consulta de materias activas
+        ejecutar(get("/api/materias/" + materia), tokenAdmin);
+        String etagCatalogo = ejecutar(get("/api/materias"), tokenAdmin).getResponse().getHeader(HttpHeaders.ETAG);
+
+        ejecutar(put("/api/materias/" + materia).contentType(MediaType.APPLICATION_JSON)
+                .content("{\"nombre\":\"Materia renombrada\",\"codigo\":\"PR3\",\"creditos\":3,\"semestre\":2," +
+                        "\"carrera\":\"Ingeniería de Sistemas\",\"profesorId\":" + idProfesor + "}"), tokenAdmin);
+        MvcResult resultado = ejecutar(get("/api/materias/" + materia), tokenAdmin);
+        Assertions.assertEquals("Materia renombrada",
+                objectMapper.readTree(resultado.getResponse().getContentAsString()).get("nombre").asText());
+        Assertions.assertEquals(List.of(materia), sugerencias("renombrada"));
+        resultado = ejecutar(get("/api/materias").header(HttpHeaders.IF_NONE_MATCH, etagCatalogo), tokenAdmin);
+        Assertions.assertEquals(200, resultado.getResponse().getStatus());
+
+        ejecutar(delete("/api/materias/" + materia), tokenAdmin);
+        resultado = ejecutar(get("/api/materias"), tokenAdmin);
+        for (JsonNode activa : objectMapper.readTree(resultado.getResponse().getContentAsString())) {
+            Assertions.assertNotEquals(materia, activa.get("id").asLong());
+        }
+        Assertions.assertEquals(List.of(), sugerencias("renombrada"));
+    }
+
+    private List<Long> sugerencias(String texto) throws Exception {
+        MvcResult resultado = ejecutar(get("/api/materias/autocomplete").param("q", texto), tokenAdmin);
+        List<Long> ids = new ArrayList<>();
+        for (JsonNode sugerencia : objectMapper.readTree(resultado.getResponse().getContentAsString())) {
+            ids.add(sugerencia.get("id").asLong());
+        }
+        return ids;
+    }
+}
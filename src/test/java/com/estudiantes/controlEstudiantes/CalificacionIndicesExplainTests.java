@@ -0,0 +1,149 @@
+package com.estudiantes.controlEstudiantes;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+
+import com.estudiantes.controlEstudiantes.repository.CalificacionRepository;
+import com.estudiantes.controlEstudiantes.soporte.ContadorSentenciasDataSource;
+import com.estudiantes.controlEstudiantes.soporte.ContadorSentenciasDataSource.SentenciaCapturada;
+import com.estudiantes.controlEstudiantes.soporte.DatosCalificaciones;
+import com.estudiantes.controlEstudiantes.soporte.PruebaIntegracion;
+
+/**
+ * Carga un volumen representativo de datos y verifica con EXPLAIN que las consultas selectivas de
+ * CalificacionRepository no recorren tablas grandes con Seq Scan. Cada método del repositorio se
+ * ejecuta de verdad: el DataSource de prueba captura el SQL que genera Hibernate con sus parámetros y
+ * es esa sentencia la que se explica, así un cambio en la consulta o en su mapeo se refleja en el plan.
+ *
+ * Los listados completos (findAllAsDTO, streamAllAsDTO, aprobatorias/reprobatorias
+ * globales, mejores del período) leen la mayor parte de la tabla y no se incluyen: ahí el Seq Scan es
+ * el plan correcto.
+ */
+class CalificacionIndicesExplainTests extends PruebaIntegracion {
+
+    // Tablas con más filas estimadas que este umbral no pueden aparecer en un Seq Scan
+    private static final long UMBRAL_FILAS_SEQ_SCAN = 10_000;
+
+    private static final Pattern SEQ_SCAN = Pattern.compile("Seq Scan on (\\w+)");
+
+    @Autowired
+    private CalificacionRepository calificacionRepository;
+
+    @Override
+    protected DatosCalificaciones crearDatos() {
+        return new DatosCalificaciones(10_000, 1_950, 50, 200, 100_000);
+    }
+
+    @Test
+    void consultasSelectivasUsanIndices() throws Exception {
+        long estudiante = datos.idEstudiante(1000);
+        long materia = datos.idMateria(100);
+        long materiaDelEstudiante = jdbcTemplate.queryForObject(
+                "SELECT min(materia_id) FROM calificaciones WHERE estudiante_id = ?", Long.class, estudiante);
+        long profesor = datos.idProfesor(25);
+        long calificacion = jdbcTemplate.queryForObject("SELECT min(id) + 5000 FROM calificaciones", Long.class);
+
+        Map<String, Runnable> consultas = new LinkedHashMap<>();
+        consultas.put("findByEstudianteIdAsDTO", () -> calificacionRepository.findByEstudianteIdAsDTO(estudiante));
+        consultas.put("calcularVersionPorEstudiante", () -> calificacionRepository.calcularVersionPorEstudiante(estudiante));
+        consultas.put("findByMateriaIdAsDTO", () -> calificacionRepository.findByMateriaIdAsDTO(materia));
+        consultas.put("findByProfesorIdAsDTO", () -> calificacionRepository.findByProfesorIdAsDTO(profesor));
+        consultas.put("findByIdAsDTO", () -> calificacionRepository.findByIdAsDTO(calificacion));
+        consultas.put("findPaginaAsDTO", () -> calificacionRepository.findPaginaAsDTO(calificacion + 45_000,
+                PageRequest.of(0, 101)));
+        consultas.put("findByEstudianteIdAndMateriaIdAsDTO",
+                () -> calificacionRepository.findByEstudianteIdAndMateriaIdAsDTO(estudiante, materiaDelEstudiante));
+        consultas.put("findByEstudianteIdAndMateriaId",
+                () -> calificacionRepository.findByEstudianteIdAndMateriaId(estudiante, materiaDelEstudiante));
+        consultas.put("calcularPromedioGeneralEstudiante",
+                () -> calificacionRepository.calcularPromedioGeneralEstudiante(estudiante));
+        consultas.put("calcularPromedioEstudianteEnMateria",
+                () -> calificacionRepository.calcularPromedioEstudianteEnMateria(estudiante, materiaDelEstudiante));
+        consultas.put("calcularPromedioMateria", () -> calificacionRepository.calcularPromedioMateria(materia));
+        consultas.put("contarCalificacionesAprobatoriasEstudiante",
+                () -> calificacionRepository.contarCalificacionesAprobatoriasEstudiante(estudiante));
+        consultas.put("contarCalificacionesReprobatoriasEstudiante",
+                () -> calificacionRepository.contarCalificacionesReprobatoriasEstudiante(estudiante));
+        consultas.put("findByNotaBetween",
+                () -> calificacionRepository.findByNotaBetween(new BigDecimal("4.9"), new BigDecimal("5.0")));
+        consultas.put("findMejoresAsDTO", () -> calificacionRepository.findMejoresAsDTO(PageRequest.of(0, 10)));
+        consultas.put("findMejoresPorMateriaAsDTO",
+                () -> calificacionRepository.findMejoresPorMateriaAsDTO(materia, PageRequest.of(0, 10)));
+        consultas.put("findMejoresPorCarreraAsDTO",
+                () -> calificacionRepository.findMejoresPorCarreraAsDTO("Carrera3", PageRequest.of(0, 10)));
+        consultas.put("calcularRankingMateria", () -> calificacionRepository.calcularRankingMateria(materia, 10));
+        consultas.put("calcularPosicionEnMateria",
+                () -> calificacionRepository.calcularPosicionEnMateria(materiaDelEstudiante, estudiante));
+        consultas.put("calcularEstadisticasMateria", () -> calificacionRepository.calcularEstadisticasMateria(materia));
+
+        ContadorSentenciasDataSource contador = contador();
+        List<String> fallas = new ArrayList<>();
+        try (Connection conexion = dataSource.getConnection()) {
+            for (Map.Entry<String, Runnable> consulta : consultas.entrySet()) {
+                List<SentenciaCapturada> sentencias;
+                contador.reiniciar();
+                contador.setCapturar(true);
+                try {
+                    consulta.getValue().run();
+                    sentencias = contador.getCapturadas();
+                } finally {
+                    contador.setCapturar(false);
+                }
+                Assertions.assertFalse(sentencias.isEmpty(), consulta.getKey() + " no ejecutó ninguna sentencia");
+
+                for (SentenciaCapturada sentencia : sentencias) {
+                    String plan = explicar(conexion, sentencia);
+                    Set<String> tablas = new LinkedHashSet<>();
+                    Matcher matcher = SEQ_SCAN.matcher(plan);
+                    while (matcher.find()) {
+                        tablas.add(matcher.group(1));
+                    }
+                    for (String tabla : tablas) {
+                        long filas = filasEstimadas(conexion, tabla);
+                        if (filas > UMBRAL_FILAS_SEQ_SCAN) {
+                            fallas.add(consulta.getKey() + ": Seq Scan sobre " + tabla + " (" + filas + " filas)\n" +
+                                    sentencia.getSql() + "\n" + plan);
+                        }
+                    }
+                }
+            }
+        }
+
+        Assertions.assertTrue(fallas.isEmpty(), () -> String.join("\n\n", fallas));
+    }
+
+    private static String explicar(Connection conexion, SentenciaCapturada sentencia) throws Exception {
+        StringBuilder plan = new StringBuilder();
+        try (PreparedStatement explain = sentencia.preparar(conexion, "EXPLAIN ");
+             ResultSet filas = explain.executeQuery()) {
+            while (filas.next()) {
+                plan.append(filas.getString(1)).append('\n');
+            }
+        }
+        return plan.toString();
+    }
+
+    private static long filasEstimadas(Connection conexion, String tabla) throws Exception {
+        try (PreparedStatement consulta = conexion.prepareStatement("SELECT reltuples::bigint FROM pg_class WHERE relname = ?")) {
+            consulta.setString(1, tabla);
+            try (ResultSet filas = consulta.executeQuery()) {
+                return filas.next() ? filas.getLong(1) : 0;
+            }
+        }
+    }
+}
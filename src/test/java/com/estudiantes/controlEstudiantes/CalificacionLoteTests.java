@@ -0,0 +1,107 @@
+package com.estudiantes.controlEstudiantes;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MvcResult;
+
+import com.estudiantes.controlEstudiantes.service.PromediosCalificaciones;
+import com.estudiantes.controlEstudiantes.soporte.PruebaIntegracion;
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * Carga por lote con filas válidas y rechazadas mezcladas, en más filas que las que se envían por
+ * flush (500): cada fila informa su resultado en orden, las creadas quedan en la tabla con el id
+ * informado y los promedios en memoria las incluyen al confirmar.
+ */
+class CalificacionLoteTests extends PruebaIntegracion {
+
+    private static final int FILAS = 1_500;
+    private static final long INEXISTENTE = 999_999;
+
+    @Autowired
+    private PromediosCalificaciones promediosCalificaciones;
+
+    @Test
+    void loteMixtoInformaCadaFilaYGuardaSoloLasValidas() throws Exception {
+        // profesor1 dicta las materias 1 a 10; la 20 es de otro profesor
+        long materiaAjena = datos.idMateria(20);
+        long calificacionesAntes = contarCalificaciones();
+
+        StringBuilder json = new StringBuilder("{\"calificaciones\":[");
+        List<String> erroresEsperados = new ArrayList<>();
+        for (int i = 0; i < FILAS; i++) {
+            long materia = datos.idMateria(1 + i % 10);
+            long estudiante = datos.idEstudiante(1 + i % datos.getEstudiantes());
+            String error = null;
+            if (i % 10 == 9) {
+                materia = materiaAjena;
+                error = "Solo puede calificar las materias que dicta";
+            } else if (i % 15 == 7) {
+                materia = INEXISTENTE;
+                error = "Materia no encontrada con ID: " + INEXISTENTE;
+            } else if (i % 25 == 3) {
+                estudiante = INEXISTENTE;
+                error = "Estudiante no encontrado con ID: " + INEXISTENTE;
+            }
+            erroresEsperados.add(error);
+            json.append(i > 0 ? "," : "")
+                    .append("{\"estudianteId\":").append(estudiante)
+                    .append(",\"materiaId\":").append(materia)
+                    .append(",\"nota\":").append((i % 51) / 10.0)
+                    .append(",\"tipoEvaluacion\":\"Quiz\"}");
+        }
+        json.append("]}");
+
+        MvcResult resultado = ejecutar(post("/api/calificaciones/lote").contentType(MediaType.APPLICATION_JSON)
+                .content(json.toString()), tokenProfesor);
+        Assertions.assertEquals(201, resultado.getResponse().getStatus(), resultado.getResponse().getContentAsString());
+
+        JsonNode respuesta = objectMapper.readTree(resultado.getResponse().getContentAsString());
+        long esperadasCreadas = erroresEsperados.stream().filter(error -> error == null).count();
+        Assertions.assertEquals(FILAS, respuesta.get("total").asInt());
+        Assertions.assertEquals(esperadasCreadas, respuesta.get("creadas").asLong());
+        Assertions.assertEquals(FILAS - esperadasCreadas, respuesta.get("rechazadas").asLong());
+
+        Set<Long> ids = new HashSet<>();
+        JsonNode filas = respuesta.get("resultados");
+        for (int i = 0; i < FILAS; i++) {
+            JsonNode fila = filas.get(i);
+            Assertions.assertEquals(i, fila.get("indice").asInt());
+            if (erroresEsperados.get(i) == null) {
+                Assertions.assertTrue(fila.get("creada").asBoolean(), fila.toString());
+                Assertions.assertTrue(ids.add(fila.get("calificacionId").asLong()));
+            } else {
+                Assertions.assertFalse(fila.get("creada").asBoolean(), fila.toString());
+                Assertions.assertEquals(erroresEsperados.get(i), fila.get("error").asText());
+            }
+        }
+
+        // Quedaron guardadas las filas de cada tramo entre flush, con los ids informados
+        Assertions.assertEquals(calificacionesAntes + esperadasCreadas, contarCalificaciones());
+        Long guardadas = jdbcTemplate.queryForObject("SELECT count(*) FROM calificaciones WHERE id = ANY (?)",
+                Long.class, (Object) ids.toArray(new Long[0]));
+        Assertions.assertEquals(esperadasCreadas, guardadas);
+
+        for (int indice = 1; indice <= 10; indice++) {
+            long materia = datos.idMateria(indice);
+            BigDecimal enTabla = jdbcTemplate.queryForObject(
+                    "SELECT avg(nota) FROM calificaciones WHERE materia_id = ?", BigDecimal.class, materia);
+            Assertions.assertEquals(enTabla.doubleValue(), promediosCalificaciones.promedioMateria(materia).doubleValue(),
+                    1e-9, "materia " + materia);
+        }
+    }
+
+    private long contarCalificaciones() {
+        return jdbcTemplate.queryForObject("SELECT count(*) FROM calificaciones", Long.class);
+    }
+}
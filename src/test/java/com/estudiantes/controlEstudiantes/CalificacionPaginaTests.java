@@ -0,0 +1,87 @@
+package com.estudiantes.controlEstudiantes;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.servlet.MvcResult;
+
+import com.estudiantes.controlEstudiantes.soporte.PruebaIntegracion;
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * Paginación por cursor (/pagina) y transmisión NDJSON (/stream) de todas las calificaciones: recorrer
+ * el cursor devuelve cada fila una vez y en orden, el tamaño de página se acota, y el stream escribe un
+ * objeto JSON por fila.
+ */
+class CalificacionPaginaTests extends PruebaIntegracion {
+
+    @Test
+    void elCursorRecorreTodasLasFilasSinDuplicadosNiHuecos() throws Exception {
+        List<Long> esperados = jdbcTemplate.queryForList("SELECT id FROM calificaciones ORDER BY id", Long.class);
+
+        List<Long> recibidos = new ArrayList<>();
+        String url = "/api/calificaciones/pagina?tamano=1000";
+        while (true) {
+            JsonNode pagina = pagina(url);
+            JsonNode calificaciones = pagina.get("calificaciones");
+            calificaciones.forEach(calificacion -> recibidos.add(calificacion.get("id").asLong()));
+            if (!pagina.get("hayMas").asBoolean()) {
+                Assertions.assertTrue(pagina.get("siguienteCursor").isNull());
+                break;
+            }
+            // Una página con más filas detrás está completa y su cursor es su último id
+            Assertions.assertEquals(1000, calificaciones.size());
+            long siguienteCursor = pagina.get("siguienteCursor").asLong();
+            Assertions.assertEquals(calificaciones.get(calificaciones.size() - 1).get("id").asLong(), siguienteCursor);
+            url = "/api/calificaciones/pagina?tamano=1000&despuesDe=" + siguienteCursor;
+        }
+
+        Assertions.assertTrue(esperados.size() > 10_000);
+        Assertions.assertEquals(esperados, recibidos);
+
+        // Después de la última fila no hay nada más
+        JsonNode vacia = pagina("/api/calificaciones/pagina?despuesDe=" + esperados.get(esperados.size() - 1));
+        Assertions.assertEquals(0, vacia.get("calificaciones").size());
+        Assertions.assertFalse(vacia.get("hayMas").asBoolean());
+        Assertions.assertTrue(vacia.get("siguienteCursor").isNull());
+    }
+
+    @Test
+    void elTamanoDePaginaSeAcotaEntreUnoYMil() throws Exception {
+        Assertions.assertEquals(1, pagina("/api/calificaciones/pagina?tamano=0").get("calificaciones").size());
+        Assertions.assertEquals(1, pagina("/api/calificaciones/pagina?tamano=-5").get("calificaciones").size());
+        Assertions.assertEquals(1000, pagina("/api/calificaciones/pagina?tamano=5000").get("calificaciones").size());
+        Assertions.assertEquals(100, pagina("/api/calificaciones/pagina").get("calificaciones").size());
+    }
+
+    @Test
+    void elStreamEscribeUnObjetoJsonPorFila() throws Exception {
+        MvcResult resultado = ejecutar(get("/api/calificaciones/stream"), tokenAdmin);
+        Assertions.assertEquals(200, resultado.getResponse().getStatus());
+        Assertions.assertTrue(resultado.getResponse().getContentType().startsWith("application/x-ndjson"));
+
+        String cuerpo = resultado.getResponse().getContentAsString();
+        Assertions.assertTrue(cuerpo.endsWith("\n"));
+        List<Long> recibidos = new ArrayList<>();
+        for (String linea : cuerpo.split("\n")) {
+            JsonNode calificacion = objectMapper.readTree(linea);
+            Assertions.assertTrue(calificacion.isObject(), linea);
+            Assertions.assertTrue(calificacion.hasNonNull("nota"), linea);
+            recibidos.add(calificacion.get("id").asLong());
+        }
+
+        List<Long> esperados = jdbcTemplate.queryForList("SELECT id FROM calificaciones", Long.class);
+        Assertions.assertEquals(esperados.size(), recibidos.size());
+        Assertions.assertEquals(esperados.stream().sorted().toList(), recibidos.stream().sorted().toList());
+    }
+
+    private JsonNode pagina(String url) throws Exception {
+        MvcResult resultado = ejecutar(get(url), tokenAdmin);
+        Assertions.assertEquals(200, resultado.getResponse().getStatus(), url);
+        return objectMapper.readTree(resultado.getResponse().getContentAsString());
+    }
+}
@@ -0,0 +1,95 @@
+package com.estudiantes.controlEstudiantes;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MvcResult;
+
+import com.estudiantes.controlEstudiantes.soporte.PruebaIntegracion;
+
+/**
+ * Logins con la contraseña anterior mientras un administrador la cambia: ningún token obtenido con ella
+ * sirve una vez confirmado el cambio, aunque el login haya leído al usuario justo antes del commit y
+ * firmado el token después de la revocación.
+ */
+class CambioContrasenaTests extends PruebaIntegracion {
+
+    private static final String EMAIL = "concurrente@test.com";
+    private static final int HILOS = 4;
+
+    @Test
+    void ningunTokenDeLaContrasenaAnteriorSobreviveAlCambio() throws Exception {
+        MvcResult creado = ejecutar(post("/api/estudiantes/crear").contentType(MediaType.APPLICATION_JSON)
+                .content(estudiante("anterior1")), tokenAdmin);
+        Assertions.assertEquals(201, creado.getResponse().getStatus(), creado.getResponse().getContentAsString());
+        long id = objectMapper.readTree(creado.getResponse().getContentAsString()).get("id").asLong();
+
+        // Cada hilo inicia sesión con la contraseña anterior hasta que el cambio se lo impide
+        Queue<String> tokensAnteriores = new ConcurrentLinkedQueue<>();
+        ExecutorService hilos = Executors.newFixedThreadPool(HILOS);
+        List<CompletableFuture<Void>> logins = new ArrayList<>();
+        for (int hilo = 0; hilo < HILOS; hilo++) {
+            String ip = "10.1.0." + hilo;
+            logins.add(CompletableFuture.runAsync(() -> {
+                try {
+                    while (true) {
+                        MvcResult resultado = login(ip, "anterior1");
+                        if (resultado.getResponse().getStatus() != 200) {
+                            return;
+                        }
+                        tokensAnteriores.add(objectMapper.readTree(resultado.getResponse().getContentAsString())
+                                .get("token").asText());
+                    }
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            }, hilos));
+        }
+
+        Thread.sleep(300);
+        MvcResult actualizado = ejecutar(put("/api/estudiantes/" + id).contentType(MediaType.APPLICATION_JSON)
+                .content(estudiante("nueva123")), tokenAdmin);
+        Assertions.assertEquals(200, actualizado.getResponse().getStatus(), actualizado.getResponse().getContentAsString());
+        CompletableFuture.allOf(logins.toArray(new CompletableFuture[0])).get(60, TimeUnit.SECONDS);
+        hilos.shutdown();
+
+        Assertions.assertFalse(tokensAnteriores.isEmpty());
+        // Un token revocado deja la petición sin autenticar: @PreAuthorize la rechaza con 403
+        for (String token : tokensAnteriores) {
+            Assertions.assertEquals(403, ejecutar(get("/api/calificaciones/mis-calificaciones"), token).getResponse().getStatus());
+        }
+        MvcResult nuevo = login("10.1.1.0", "nueva123");
+        Assertions.assertEquals(200, nuevo.getResponse().getStatus());
+        String tokenNuevo = objectMapper.readTree(nuevo.getResponse().getContentAsString()).get("token").asText();
+        Assertions.assertEquals(200, ejecutar(get("/api/calificaciones/mis-calificaciones"), tokenNuevo).getResponse().getStatus());
+    }
+
+    private MvcResult login(String ip, String password) throws Exception {
+        return mockMvc.perform(post("/api/auth/login").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"email\":\"" + EMAIL + "\",\"password\":\"" + password + "\"}")
+                        .with(peticion -> {
+                            peticion.setRemoteAddr(ip);
+                            return peticion;
+                        }))
+                .andReturn();
+    }
+
+    private static String estudiante(String password) {
+        return "{\"nombre\":\"Concurrente\",\"apellido\":\"Prueba\",\"email\":\"" + EMAIL + "\"," +
+                "\"cedula\":\"30000001\",\"carrera\":\"Ingeniería de Sistemas\",\"semestre\":1," +
+                "\"fechaNacimiento\":\"2001-01-01\",\"password\":\"" + password + "\"}";
+    }
+}
@@ -0,0 +1,66 @@
+package com.estudiantes.controlEstudiantes;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import com.estudiantes.controlEstudiantes.exception.ServicioSaturadoException;
+import com.estudiantes.controlEstudiantes.security.CodificadorBcryptAcotado;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Pool de BCrypt con un hilo y una tarea en cola: la tercera petición simultánea se rechaza enseguida,
+ * y la espera en cola y el cálculo quedan en métricas separadas.
+ */
+class CodificadorBcryptAcotadoTests {
+
+    @Test
+    void conLaColaLlenaRechazaSinEsperar() throws Exception {
+        CountDownLatch liberar = new CountDownLatch(1);
+        CountDownLatch calculando = new CountDownLatch(1);
+        PasswordEncoder lento = new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                calculando.countDown();
+                try {
+                    liberar.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return "cifrada:" + rawPassword;
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                return encodedPassword.equals(encode(rawPassword));
+            }
+        };
+        SimpleMeterRegistry registro = new SimpleMeterRegistry();
+
+        try (CodificadorBcryptAcotado codificador = new CodificadorBcryptAcotado(lento, 1, 1, registro)) {
+            CompletableFuture<String> enCalculo = CompletableFuture.supplyAsync(() -> codificador.encode("a"));
+            Assertions.assertTrue(calculando.await(5, TimeUnit.SECONDS));
+            CompletableFuture<String> enCola = CompletableFuture.supplyAsync(() -> codificador.encode("b"));
+            while (registro.get("bcrypt.cola").gauge().value() < 1) {
+                Thread.sleep(10);
+            }
+
+            Assertions.assertThrows(ServicioSaturadoException.class, () -> codificador.encode("c"));
+            Assertions.assertEquals(1, registro.get("bcrypt.rechazos").counter().count());
+
+            liberar.countDown();
+            Assertions.assertEquals("cifrada:a", enCalculo.get(5, TimeUnit.SECONDS));
+            Assertions.assertEquals("cifrada:b", enCola.get(5, TimeUnit.SECONDS));
+            Assertions.assertTrue(codificador.matches("d", "cifrada:d"));
+        }
+
+        Assertions.assertEquals(2, registro.get("bcrypt.calculo").tag("operacion", "codificar").timer().count());
+        Assertions.assertEquals(2, registro.get("bcrypt.espera").tag("operacion", "codificar").timer().count());
+        Assertions.assertEquals(1, registro.get("bcrypt.calculo").tag("operacion", "verificar").timer().count());
+    }
+}
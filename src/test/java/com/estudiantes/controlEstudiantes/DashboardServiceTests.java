@@ -0,0 +1,83 @@
+package com.estudiantes.controlEstudiantes;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.estudiantes.controlEstudiantes.dto.CalificacionResponseDTO;
+import com.estudiantes.controlEstudiantes.dto.DashboardEstudianteDTO;
+import com.estudiantes.controlEstudiantes.dto.EstudianteResponseDTO;
+import com.estudiantes.controlEstudiantes.dto.MateriaPromedioDTO;
+import com.estudiantes.controlEstudiantes.repository.CalificacionRepository;
+import com.estudiantes.controlEstudiantes.service.DashboardService;
+import com.estudiantes.controlEstudiantes.service.EstudianteService;
+
+/**
+ * El dashboard calcula materias, cantidades y promedios sobre las calificaciones que devuelve, sin
+ * consultas por materia: los números coinciden siempre con la lista.
+ */
+class DashboardServiceTests {
+
+    private static final Long ESTUDIANTE = 7L;
+
+    @Test
+    void promediosYCantidadesSalenDeLasCalificacionesCargadas() {
+        EstudianteService estudianteService = Mockito.mock(EstudianteService.class);
+        CalificacionRepository calificacionRepository = Mockito.mock(CalificacionRepository.class);
+        EstudianteResponseDTO perfil = new EstudianteResponseDTO();
+        Mockito.when(estudianteService.obtenerEstudiantePorId(ESTUDIANTE)).thenReturn(perfil);
+        Mockito.when(calificacionRepository.findByEstudianteIdAsDTO(ESTUDIANTE)).thenReturn(List.of(
+                calificacion(1L, 20L, "FIS1", "Fisica", "4.0"),
+                calificacion(2L, 10L, "ALG1", "Algebra", "5.0"),
+                calificacion(3L, 20L, "FIS1", "Fisica", "3.5")));
+        DashboardService servicio = new DashboardService();
+        ReflectionTestUtils.setField(servicio, "estudianteService", estudianteService);
+        ReflectionTestUtils.setField(servicio, "calificacionRepository", calificacionRepository);
+
+        DashboardEstudianteDTO dashboard = servicio.obtenerDashboardEstudiante(ESTUDIANTE);
+
+        Assertions.assertSame(perfil, dashboard.getPerfil());
+        Assertions.assertEquals(3, dashboard.getCalificaciones().size());
+        List<MateriaPromedioDTO> materias = dashboard.getMaterias();
+        Assertions.assertEquals(2, materias.size());
+        Assertions.assertEquals("Algebra", materias.get(0).getNombre());
+        Assertions.assertEquals(1, materias.get(0).getCantidadCalificaciones());
+        Assertions.assertEquals(0, new BigDecimal("5.0").compareTo(materias.get(0).getPromedio()));
+        Assertions.assertEquals("Fisica", materias.get(1).getNombre());
+        Assertions.assertEquals(20L, materias.get(1).getMateriaId());
+        Assertions.assertEquals("FIS1", materias.get(1).getCodigo());
+        Assertions.assertEquals(2, materias.get(1).getCantidadCalificaciones());
+        Assertions.assertEquals(0, new BigDecimal("3.75").compareTo(materias.get(1).getPromedio()));
+        Assertions.assertEquals(0, new BigDecimal("4.166666666666667").compareTo(dashboard.getPromedioGeneral()));
+
+        // Una sola consulta de calificaciones, ninguna por materia
+        Mockito.verify(calificacionRepository).findByEstudianteIdAsDTO(ESTUDIANTE);
+        Mockito.verifyNoMoreInteractions(calificacionRepository);
+    }
+
+    @Test
+    void sinCalificacionesElPromedioEsCero() {
+        EstudianteService estudianteService = Mockito.mock(EstudianteService.class);
+        CalificacionRepository calificacionRepository = Mockito.mock(CalificacionRepository.class);
+        Mockito.when(calificacionRepository.findByEstudianteIdAsDTO(ESTUDIANTE)).thenReturn(List.of());
+        DashboardService servicio = new DashboardService();
+        ReflectionTestUtils.setField(servicio, "estudianteService", estudianteService);
+        ReflectionTestUtils.setField(servicio, "calificacionRepository", calificacionRepository);
+
+        DashboardEstudianteDTO dashboard = servicio.obtenerDashboardEstudiante(ESTUDIANTE);
+
+        Assertions.assertEquals(BigDecimal.ZERO, dashboard.getPromedioGeneral());
+        Assertions.assertEquals(List.of(), dashboard.getMaterias());
+    }
+
+    private static CalificacionResponseDTO calificacion(Long id, Long materiaId, String codigo, String nombre,
+                                                        String nota) {
+        return new CalificacionResponseDTO(id, ESTUDIANTE, "Ana Pérez", "12345678", materiaId, nombre, codigo,
+                99L, "Profesor Uno", new BigDecimal(nota), "Parcial", null, LocalDateTime.now(), null);
+    }
+}
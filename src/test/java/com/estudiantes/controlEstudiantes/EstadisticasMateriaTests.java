@@ -0,0 +1,58 @@
+package com.estudiantes.controlEstudiantes;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.servlet.MvcResult;
+
+import com.estudiantes.controlEstudiantes.soporte.ContadorSentenciasDataSource;
+import com.estudiantes.controlEstudiantes.soporte.PruebaIntegracion;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * Estadísticas de una materia por los dos caminos: la consulta sobre todo el historial y la distribución
+ * del período en memoria. Como todos los datos de la prueba son del período en curso, deben coincidir.
+ */
+class EstadisticasMateriaTests extends PruebaIntegracion {
+
+    @Test
+    void estadisticasDelPeriodoEnMemoriaCoincidenConLaBase() throws Exception {
+        long calificacion = jdbcTemplate.queryForObject(
+                "SELECT min(id) FROM calificaciones WHERE profesor_id = ? AND nota < 5.0", Long.class, idProfesor);
+        long materia = jdbcTemplate.queryForObject(
+                "SELECT materia_id FROM calificaciones WHERE id = ?", Long.class, calificacion);
+        Assertions.assertEquals(estadisticas(materia, false), estadisticas(materia, true));
+
+        // El cambio de nota se aplica a la distribución en memoria sin consultar la base
+        actualizarNota(calificacion, "5.0");
+        ContadorSentenciasDataSource contador = contador();
+        contador.reiniciar();
+        JsonNode enMemoria = estadisticas(materia, true);
+        Assertions.assertEquals(0, contador.getSentencias());
+        Assertions.assertEquals(estadisticas(materia, false), enMemoria);
+        Assertions.assertEquals(jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM calificaciones WHERE materia_id = ?", Long.class, materia),
+                enMemoria.get("cantidad").asLong());
+    }
+
+    @Test
+    void materiaInexistenteRespondeNotFound() throws Exception {
+        for (String soloPeriodoActual : new String[] {"false", "true"}) {
+            MvcResult resultado = ejecutar(get("/api/calificaciones/estadisticas/materia/999999")
+                    .param("soloPeriodoActual", soloPeriodoActual), tokenAdmin);
+            Assertions.assertEquals(404, resultado.getResponse().getStatus(), soloPeriodoActual);
+        }
+    }
+
+    // Sin el campo que distingue el origen, para comparar ambos caminos
+    private JsonNode estadisticas(long materia, boolean soloPeriodoActual) throws Exception {
+        MvcResult resultado = ejecutar(get("/api/calificaciones/estadisticas/materia/" + materia)
+                .param("soloPeriodoActual", String.valueOf(soloPeriodoActual)), tokenAdmin);
+        Assertions.assertEquals(200, resultado.getResponse().getStatus());
+        ObjectNode estadisticas = (ObjectNode) objectMapper.readTree(resultado.getResponse().getContentAsString());
+        estadisticas.remove("soloPeriodoActual");
+        return estadisticas;
+    }
+}
@@ -0,0 +1,165 @@
+package com.estudiantes.controlEstudiantes;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import com.estudiantes.controlEstudiantes.dto.EstadisticasMateriaDTO;
+import com.estudiantes.controlEstudiantes.repository.CalificacionRepository;
+import com.estudiantes.controlEstudiantes.service.EstadisticasPeriodoActual;
+
+/**
+ * Distribución del período en memoria con el repositorio simulado: las estadísticas y el histograma que
+ * salen de los conteos, y las escrituras que no cuadran o se cruzan con una lectura de la tabla.
+ */
+class EstadisticasPeriodoActualTests {
+
+    private static final Long MATERIA = 10L;
+
+    private CalificacionRepository calificacionRepository;
+    private EstadisticasPeriodoActual estadisticas;
+
+    @BeforeEach
+    void crear() {
+        calificacionRepository = Mockito.mock(CalificacionRepository.class);
+        estadisticas = new EstadisticasPeriodoActual();
+        ReflectionTestUtils.setField(estadisticas, "calificacionRepository", calificacionRepository);
+    }
+
+    @Test
+    void distribucionEHistogramaSalenDeLosConteos() {
+        leer(fila("0.0", 1), fila("2.4", 2), fila("2.5", 1), fila("3.0", 3), fila("5.0", 1));
+
+        EstadisticasMateriaDTO resultado = estadisticas.calcular(MATERIA);
+
+        Assertions.assertEquals(8, resultado.getCantidad());
+        Assertions.assertEquals(new BigDecimal("2.66"), resultado.getPromedio());
+        Assertions.assertEquals(new BigDecimal("0.0"), resultado.getNotaMinima());
+        Assertions.assertEquals(new BigDecimal("5.0"), resultado.getNotaMaxima());
+        Assertions.assertEquals(new BigDecimal("1.37"), resultado.getDesviacionEstandar());
+        Assertions.assertEquals(4, resultado.getAprobadas());
+        Assertions.assertEquals(new BigDecimal("50.0"), resultado.getPorcentajeAprobacion());
+        // El 2.5 abre su intervalo y el 5.0 cae en el último
+        Assertions.assertEquals(List.of(1L, 0L, 0L, 0L, 2L, 1L, 3L, 0L, 0L, 1L), cantidadesPorIntervalo(resultado));
+        Assertions.assertEquals(new BigDecimal("4.5"), resultado.getHistograma().get(9).getDesde());
+    }
+
+    @Test
+    void materiaSinNotasNoTieneEstadisticas() {
+        leer();
+
+        EstadisticasMateriaDTO resultado = estadisticas.calcular(MATERIA);
+
+        Assertions.assertEquals(0, resultado.getCantidad());
+        Assertions.assertNull(resultado.getPromedio());
+        Assertions.assertNull(resultado.getDesviacionEstandar());
+        Assertions.assertNull(resultado.getPorcentajeAprobacion());
+        Assertions.assertEquals(List.of(0L, 0L, 0L, 0L, 0L, 0L, 0L, 0L, 0L, 0L), cantidadesPorIntervalo(resultado));
+    }
+
+    @Test
+    void quitarUnaNotaQueNoEstaInvalidaEnLugarDeDejarConteosNegativos() {
+        leer(fila("3.0", 1));
+        estadisticas.calcular(MATERIA);
+
+        estadisticas.registrarBaja(MATERIA, LocalDateTime.now(), new BigDecimal("4.0"));
+        leer(fila("3.0", 1));
+        EstadisticasMateriaDTO resultado = estadisticas.calcular(MATERIA);
+
+        Mockito.verify(calificacionRepository, Mockito.times(2)).contarNotasPorMateriaDesde(ArgumentMatchers.any());
+        Assertions.assertEquals(1, resultado.getCantidad());
+        Assertions.assertTrue(cantidadesPorIntervalo(resultado).stream().allMatch(cantidad -> cantidad >= 0));
+    }
+
+    @Test
+    void unaEscrituraConfirmadaAntesDeLaLecturaNoSeCuentaDosVeces() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            estadisticas.registrarAlta(MATERIA, LocalDateTime.now(), new BigDecimal("4.0"));
+            // La transacción ya confirmó cuando se lee la tabla, pero su afterCommit todavía no corrió: cada
+            // intento se descarta y se responde con la última lectura
+            leer(fila("3.0", 1), fila("4.0", 1));
+            Assertions.assertEquals(2, estadisticas.calcular(MATERIA).getCantidad());
+            Mockito.verify(calificacionRepository, Mockito.times(3)).contarNotasPorMateriaDesde(ArgumentMatchers.any());
+
+            TransactionSynchronizationUtils.triggerAfterCommit();
+            TransactionSynchronizationUtils.triggerAfterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        // Terminada la escritura, se lee una vez más, se instala y después se responde desde memoria
+        Assertions.assertEquals(2, estadisticas.calcular(MATERIA).getCantidad());
+        Assertions.assertEquals(2, estadisticas.calcular(MATERIA).getCantidad());
+        Mockito.verify(calificacionRepository, Mockito.times(4)).contarNotasPorMateriaDesde(ArgumentMatchers.any());
+    }
+
+    @Test
+    void laVerificacionReemplazaUnaDistribucionDesviada() {
+        leer(fila("3.0", 1));
+        estadisticas.calcular(MATERIA);
+
+        // Una nota que llegó a la tabla sin pasar por registrarAlta
+        leer(fila("3.0", 1), fila("4.0", 1));
+        estadisticas.verificar();
+
+        Assertions.assertEquals(2, estadisticas.calcular(MATERIA).getCantidad());
+        Mockito.verify(calificacionRepository, Mockito.times(2)).contarNotasPorMateriaDesde(ArgumentMatchers.any());
+    }
+
+    @Test
+    void lasLecturasQueLleganDuranteUnaReconstruccionUsanLaInstalada() throws Exception {
+        CountDownLatch leyendo = new CountDownLatch(1);
+        CountDownLatch continuar = new CountDownLatch(1);
+        Mockito.when(calificacionRepository.contarNotasPorMateriaDesde(ArgumentMatchers.any())).thenAnswer(invocacion -> {
+            leyendo.countDown();
+            continuar.await(5, TimeUnit.SECONDS);
+            return filas(fila("3.0", 1));
+        });
+
+        CompletableFuture<EstadisticasMateriaDTO> primera = CompletableFuture.supplyAsync(() -> estadisticas.calcular(MATERIA));
+        Assertions.assertTrue(leyendo.await(5, TimeUnit.SECONDS));
+        CompletableFuture<EstadisticasMateriaDTO> segunda = CompletableFuture.supplyAsync(() -> estadisticas.calcular(MATERIA));
+        ReentrantLock reconstruccion = (ReentrantLock) ReflectionTestUtils.getField(estadisticas, "reconstruccion");
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!reconstruccion.hasQueuedThreads() && System.nanoTime() < limite) {
+            Thread.sleep(1);
+        }
+        continuar.countDown();
+
+        Assertions.assertEquals(1, primera.get(5, TimeUnit.SECONDS).getCantidad());
+        Assertions.assertEquals(1, segunda.get(5, TimeUnit.SECONDS).getCantidad());
+        Mockito.verify(calificacionRepository, Mockito.times(1)).contarNotasPorMateriaDesde(ArgumentMatchers.any());
+    }
+
+    private void leer(Object[]... filas) {
+        Mockito.when(calificacionRepository.contarNotasPorMateriaDesde(ArgumentMatchers.any())).thenReturn(filas(filas));
+    }
+
+    private static List<Object[]> filas(Object[]... filas) {
+        return new ArrayList<>(List.of(filas));
+    }
+
+    private static Object[] fila(String nota, long cantidad) {
+        return new Object[] {MATERIA, new BigDecimal(nota), cantidad};
+    }
+
+    private static List<Long> cantidadesPorIntervalo(EstadisticasMateriaDTO estadisticas) {
+        return estadisticas.getHistograma().stream().map(EstadisticasMateriaDTO.Intervalo::getCantidad).toList();
+    }
+}
@@ -0,0 +1,117 @@
+package com.estudiantes.controlEstudiantes;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import com.estudiantes.controlEstudiantes.service.EstudianteService;
+import com.estudiantes.controlEstudiantes.soporte.ContadorSentenciasDataSource;
+import com.estudiantes.controlEstudiantes.soporte.ContadorSentenciasDataSource.SentenciaCapturada;
+import com.estudiantes.controlEstudiantes.soporte.DatosCalificaciones;
+import com.estudiantes.controlEstudiantes.soporte.PruebaIntegracion;
+
+/**
+ * Búsqueda por nombre (EstudianteService.buscarPorNombreCompleto y EstudianteRepository.buscarPorNombre)
+ * con 50.000 estudiantes: sin tildes ni mayúsculas, con errores de tipeo, fragmentos de una palabra y
+ * comodines de ILIKE tomados como texto. El plan se obtiene con EXPLAIN sobre la sentencia que preparó
+ * Hibernate, con sus parámetros.
+ */
+class EstudianteBusquedaNombreTests extends PruebaIntegracion {
+
+    private static final long PRIMER_ID = 1_000_000;
+
+    @Autowired
+    private EstudianteService estudianteService;
+
+    @Override
+    protected DatosCalificaciones crearDatos() {
+        return new DatosCalificaciones(10_000, 50_000, 20, 40, 10_000);
+    }
+
+    @BeforeAll
+    void cargarNombres() {
+        jdbcTemplate.update(
+            "INSERT INTO estudiantes (id, activo, fecha_nacimiento, semestre, fecha_creacion, cedula, apellido, " +
+            "nombre, carrera, email, password, rol) VALUES " +
+            "(?, true, DATE '2000-01-01', 1, now(), 'B-1', 'Quintanilla Muñoz', 'José Andrés', " +
+            "'Ingeniería de Sistemas', 'jose@busqueda.com', 'x', 'ESTUDIANTE'), " +
+            "(?, false, DATE '2000-01-01', 1, now(), 'B-2', 'Quintanilla', 'José', " +
+            "'Ingeniería de Sistemas', 'inactivo@busqueda.com', 'x', 'ESTUDIANTE'), " +
+            "(?, true, DATE '2000-01-01', 1, now(), 'B-3', 'Zúñiga', 'Ximena', " +
+            "'Ingeniería de Sistemas', 'ximena@busqueda.com', 'x', 'ESTUDIANTE')",
+            PRIMER_ID, PRIMER_ID + 1, PRIMER_ID + 2);
+        jdbcTemplate.execute("ANALYZE estudiantes");
+    }
+
+    @Test
+    void encuentraSinTildesNiMayusculasYConErroresDeTipeo() {
+        for (String texto : List.of("jose andres", "JOSÉ ANDRÉS", "quintanilla munoz", "Quintanila", "andrez")) {
+            Assertions.assertEquals(List.of("José Andrés Quintanilla Muñoz"), buscar(texto), texto);
+        }
+        Assertions.assertEquals(List.of(), buscar("zzzz qqq"));
+    }
+
+    @Test
+    void encuentraFragmentosDeUnaPalabra() {
+        // Por similitud de palabra "uni" no alcanza el umbral frente a "zuniga"; lo encuentra el ILIKE
+        Assertions.assertEquals(List.of("Ximena Zúñiga"), buscar("uñi"));
+        Assertions.assertEquals(List.of("Ximena Zúñiga"), buscar("ÚÑIG"));
+        Assertions.assertEquals(List.of("José Andrés Quintanilla Muñoz"), buscar("tanil"));
+    }
+
+    @Test
+    void losComodinesDeIlikeSeBuscanComoTexto() {
+        // Sin escapar, cada uno de estos coincidiría con todos los nombres
+        for (String texto : List.of("%%%", "___", "a%b", "\\%_")) {
+            Assertions.assertEquals(List.of(), buscar(texto), texto);
+        }
+    }
+
+    @Test
+    void usaElIndiceDeTrigramas() throws Exception {
+        // Con pocas coincidencias el planificador prefiere un Bitmap Scan y ordenar; con muchas, recorrer el
+        // índice por distancia. Lo que no puede aparecer es un recorrido completo de la tabla
+        ContadorSentenciasDataSource contador = contador();
+        try (Connection conexion = dataSource.getConnection()) {
+            for (String texto : List.of("quintanila", "uñi", "no", "%%%")) {
+                List<SentenciaCapturada> sentencias;
+                contador.reiniciar();
+                contador.setCapturar(true);
+                try {
+                    buscar(texto);
+                    sentencias = contador.getCapturadas();
+                } finally {
+                    contador.setCapturar(false);
+                }
+                Assertions.assertEquals(1, sentencias.size(), texto);
+
+                String plan = explicar(conexion, sentencias.get(0));
+                Assertions.assertTrue(plan.contains("idx_estudiantes_nombre_busqueda"), plan);
+                Assertions.assertFalse(plan.contains("Seq Scan"), plan);
+            }
+        }
+    }
+
+    private List<String> buscar(String texto) {
+        return estudianteService.buscarPorNombreCompleto(texto, 5).stream()
+                .map(estudiante -> estudiante.getNombre() + " " + estudiante.getApellido())
+                .toList();
+    }
+
+    private static String explicar(Connection conexion, SentenciaCapturada sentencia) throws Exception {
+        StringBuilder plan = new StringBuilder();
+        try (PreparedStatement explain = sentencia.preparar(conexion, "EXPLAIN ");
+             ResultSet filas = explain.executeQuery()) {
+            while (filas.next()) {
+                plan.append(filas.getString(1)).append('\n');
+            }
+        }
+        return plan.toString();
+    }
+}
@@ -0,0 +1,62 @@
+package com.estudiantes.controlEstudiantes;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MvcResult;
+
+import com.estudiantes.controlEstudiantes.soporte.ContadorSentenciasDataSource;
+import com.estudiantes.controlEstudiantes.soporte.PruebaIntegracion;
+
+/**
+ * GET condicional de los listados: con el ETag vigente se responde 304 sin cuerpo después de la
+ * consulta del sello de versión, y una escritura que afecta al listado cambia el ETag. El sello y las
+ * filas de una respuesta 200 salen de la misma conexión.
+ */
+class EtagListadosTests extends PruebaIntegracion {
+
+    @Test
+    void listadoSinCambiosRespondeNotModifiedConSoloElSello() throws Exception {
+        MvcResult resultado = ejecutar(get("/api/calificaciones/mis-calificaciones"), tokenEstudiante);
+        String etag = resultado.getResponse().getHeader(HttpHeaders.ETAG);
+        Assertions.assertNotNull(etag);
+
+        ContadorSentenciasDataSource contador = contador();
+        contador.reiniciar();
+        resultado = ejecutar(get("/api/calificaciones/mis-calificaciones").header(HttpHeaders.IF_NONE_MATCH, etag),
+                tokenEstudiante);
+        Assertions.assertEquals(304, resultado.getResponse().getStatus());
+        Assertions.assertEquals("", resultado.getResponse().getContentAsString());
+        Assertions.assertEquals(1, contador.getSentencias());
+
+        // Una nota nueva del estudiante cambia el ETag
+        ejecutar(post("/api/calificaciones/crear").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"estudianteId\":" + idEstudiante + ",\"materiaId\":" + datos.idMateria(4) +
+                        ",\"nota\":3.5,\"tipoEvaluacion\":\"Quiz\"}"), tokenProfesor);
+        resultado = ejecutar(get("/api/calificaciones/mis-calificaciones").header(HttpHeaders.IF_NONE_MATCH, etag),
+                tokenEstudiante);
+        Assertions.assertEquals(200, resultado.getResponse().getStatus());
+        Assertions.assertNotEquals(etag, resultado.getResponse().getHeader(HttpHeaders.ETAG));
+    }
+
+    @Test
+    void selloYFilasSeLeenEnUnaSolaTransaccion() throws Exception {
+        cargarConUnaConexion("/api/calificaciones/mis-calificaciones", tokenEstudiante);
+        cargarConUnaConexion("/api/calificaciones/estudiante/" + idEstudiante, tokenProfesor);
+        cargarConUnaConexion("/api/materias", tokenAdmin);
+        cargarConUnaConexion("/api/estudiantes/profesores", tokenAdmin);
+    }
+
+    private void cargarConUnaConexion(String url, String token) throws Exception {
+        ContadorSentenciasDataSource contador = contador();
+        contador.reiniciar();
+        MvcResult resultado = ejecutar(get(url).header(HttpHeaders.IF_NONE_MATCH, "\"otra-version\""), token);
+        Assertions.assertEquals(200, resultado.getResponse().getStatus(), url);
+        Assertions.assertEquals(1, resultado.getResponse().getHeaders(HttpHeaders.ETAG).size(), url);
+        Assertions.assertEquals(1, contador.getConexiones(), url);
+    }
+}
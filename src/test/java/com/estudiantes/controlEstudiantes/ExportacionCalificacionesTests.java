@@ -0,0 +1,107 @@
+package com.estudiantes.controlEstudiantes;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import com.estudiantes.controlEstudiantes.controller.CalificacionController;
+import com.estudiantes.controlEstudiantes.exception.GlobalExceptionHandler;
+import com.estudiantes.controlEstudiantes.service.ExportacionCalificacionesService;
+
+/**
+ * Exportación a XLSX con más filas que las que entran en una hoja (el límite se reduce para la prueba):
+ * cada hoja repite el encabezado y no se pierde ninguna fila. Un formato desconocido es un 400.
+ */
+class ExportacionCalificacionesTests {
+
+    @Test
+    void xlsxContinuaEnOtraHojaAlLlenarseLaAnterior() throws Exception {
+        ExportacionCalificacionesService servicio = new ExportacionCalificacionesService();
+        ReflectionTestUtils.setField(servicio, "jdbcTemplate", new ConsultaSimulada(25));
+        ReflectionTestUtils.setField(servicio, "filasPorHojaXlsx", 10);
+
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+        long total = servicio.exportarXlsx(salida, null, null, null, null, null);
+        Assertions.assertEquals(25, total);
+
+        try (XSSFWorkbook libro = new XSSFWorkbook(new ByteArrayInputStream(salida.toByteArray()))) {
+            Assertions.assertEquals(3, libro.getNumberOfSheets());
+            Assertions.assertEquals("Calificaciones", libro.getSheetName(0));
+            Assertions.assertEquals("Calificaciones 2", libro.getSheetName(1));
+            Assertions.assertEquals("Calificaciones 3", libro.getSheetName(2));
+
+            long id = 1;
+            int[] filasPorHoja = {10, 10, 5};
+            for (int h = 0; h < filasPorHoja.length; h++) {
+                Sheet hoja = libro.getSheetAt(h);
+                Assertions.assertEquals("id", hoja.getRow(0).getCell(0).getStringCellValue());
+                Assertions.assertEquals(filasPorHoja[h], hoja.getLastRowNum());
+                for (int f = 1; f <= filasPorHoja[h]; f++) {
+                    Assertions.assertEquals(id++, (long) hoja.getRow(f).getCell(0).getNumericCellValue());
+                }
+            }
+        }
+    }
+
+    @Test
+    void formatoDesconocidoRespondeBadRequest() throws Exception {
+        ExportacionCalificacionesService servicio = Mockito.mock(ExportacionCalificacionesService.class);
+        CalificacionController controlador = new CalificacionController();
+        ReflectionTestUtils.setField(controlador, "exportacionCalificacionesService", servicio);
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(controlador)
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+
+        MvcResult resultado = mockMvc.perform(get("/api/calificaciones/exportar").param("formato", "pdf")).andReturn();
+
+        Assertions.assertEquals(400, resultado.getResponse().getStatus());
+        Assertions.assertTrue(resultado.getResponse().getContentAsString().contains("Formato no admitido: pdf"));
+        Mockito.verifyNoInteractions(servicio);
+    }
+
+    // Entrega las filas con ids 1..n al manejador, como lo haría el cursor sobre la consulta real
+    private static final class ConsultaSimulada extends JdbcTemplate {
+
+        private final int filas;
+
+        private ConsultaSimulada(int filas) {
+            this.filas = filas;
+        }
+
+        @Override
+        public void query(String sql, RowCallbackHandler manejador, Object... parametros) throws DataAccessException {
+            try {
+                ResultSet rs = Mockito.mock(ResultSet.class);
+                Mockito.when(rs.getString(ArgumentMatchers.anyInt())).thenReturn("valor");
+                Mockito.when(rs.getBigDecimal(9)).thenReturn(new BigDecimal("4.5"));
+                Mockito.when(rs.getTimestamp(12)).thenReturn(Timestamp.valueOf(LocalDateTime.of(2024, 3, 1, 10, 0)));
+                for (long id = 1; id <= filas; id++) {
+                    Mockito.when(rs.getLong(1)).thenReturn(id);
+                    manejador.processRow(rs);
+                }
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
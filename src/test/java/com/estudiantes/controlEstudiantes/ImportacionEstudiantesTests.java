@@ -0,0 +1,136 @@
+package com.estudiantes.controlEstudiantes;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.estudiantes.controlEstudiantes.dto.ImportacionEstudiantesResponseDTO;
+import com.estudiantes.controlEstudiantes.entity.Estudiante;
+import com.estudiantes.controlEstudiantes.repository.EstudianteRepository;
+import com.estudiantes.controlEstudiantes.service.ImportacionEstudiantesService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validation;
+
+/**
+ * Reporte por fila de la importación: cada rechazo lleva su línea, su email y su motivo, en orden de
+ * línea, y un lote que no se pudo guardar no deja sus emails ni cédulas como "repetidos" para los
+ * lotes siguientes. El repositorio es un doble; la transacción, un administrador sin base.
+ */
+class ImportacionEstudiantesTests {
+
+    private static final String ENCABEZADO = "nombre,apellido,email,cedula,carrera,semestre,fechaNacimiento,password\n";
+
+    // Tamaño de lote del servicio: las filas de 1 a 500 forman el primero
+    private static final int TAMANO_LOTE = 500;
+
+    private EstudianteRepository estudianteRepository;
+    private ImportacionEstudiantesService servicio;
+
+    @BeforeEach
+    void crear() {
+        estudianteRepository = Mockito.mock(EstudianteRepository.class);
+        Mockito.when(estudianteRepository.findEmailsExistentes(ArgumentMatchers.any())).thenReturn(List.of());
+        Mockito.when(estudianteRepository.findCedulasExistentes(ArgumentMatchers.any())).thenReturn(List.of());
+
+        servicio = new ImportacionEstudiantesService();
+        ReflectionTestUtils.setField(servicio, "estudianteRepository", estudianteRepository);
+        // Costo mínimo de BCrypt: la prueba no mide el cifrado
+        ReflectionTestUtils.setField(servicio, "passwordEncoder", new BCryptPasswordEncoder(4));
+        ReflectionTestUtils.setField(servicio, "validator", Validation.buildDefaultValidatorFactory().getValidator());
+        ReflectionTestUtils.setField(servicio, "objectMapper", new ObjectMapper().findAndRegisterModules());
+        ReflectionTestUtils.setField(servicio, "transactionManager", Mockito.mock(PlatformTransactionManager.class));
+        ReflectionTestUtils.setField(servicio, "entityManager", Mockito.mock(EntityManager.class));
+        ReflectionTestUtils.setField(servicio, "hilosBcrypt", 2);
+        servicio.init();
+    }
+
+    @AfterEach
+    void cerrar() {
+        servicio.cerrar();
+    }
+
+    @Test
+    void cadaRechazoInformaSuLineaYMotivo() {
+        Mockito.when(estudianteRepository.findEmailsExistentes(ArgumentMatchers.any())).thenReturn(List.of("existe@test.com"));
+        Mockito.when(estudianteRepository.findCedulasExistentes(ArgumentMatchers.any())).thenReturn(List.of("99999999"));
+
+        ImportacionEstudiantesResponseDTO reporte = servicio.importarCsv(entrada(ENCABEZADO +
+                fila(1) +
+                "Ana,Pérez,ana@test.com,11111111,Sistemas,tercero,2001-05-20,secreto\n" +
+                "Ana,Pérez,ana@test.com,11111112,Sistemas,13,2001-05-20,secreto\n" +
+                fila(1).replace("11", "22") +
+                "Eva,Ruiz,existe@test.com,33333333,Sistemas,1,2001-05-20,secreto\n" +
+                "Sol,Díaz,sol@test.com,99999999,Sistemas,1,2001-05-20,secreto\n" +
+                fila(2)));
+
+        Assertions.assertEquals(7, reporte.getProcesadas());
+        Assertions.assertEquals(2, reporte.getImportadas());
+        Assertions.assertEquals(5, reporte.getRechazadas());
+        Assertions.assertFalse(reporte.getErroresTruncados());
+
+        List<ImportacionEstudiantesResponseDTO.ErrorFila> errores = reporte.getErrores();
+        Assertions.assertEquals(List.of(3, 4, 5, 6, 7),
+                errores.stream().map(ImportacionEstudiantesResponseDTO.ErrorFila::getLinea).collect(Collectors.toList()));
+        Assertions.assertEquals("El semestre debe ser un número entero", errores.get(0).getError());
+        Assertions.assertNull(errores.get(0).getEmail());
+        Assertions.assertEquals("El semestre debe ser máximo 12", errores.get(1).getError());
+        Assertions.assertEquals("ana@test.com", errores.get(1).getEmail());
+        Assertions.assertEquals("El email está repetido en el archivo: estudiante1@test.com", errores.get(2).getError());
+        Assertions.assertEquals("Ya existe un estudiante con el email: existe@test.com", errores.get(3).getError());
+        Assertions.assertEquals("Ya existe un estudiante con la cédula: 99999999", errores.get(4).getError());
+    }
+
+    @Test
+    void unLoteQueNoSeGuardaNoMarcaSusFilasComoRepetidas() {
+        AtomicInteger guardados = new AtomicInteger();
+        Mockito.when(estudianteRepository.saveAll(ArgumentMatchers.<Collection<Estudiante>>any()))
+                .thenAnswer(invocacion -> {
+                    if (guardados.incrementAndGet() == 1) {
+                        throw new DataIntegrityViolationException("restricción violada");
+                    }
+                    return invocacion.getArgument(0);
+                });
+
+        // El primer lote falla al guardarse; el segundo repite uno de sus estudiantes
+        StringBuilder csv = new StringBuilder(ENCABEZADO);
+        for (int i = 1; i <= TAMANO_LOTE; i++) {
+            csv.append(fila(i));
+        }
+        csv.append(fila(1)).append(fila(TAMANO_LOTE + 1));
+
+        ImportacionEstudiantesResponseDTO reporte = servicio.importarCsv(entrada(csv.toString()));
+
+        Assertions.assertEquals(TAMANO_LOTE + 2, reporte.getProcesadas());
+        Assertions.assertEquals(2, reporte.getImportadas());
+        Assertions.assertEquals(TAMANO_LOTE, reporte.getRechazadas());
+        Assertions.assertTrue(reporte.getErrores().stream()
+                .allMatch(error -> error.getError().startsWith("No se pudo guardar el lote: ")));
+        Assertions.assertEquals(2, reporte.getErrores().get(0).getLinea());
+    }
+
+    // Estudiante válido con email y cédula propios del número dado
+    private static String fila(int numero) {
+        return "Nombre,Apellido,estudiante" + numero + "@test.com," + (11_000_000 + numero) +
+                ",Sistemas,1,2001-05-20,secreto\n";
+    }
+
+    private static ByteArrayInputStream entrada(String contenido) {
+        return new ByteArrayInputStream(contenido.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,66 @@
+package com.estudiantes.controlEstudiantes;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MvcResult;
+
+import com.estudiantes.controlEstudiantes.soporte.ContadorSentenciasDataSource;
+import com.estudiantes.controlEstudiantes.soporte.PruebaIntegracion;
+
+/**
+ * Límite de intentos de login por email y por IP: pasado el límite responde 429 con Retry-After antes
+ * de consultar la base, y los logins exitosos no gastan el cupo de su IP.
+ */
+class LimiteLoginTests extends PruebaIntegracion {
+
+    @Test
+    void loginConDemasiadosIntentosRespondeTooManyRequestsSinConsultarLaBase() throws Exception {
+        ContadorSentenciasDataSource contador = contador();
+
+        // Por email: agotado desde una IP, también se rechaza desde otra
+        for (int i = 0; i < 5; i++) {
+            Assertions.assertNotEquals(429, intentarLogin("10.0.0.1", "usuario7@test.com", "incorrecta").getResponse().getStatus());
+        }
+        contador.reiniciar();
+        MvcResult rechazado = intentarLogin("10.0.0.2", "USUARIO7@test.com", "incorrecta");
+        Assertions.assertEquals(429, rechazado.getResponse().getStatus());
+        Assertions.assertNotNull(rechazado.getResponse().getHeader(HttpHeaders.RETRY_AFTER));
+        Assertions.assertEquals(0, contador.getSentencias());
+
+        // Por IP: una ráfaga con emails distintos se corta al agotar la cubeta de la IP
+        for (int i = 0; i < 20; i++) {
+            Assertions.assertNotEquals(429,
+                    intentarLogin("10.0.0.3", "inexistente" + i + "@test.com", "incorrecta").getResponse().getStatus());
+        }
+        Assertions.assertEquals(429, intentarLogin("10.0.0.3", "otro@test.com", "incorrecta").getResponse().getStatus());
+        Assertions.assertNotEquals(429, intentarLogin("10.0.0.4", "otro@test.com", "incorrecta").getResponse().getStatus());
+    }
+
+    @Test
+    void losLoginsExitososNoGastanElCupoDeLaIp() throws Exception {
+        // Más inicios de sesión que la capacidad de la IP (20), como muchos usuarios detrás de un NAT
+        for (int i = 0; i < 25; i++) {
+            Assertions.assertEquals(200, intentarLogin("10.0.0.5", "estudiante1@test.com", "123456").getResponse().getStatus());
+        }
+        // El cupo sigue entero para los fallidos
+        for (int i = 0; i < 20; i++) {
+            Assertions.assertNotEquals(429,
+                    intentarLogin("10.0.0.5", "inexistente" + i + "@test.com", "incorrecta").getResponse().getStatus());
+        }
+        Assertions.assertEquals(429, intentarLogin("10.0.0.5", "estudiante1@test.com", "123456").getResponse().getStatus());
+    }
+
+    private MvcResult intentarLogin(String ip, String email, String password) throws Exception {
+        return mockMvc.perform(post("/api/auth/login").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"email\":\"" + email + "\",\"password\":\"" + password + "\"}")
+                        .with(peticion -> {
+                            peticion.setRemoteAddr(ip);
+                            return peticion;
+                        }))
+                .andReturn();
+    }
+}
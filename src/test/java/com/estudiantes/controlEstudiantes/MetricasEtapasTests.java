@@ -0,0 +1,54 @@
+package com.estudiantes.controlEstudiantes;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.web.servlet.MvcResult;
+
+import com.estudiantes.controlEstudiantes.service.CalificacionService;
+import com.estudiantes.controlEstudiantes.soporte.PruebaIntegracion;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Una petición autenticada publica el tiempo de cada etapa: validación del token, carga del usuario,
+ * servicio y repositorio, además de la espera y el cálculo de BCrypt de los inicios de sesión.
+ */
+class MetricasEtapasTests extends PruebaIntegracion {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void cadaEtapaDeUnaPeticionPublicaSuTiempo() throws Exception {
+        consultarCalificaciones();
+
+        Timer validar = meterRegistry.find("autenticacion.jwt").tags("etapa", "validar-token", "exception", "none").timer();
+        Assertions.assertNotNull(validar);
+        Assertions.assertNotNull(meterRegistry.find("autenticacion.jwt").tag("etapa", "cargar-usuario").timer());
+        Timer servicio = meterRegistry.find("servicios")
+                .tags("class", CalificacionService.class.getName(), "method", "obtenerCalificacionesPorEstudianteVersionadas")
+                .timer();
+        Assertions.assertNotNull(servicio);
+        Assertions.assertTrue(servicio.count() > 0);
+        Assertions.assertNotNull(meterRegistry.find("spring.data.repository.invocations")
+                .tags("repository", "CalificacionRepository", "method", "findByEstudianteIdAsDTO").timer());
+        // Los inicios de sesión de la preparación verificaron contraseñas en el pool de BCrypt
+        Assertions.assertTrue(meterRegistry.get("bcrypt.calculo").tag("operacion", "verificar").timer().count() > 0);
+        Assertions.assertTrue(meterRegistry.get("bcrypt.espera").tag("operacion", "verificar").timer().count() > 0);
+
+        // Las peticiones siguientes registran en el mismo timer
+        long antes = validar.count();
+        consultarCalificaciones();
+        Assertions.assertEquals(antes + 1, validar.count());
+        Assertions.assertEquals(1, meterRegistry.find("autenticacion.jwt").tag("etapa", "validar-token").timers().size());
+    }
+
+    private void consultarCalificaciones() throws Exception {
+        MvcResult resultado = ejecutar(get("/api/calificaciones/estudiante/" + idEstudiante), tokenAdmin);
+        Assertions.assertEquals(200, resultado.getResponse().getStatus());
+    }
+}
@@ -0,0 +1,58 @@
+package com.estudiantes.controlEstudiantes;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import com.estudiantes.controlEstudiantes.config.PerfiladorSql;
+import com.estudiantes.controlEstudiantes.soporte.PruebaIntegracion;
+
+/**
+ * El perfilador SQL acumula por forma de consulta y lo publica en /actuator/sqltop, que como el resto de
+ * actuator salvo health queda reservado a los administradores: permite leer las consultas y vaciar cachés.
+ */
+class PerfiladorSqlTests extends PruebaIntegracion {
+
+    @Autowired
+    private PerfiladorSql perfiladorSql;
+
+    @Test
+    void perfiladorAcumulaTiempoYFilasPorFormaDeConsulta() throws Exception {
+        perfiladorSql.reiniciar();
+        for (int i = 0; i < 2; i++) {
+            MvcResult resultado = ejecutar(get("/api/calificaciones/estudiante/" + idEstudiante), tokenAdmin);
+            Assertions.assertEquals(200, resultado.getResponse().getStatus());
+        }
+        long calificaciones = jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM calificaciones WHERE estudiante_id = ?", Long.class, idEstudiante);
+
+        List<PerfiladorSql.ResumenConsulta> consultas = perfiladorSql.obtenerMasCostosas(Integer.MAX_VALUE);
+        Assertions.assertTrue(consultas.stream().anyMatch(consulta -> consulta.getEjecuciones() == 2
+                && consulta.getFilas() == 2 * calificaciones && consulta.getTiempoTotalMs() > 0), consultas.toString());
+        for (int i = 1; i < consultas.size(); i++) {
+            Assertions.assertTrue(consultas.get(i - 1).getTiempoTotalMs() >= consultas.get(i).getTiempoTotalMs());
+        }
+    }
+
+    @Test
+    void actuatorSoloParaAdministradoresSalvoHealth() throws Exception {
+        // Una petición nueva por intento: ejecutar agrega el encabezado Authorization al builder
+        List<Supplier<MockHttpServletRequestBuilder>> reservados = List.of(() -> get("/actuator/sqltop"),
+                () -> delete("/actuator/sqltop"), () -> get("/actuator/caches"), () -> delete("/actuator/caches"));
+        for (Supplier<MockHttpServletRequestBuilder> peticion : reservados) {
+            Assertions.assertEquals(401, ejecutar(peticion.get(), null).getResponse().getStatus());
+            Assertions.assertEquals(403, ejecutar(peticion.get(), tokenProfesor).getResponse().getStatus());
+            int estado = ejecutar(peticion.get(), tokenAdmin).getResponse().getStatus();
+            Assertions.assertTrue(estado == 200 || estado == 204, "estado " + estado);
+        }
+        Assertions.assertEquals(200, ejecutar(get("/actuator/health"), null).getResponse().getStatus());
+    }
+}
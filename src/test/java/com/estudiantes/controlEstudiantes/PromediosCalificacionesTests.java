@@ -0,0 +1,136 @@
+package com.estudiantes.controlEstudiantes;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import com.estudiantes.controlEstudiantes.repository.CalificacionRepository;
+import com.estudiantes.controlEstudiantes.service.PromediosCalificaciones;
+
+/**
+ * Promedios en memoria frente a escrituras concurrentes con la lectura de la tabla. El repositorio es
+ * un doble que, mientras "lee", confirma una nota nueva: sin transacción activa el cambio se aplica en
+ * ese momento, igual que el afterCommit de una escritura real que termina durante la reconstrucción.
+ */
+class PromediosCalificacionesTests {
+
+    private static final Long ESTUDIANTE = 1L;
+    private static final Long MATERIA = 10L;
+
+    private CalificacionRepository calificacionRepository;
+    private PromediosCalificaciones promedios;
+
+    @BeforeEach
+    void crear() {
+        calificacionRepository = Mockito.mock(CalificacionRepository.class);
+        promedios = new PromediosCalificaciones();
+        ReflectionTestUtils.setField(promedios, "calificacionRepository", calificacionRepository);
+    }
+
+    @Test
+    void reconstruirReintentaSiUnaEscrituraConfirmaDuranteLaLectura() {
+        AtomicInteger lecturas = new AtomicInteger();
+        Mockito.when(calificacionRepository.sumarNotasPorEstudianteYMateria()).thenAnswer(invocacion -> {
+            if (lecturas.incrementAndGet() == 1) {
+                // La lectura ya tomó su foto de la tabla cuando confirma el 5.0: el cambio se pierde al reemplazar
+                promedios.registrarAlta(ESTUDIANTE, MATERIA, new BigDecimal("5.0"));
+                return filas("3.0", 1);
+            }
+            return filas("8.0", 2);
+        });
+
+        promedios.reconstruir();
+
+        Assertions.assertEquals(2, lecturas.get());
+        Assertions.assertTrue(promedios.estaListo());
+        Assertions.assertEquals(0, new BigDecimal("4.0").compareTo(promedios.promedioEstudianteEnMateria(ESTUDIANTE, MATERIA)));
+        Assertions.assertEquals(0, new BigDecimal("4.0").compareTo(promedios.promedioEstudiante(ESTUDIANTE)));
+        Assertions.assertEquals(0, new BigDecimal("4.0").compareTo(promedios.promedioMateria(MATERIA)));
+    }
+
+    @Test
+    void siCadaIntentoChocaConUnaEscrituraNoSeInstalaYLaVerificacionCorrige() {
+        // Cada lectura ve las notas confirmadas antes de empezar; durante ella confirma otro 5.0
+        AtomicInteger notasConfirmadas = new AtomicInteger(1);
+        AtomicInteger lecturas = new AtomicInteger();
+        Mockito.when(calificacionRepository.sumarNotasPorEstudianteYMateria()).thenAnswer(invocacion -> {
+            int visibles = notasConfirmadas.get();
+            if (lecturas.incrementAndGet() <= 3) {
+                notasConfirmadas.incrementAndGet();
+                promedios.registrarAlta(ESTUDIANTE, MATERIA, new BigDecimal("5.0"));
+            }
+            return filas(String.valueOf(3.0 + 5.0 * (visibles - 1)), visibles);
+        });
+
+        promedios.reconstruir();
+        Assertions.assertEquals(3, lecturas.get());
+        Assertions.assertFalse(promedios.estaListo());
+
+        // Tabla: 3.0 y tres 5.0. La verificación lee sin escrituras, encuentra la diferencia y la instala
+        promedios.verificar();
+        Assertions.assertEquals(4, lecturas.get());
+        Assertions.assertTrue(promedios.estaListo());
+        Assertions.assertEquals(0, new BigDecimal("4.5").compareTo(promedios.promedioEstudianteEnMateria(ESTUDIANTE, MATERIA)));
+    }
+
+    @Test
+    void unaEscrituraConfirmadaAntesDeLaLecturaNoSeCuentaDosVeces() {
+        Mockito.when(calificacionRepository.sumarNotasPorEstudianteYMateria()).thenReturn(filas("3.0", 1));
+        promedios.reconstruir();
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            promedios.registrarAlta(ESTUDIANTE, MATERIA, new BigDecimal("5.0"));
+            // La transacción ya confirmó cuando se lee la tabla, pero su afterCommit todavía no corrió
+            Mockito.when(calificacionRepository.sumarNotasPorEstudianteYMateria()).thenReturn(filas("8.0", 2));
+            promedios.reconstruir();
+            promedios.verificar();
+            Mockito.verify(calificacionRepository, Mockito.times(5)).sumarNotasPorEstudianteYMateria();
+            Assertions.assertEquals(0, new BigDecimal("3.0").compareTo(promedios.promedioMateria(MATERIA)));
+
+            TransactionSynchronizationUtils.triggerAfterCommit();
+            TransactionSynchronizationUtils.triggerAfterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        Assertions.assertEquals(0, new BigDecimal("4.0").compareTo(promedios.promedioMateria(MATERIA)));
+        promedios.verificar();
+        Assertions.assertEquals(0, new BigDecimal("4.0").compareTo(promedios.promedioMateria(MATERIA)));
+    }
+
+    @Test
+    void cambiosYBajasSeAplicanSobreLosAgregados() {
+        Mockito.when(calificacionRepository.sumarNotasPorEstudianteYMateria()).thenReturn(filas("7.0", 2));
+        promedios.reconstruir();
+        Assertions.assertEquals(0, new BigDecimal("3.5").compareTo(promedios.promedioMateria(MATERIA)));
+
+        promedios.registrarCambio(ESTUDIANTE, MATERIA, new BigDecimal("2.0"), new BigDecimal("4.0"));
+        Assertions.assertEquals(0, new BigDecimal("4.5").compareTo(promedios.promedioMateria(MATERIA)));
+
+        promedios.registrarBaja(ESTUDIANTE, MATERIA, new BigDecimal("4.0"));
+        promedios.registrarBaja(ESTUDIANTE, MATERIA, new BigDecimal("5.0"));
+        Assertions.assertEquals(BigDecimal.ZERO, promedios.promedioEstudiante(ESTUDIANTE));
+
+        // Sin notas en la tabla tampoco: la verificación no encuentra diferencias que corregir
+        Mockito.when(calificacionRepository.sumarNotasPorEstudianteYMateria()).thenReturn(List.of());
+        promedios.verificar();
+        Mockito.verify(calificacionRepository, Mockito.times(2)).sumarNotasPorEstudianteYMateria();
+    }
+
+    private static List<Object[]> filas(String suma, long cantidad) {
+        List<Object[]> filas = new ArrayList<>();
+        filas.add(new Object[] {ESTUDIANTE, MATERIA, new BigDecimal(suma), cantidad});
+        return filas;
+    }
+}
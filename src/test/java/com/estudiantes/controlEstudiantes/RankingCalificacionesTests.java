@@ -0,0 +1,55 @@
+package com.estudiantes.controlEstudiantes;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.servlet.MvcResult;
+
+import com.estudiantes.controlEstudiantes.soporte.ContadorSentenciasDataSource;
+import com.estudiantes.controlEstudiantes.soporte.PruebaIntegracion;
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * El ranking del período en memoria contra la consulta global sobre la misma base: como todos los datos
+ * de la prueba son del período en curso, ambos deben coincidir también después de cambiar notas.
+ */
+class RankingCalificacionesTests extends PruebaIntegracion {
+
+    private static final String GLOBAL = "/api/calificaciones/ranking/mejores";
+    private static final String PERIODO = "/api/calificaciones/ranking/mejores/periodo-actual";
+
+    @Test
+    void rankingDelPeriodoEnMemoriaCoincideConLaBase() throws Exception {
+        Assertions.assertEquals(idsRanking(GLOBAL), idsRanking(PERIODO));
+
+        // Una nota que sube entra al montículo sin reconstruirlo
+        long calificacion = jdbcTemplate.queryForObject(
+                "SELECT min(id) FROM calificaciones WHERE profesor_id = ? AND nota < 5.0", Long.class, idProfesor);
+        actualizarNota(calificacion, "5.0");
+        ContadorSentenciasDataSource contador = contador();
+        contador.reiniciar();
+        List<Long> enMemoria = idsRanking(PERIODO);
+        Assertions.assertEquals(0, contador.getSentencias());
+        Assertions.assertTrue(enMemoria.contains(calificacion));
+        Assertions.assertEquals(idsRanking(GLOBAL), enMemoria);
+
+        // Si baja estando dentro, su reemplazo puede no estar en memoria: se reconstruye desde la base
+        actualizarNota(calificacion, "1.0");
+        enMemoria = idsRanking(PERIODO);
+        Assertions.assertFalse(enMemoria.contains(calificacion));
+        Assertions.assertEquals(idsRanking(GLOBAL), enMemoria);
+    }
+
+    private List<Long> idsRanking(String url) throws Exception {
+        MvcResult resultado = ejecutar(get(url).param("limite", "100"), tokenAdmin);
+        List<Long> ids = new ArrayList<>();
+        for (JsonNode calificacion : objectMapper.readTree(resultado.getResponse().getContentAsString())) {
+            ids.add(calificacion.get("id").asLong());
+        }
+        return ids;
+    }
+}
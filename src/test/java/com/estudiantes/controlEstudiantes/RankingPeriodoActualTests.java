@@ -0,0 +1,126 @@
+package com.estudiantes.controlEstudiantes;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.estudiantes.controlEstudiantes.dto.CalificacionResponseDTO;
+import com.estudiantes.controlEstudiantes.repository.CalificacionRepository;
+import com.estudiantes.controlEstudiantes.service.RankingPeriodoActual;
+
+/**
+ * Montículo acotado del ranking del período sin base: se llena desde el repositorio, admite una nota
+ * que supera a la peor guardada desplazándola, descarta las que no, e invalida cuando sale una guardada
+ * estando lleno. Sin transacción activa, registrar aplica el cambio de inmediato.
+ */
+class RankingPeriodoActualTests {
+
+    private static final int CAPACIDAD = RankingPeriodoActual.CAPACIDAD;
+
+    private CalificacionRepository calificacionRepository;
+    private RankingPeriodoActual ranking;
+    private final LocalDateTime ahora = LocalDateTime.now();
+
+    @BeforeEach
+    void crear() {
+        calificacionRepository = Mockito.mock(CalificacionRepository.class);
+        ranking = new RankingPeriodoActual();
+        ReflectionTestUtils.setField(ranking, "calificacionRepository", calificacionRepository);
+    }
+
+    @Test
+    void unaNotaMejorQueLaPeorDesplazaALaPeorSinConsultarLaBase() {
+        // Ids 1..100 con notas de 4.9 a 3.0, la peor es la 100
+        lleno();
+        Assertions.assertEquals(1L, ranking.obtenerMejores(1).get(0).getId());
+
+        ranking.registrar(calificacion(500L, "4.5", ahora));
+        List<Long> ids = ids(ranking.obtenerMejores(CAPACIDAD));
+        Assertions.assertEquals(CAPACIDAD, ids.size());
+        Assertions.assertTrue(ids.contains(500L));
+        Assertions.assertFalse(ids.contains(100L));
+
+        // No supera a la nueva peor (id 99): queda afuera
+        ranking.registrar(calificacion(501L, "1.0", ahora));
+        Assertions.assertFalse(ids(ranking.obtenerMejores(CAPACIDAD)).contains(501L));
+
+        Mockito.verify(calificacionRepository, Mockito.times(1))
+                .findMejoresDesdeAsDTO(ArgumentMatchers.any(), ArgumentMatchers.any());
+    }
+
+    @Test
+    void ordenPorNotaYAIgualNotaPorAntiguedad() {
+        Mockito.when(calificacionRepository.findMejoresDesdeAsDTO(ArgumentMatchers.any(), ArgumentMatchers.any()))
+                .thenReturn(new ArrayList<>(List.of(calificacion(3L, "4.0", ahora))));
+        ranking.obtenerMejores(CAPACIDAD);
+
+        ranking.registrar(calificacion(2L, "4.0", ahora));
+        ranking.registrar(calificacion(4L, "5.0", ahora));
+        ranking.registrar(calificacion(1L, "2.0", ahora));
+        Assertions.assertEquals(List.of(4L, 2L, 3L, 1L), ids(ranking.obtenerMejores(CAPACIDAD)));
+        Assertions.assertEquals(List.of(4L, 2L), ids(ranking.obtenerMejores(2)));
+
+        // Con lugar libre una baja o un cambio se aplican sobre el montículo
+        ranking.registrarBaja(2L);
+        ranking.registrar(calificacion(1L, "4.5", ahora));
+        Assertions.assertEquals(List.of(4L, 1L, 3L), ids(ranking.obtenerMejores(CAPACIDAD)));
+    }
+
+    @Test
+    void unaGuardadaQueSaleEstandoLlenoObligaAReconstruir() {
+        lleno();
+        ranking.obtenerMejores(CAPACIDAD);
+
+        // Baja la nota de la mejor: su reemplazo puede ser una que no está en memoria
+        ranking.registrar(calificacion(1L, "0.5", ahora));
+        ranking.obtenerMejores(CAPACIDAD);
+        Mockito.verify(calificacionRepository, Mockito.times(2))
+                .findMejoresDesdeAsDTO(ArgumentMatchers.any(), ArgumentMatchers.any());
+
+        // Sube la nota de una guardada: no sale, se reordena sin reconstruir
+        ranking.registrar(calificacion(50L, "5.0", ahora));
+        Assertions.assertEquals(50L, ranking.obtenerMejores(1).get(0).getId());
+        Mockito.verify(calificacionRepository, Mockito.times(2))
+                .findMejoresDesdeAsDTO(ArgumentMatchers.any(), ArgumentMatchers.any());
+    }
+
+    @Test
+    void lasCalificacionesDeOtroPeriodoNoEntran() {
+        Mockito.when(calificacionRepository.findMejoresDesdeAsDTO(ArgumentMatchers.any(), ArgumentMatchers.any()))
+                .thenReturn(new ArrayList<>());
+        ranking.obtenerMejores(CAPACIDAD);
+
+        LocalDateTime periodoAnterior = ahora.minusMonths(7);
+        ranking.registrar(calificacion(1L, "5.0", periodoAnterior));
+        Assertions.assertEquals(List.of(), ranking.obtenerMejores(CAPACIDAD));
+    }
+
+    // El período con CAPACIDAD calificaciones, ordenadas como las devuelve la consulta
+    private void lleno() {
+        List<CalificacionResponseDTO> filas = new ArrayList<>();
+        for (int i = 1; i <= CAPACIDAD; i++) {
+            BigDecimal nota = new BigDecimal("4.9").subtract(BigDecimal.valueOf((i - 1) * 19L / (CAPACIDAD - 1), 1));
+            filas.add(calificacion((long) i, nota.toPlainString(), ahora));
+        }
+        Mockito.when(calificacionRepository.findMejoresDesdeAsDTO(ArgumentMatchers.any(), ArgumentMatchers.any()))
+                .thenReturn(filas);
+    }
+
+    private static CalificacionResponseDTO calificacion(Long id, String nota, LocalDateTime fecha) {
+        return new CalificacionResponseDTO(id, 1L, "Ana Pérez", "12345678", 10L, "Física", "FIS1", 99L,
+                "Profesor Uno", new BigDecimal(nota), "Parcial", null, fecha, null);
+    }
+
+    private static List<Long> ids(List<CalificacionResponseDTO> calificaciones) {
+        return calificaciones.stream().map(CalificacionResponseDTO::getId).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,121 @@
+package com.estudiantes.controlEstudiantes;
+
+import java.sql.Connection;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import com.estudiantes.controlEstudiantes.config.ReplicasLecturaDataSource;
+import com.estudiantes.controlEstudiantes.exception.ErrorResponse;
+import com.estudiantes.controlEstudiantes.exception.GlobalExceptionHandler;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+/**
+ * Verifica el enrutamiento de DataSourceConfig con dos PostgreSQL embebidos, uno como primaria y otro
+ * como réplica: cada conexión se identifica por el puerto del servidor que la atiende. Un pool agotado
+ * detrás del proxy responde 503 como sin réplicas.
+ */
+class ReplicasLecturaDataSourceTests {
+
+    private static EmbeddedPostgres primaria;
+    private static EmbeddedPostgres replica;
+    private static HikariDataSource poolPrimaria;
+
+    @BeforeAll
+    static void iniciarBasesDeDatos() throws Exception {
+        primaria = EmbeddedPostgres.start();
+        replica = EmbeddedPostgres.start();
+        poolPrimaria = crearPool(primaria.getJdbcUrl("postgres", "postgres"), false);
+    }
+
+    @AfterAll
+    static void detenerBasesDeDatos() throws Exception {
+        poolPrimaria.close();
+        replica.close();
+        primaria.close();
+    }
+
+    @Test
+    void transaccionesReadOnlyVanALaReplica() throws Exception {
+        try (ReplicasLecturaDataSource replicas = new ReplicasLecturaDataSource(
+                List.of(crearPool(replica.getJdbcUrl("postgres", "postgres"), true)), poolPrimaria, 30_000)) {
+            LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(poolPrimaria);
+            dataSource.setReadOnlyDataSource(replicas);
+
+            Assertions.assertEquals(replica.getPort(), puertoDelServidor(dataSource, true));
+            Assertions.assertEquals(primaria.getPort(), puertoDelServidor(dataSource, false));
+        }
+    }
+
+    @Test
+    void sinReplicaDisponibleSeLeeDeLaPrimaria() throws Exception {
+        EmbeddedPostgres caida = EmbeddedPostgres.start();
+        String url = caida.getJdbcUrl("postgres", "postgres");
+        caida.close();
+
+        try (ReplicasLecturaDataSource replicas = new ReplicasLecturaDataSource(
+                List.of(crearPool(url, true)), poolPrimaria, 30_000)) {
+            LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(poolPrimaria);
+            dataSource.setReadOnlyDataSource(replicas);
+
+            Assertions.assertEquals(primaria.getPort(), puertoDelServidor(dataSource, true));
+            Assertions.assertEquals(0, replicas.getReplicasDisponibles());
+        }
+    }
+
+    @Test
+    void poolAgotadoDetrasDelProxyRespondeServicioNoDisponible() throws Exception {
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl(primaria.getJdbcUrl("postgres", "postgres"));
+        config.setMaximumPoolSize(1);
+        config.setConnectionTimeout(250);
+        try (HikariDataSource pool = new HikariDataSource(config)) {
+            LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(pool);
+            // El proxy lee una vez las propiedades por defecto de las conexiones; después ya no pide una al empezar
+            Assertions.assertEquals(primaria.getPort(), puertoDelServidor(dataSource, false));
+            Connection ocupada = pool.getConnection();
+
+            // La transacción empieza sin conexión: el timeout de Hikari llega en la primera sentencia
+            DataAccessException error = Assertions.assertThrows(DataAccessException.class,
+                    () -> puertoDelServidor(dataSource, false));
+
+            ResponseEntity<ErrorResponse> respuesta = new GlobalExceptionHandler()
+                    .handleGlobalException(error, new ServletWebRequest(new MockHttpServletRequest()));
+            Assertions.assertEquals(HttpStatus.SERVICE_UNAVAILABLE, respuesta.getStatusCode());
+            Assertions.assertEquals("1", respuesta.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+            ocupada.close();
+        }
+    }
+
+    private static int puertoDelServidor(LazyConnectionDataSourceProxy dataSource, boolean soloLectura) {
+        TransactionTemplate transaccion = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        transaccion.setReadOnly(soloLectura);
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        return transaccion.execute(estado -> jdbcTemplate.queryForObject("SELECT inet_server_port()", Integer.class));
+    }
+
+    private static HikariDataSource crearPool(String url, boolean soloLectura) {
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl(url);
+        config.setReadOnly(soloLectura);
+        config.setConnectionTimeout(500);
+        config.setInitializationFailTimeout(-1);
+        return new HikariDataSource(config);
+    }
+}
@@ -0,0 +1,54 @@
+package com.estudiantes.controlEstudiantes;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.estudiantes.controlEstudiantes.entity.RolEstudiante;
+import com.estudiantes.controlEstudiantes.security.JwtUtils;
+import com.estudiantes.controlEstudiantes.security.RevocacionTokens;
+import com.estudiantes.controlEstudiantes.security.UserDetailsImpl;
+
+import io.jsonwebtoken.Claims;
+
+/**
+ * Un cambio de contraseña revoca los tokens anteriores, pero no el del login que le sigue en el
+ * mismo segundo: la revocación se compara contra el instante de emisión en milisegundos.
+ */
+class RevocacionTokensTests {
+
+    private static final long USUARIO = 7L;
+
+    @Test
+    void tokenEmitidoJustoDespuesDeRevocarSigueValido() throws Exception {
+        JwtUtils jwtUtils = new JwtUtils();
+        ReflectionTestUtils.setField(jwtUtils, "jwtSecret",
+                "miClaveSecretaMuySegura123456789012345678901234567890AbCdEfGhIjKlMnOpQrStUvWxYz");
+        ReflectionTestUtils.setField(jwtUtils, "jwtExpiration", 3600000L);
+        ReflectionTestUtils.setField(jwtUtils, "cacheMaxEntries", 0);
+        jwtUtils.init();
+        RevocacionTokens revocacion = new RevocacionTokens();
+        ReflectionTestUtils.setField(revocacion, "jwtExpiration", 3600000L);
+
+        Claims anterior = emitir(jwtUtils);
+        Thread.sleep(2);
+        revocacion.revocar(USUARIO);
+        Thread.sleep(2);
+        Claims nuevo = emitir(jwtUtils);
+
+        Assertions.assertTrue(revocacion.estaRevocado(USUARIO, JwtUtils.obtenerEmisionMillis(anterior)));
+        Assertions.assertFalse(revocacion.estaRevocado(USUARIO, JwtUtils.obtenerEmisionMillis(nuevo)));
+        Assertions.assertFalse(revocacion.estaRevocado(USUARIO + 1, JwtUtils.obtenerEmisionMillis(anterior)));
+    }
+
+    private static Claims emitir(JwtUtils jwtUtils) {
+        UserDetailsImpl usuario = new UserDetailsImpl(USUARIO, "estudiante@test.com", null, RolEstudiante.ESTUDIANTE,
+                true, List.of(new SimpleGrantedAuthority("ROLE_ESTUDIANTE")));
+        String token = jwtUtils.generateJwtToken(new UsernamePasswordAuthenticationToken(usuario, null));
+        return jwtUtils.validarYObtenerClaims(token);
+    }
+}
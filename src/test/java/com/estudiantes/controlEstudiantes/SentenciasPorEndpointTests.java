@@ -0,0 +1,191 @@
+package com.estudiantes.controlEstudiantes;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import com.estudiantes.controlEstudiantes.soporte.ContadorSentenciasDataSource;
+import com.estudiantes.controlEstudiantes.soporte.PruebaIntegracion;
+
+/**
+ * Presupuesto de sentencias SQL por endpoint. Cada petición pasa por MockMvc contra un PostgreSQL
+ * embebido con unos 10.000 registros (PruebaIntegracion), y se cuentan las sentencias JDBC que prepara
+ * la aplicación. Un N+1 hace crecer la cuenta con los datos y supera el presupuesto.
+ *
+ * Los casos corren en orden: las escrituras van al final y operan sobre datos creados por los
+ * casos anteriores. Al cambiar una consulta a propósito, se ajusta el presupuesto de su endpoint.
+ */
+class SentenciasPorEndpointTests extends PruebaIntegracion {
+
+    @Test
+    void cadaEndpointRespetaSuPresupuestoDeSentencias() throws Exception {
+        long materia = datos.idMateria(1);
+        long calificacionProfesor = jdbcTemplate.queryForObject(
+                "SELECT min(id) FROM calificaciones WHERE profesor_id = " + idProfesor, Long.class);
+        long estudiante = datos.idEstudiante(1);
+
+        List<Caso> casos = new ArrayList<>();
+        // AuthController y TestController
+        casos.add(new Caso(post("/api/auth/login").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"email\":\"estudiante2@test.com\",\"password\":\"123456\"}"), null, 2));
+        casos.add(new Caso(get("/api/test/health"), null, 0));
+
+        // CalificacionController
+        casos.add(new Caso(get("/api/calificaciones"), tokenAdmin, 1));
+        casos.add(new Caso(get("/api/calificaciones/pagina").param("tamano", "500"), tokenAdmin, 1));
+        casos.add(new Caso(get("/api/calificaciones/stream"), tokenAdmin, 1));
+        casos.add(new Caso(get("/api/calificaciones/exportar").param("formato", "csv"), tokenAdmin, 1));
+        casos.add(new Caso(get("/api/calificaciones/exportar").param("formato", "xlsx")
+                .param("materiaId", String.valueOf(materia)), tokenAdmin, 1));
+        // Los listados con ETag suman la consulta del sello de versión
+        casos.add(new Caso(get("/api/calificaciones/estudiante/" + idEstudiante), tokenEstudiante, 2));
+        casos.add(new Caso(get("/api/calificaciones/materia/" + materia), tokenAdmin, 1));
+        casos.add(new Caso(get("/api/calificaciones/profesor/" + idProfesor), tokenProfesor, 1));
+        casos.add(new Caso(get("/api/calificaciones/estudiante/" + idEstudiante + "/materia/" + materia), tokenEstudiante, 1));
+        casos.add(new Caso(get("/api/calificaciones/promedio/estudiante/" + idEstudiante), tokenEstudiante, 0));
+        casos.add(new Caso(get("/api/calificaciones/promedio/estudiante/" + idEstudiante + "/materia/" + materia),
+                tokenEstudiante, 0));
+        casos.add(new Caso(get("/api/calificaciones/promedio/materia/" + materia), tokenAdmin, 0));
+        casos.add(new Caso(get("/api/calificaciones/mis-calificaciones"), tokenEstudiante, 2));
+        casos.add(new Caso(get("/api/calificaciones/calificaciones-asignadas"), tokenProfesor, 1));
+        casos.add(new Caso(get("/api/calificaciones/ranking/mejores"), tokenAdmin, 1));
+        casos.add(new Caso(get("/api/calificaciones/ranking/mejores/materia/" + materia), tokenAdmin, 1));
+        casos.add(new Caso(get("/api/calificaciones/ranking/mejores/carrera/Carrera1"), tokenAdmin, 1));
+        // Solo consulta la base si el ranking del período en memoria está sin construir
+        casos.add(new Caso(get("/api/calificaciones/ranking/mejores/periodo-actual"), tokenAdmin, 1));
+        casos.add(new Caso(get("/api/calificaciones/ranking/materia/" + materia), tokenAdmin, 1));
+        casos.add(new Caso(get("/api/calificaciones/ranking/materia/" + materia + "/estudiante/" + idEstudiante),
+                tokenEstudiante, 1));
+        // Más la materia, la primera vez que se lee (después sale de la caché de segundo nivel)
+        casos.add(new Caso(get("/api/calificaciones/estadisticas/materia/" + materia), tokenAdmin, 2));
+        // Solo consulta la base si la distribución del período en memoria está sin construir
+        casos.add(new Caso(get("/api/calificaciones/estadisticas/materia/" + materia).param("soloPeriodoActual", "true"),
+                tokenAdmin, 1));
+        casos.add(new Caso(get("/api/calificaciones/" + calificacionProfesor), tokenProfesor, 3));
+
+        // EstudianteController
+        casos.add(new Caso(get("/api/estudiantes"), tokenAdmin, 1));
+        casos.add(new Caso(get("/api/estudiantes/" + estudiante), tokenAdmin, 1));
+        casos.add(new Caso(get("/api/estudiantes/buscar/carrera/Carrera1"), tokenAdmin, 1));
+        casos.add(new Caso(get("/api/estudiantes/buscar/semestre/3"), tokenAdmin, 1));
+        casos.add(new Caso(get("/api/estudiantes/buscar/nombre").param("nombre", "Nombre1"), tokenAdmin, 1));
+        casos.add(new Caso(get("/api/estudiantes/perfil"), tokenEstudiante, 1));
+        casos.add(new Caso(get("/api/estudiantes/profesores"), tokenAdmin, 2));
+        casos.add(new Caso(get("/api/estudiantes/materia/" + materia), tokenProfesor, 2));
+
+        // MateriaController
+        casos.add(new Caso(get("/api/materias"), tokenAdmin, 2));
+        casos.add(new Caso(get("/api/materias/" + materia), tokenAdmin, 1));
+        casos.add(new Caso(get("/api/materias/buscar/carrera/Carrera1"), tokenAdmin, 1));
+        casos.add(new Caso(get("/api/materias/buscar/semestre/2"), tokenAdmin, 1));
+        casos.add(new Caso(get("/api/materias/buscar/profesor/" + idProfesor), tokenAdmin, 1));
+        casos.add(new Caso(get("/api/materias/buscar/nombre").param("nombre", "Materia"), tokenAdmin, 1));
+        casos.add(new Caso(get("/api/materias/buscar/codigo").param("codigo", "PR"), tokenAdmin, 1));
+        casos.add(new Caso(get("/api/materias/mis-materias"), tokenProfesor, 1));
+        casos.add(new Caso(get("/api/materias/autocomplete").param("q", "materia 1"), tokenAdmin, 0));
+        // Segunda lectura del catálogo: el sello y las filas salen de la caché de segundo nivel
+        casos.add(new Caso(get("/api/materias"), tokenAdmin, 0));
+        casos.add(new Caso(get("/api/materias/" + materia), tokenAdmin, 0));
+
+        // DashboardController: perfil y calificaciones; los promedios se calculan sobre esas calificaciones
+        casos.add(new Caso(get("/api/dashboard/estudiante"), tokenEstudiante, 2));
+
+        // Escrituras. Las cargas de 200 filas incluyen un nextval por cada 50 ids (allocationSize)
+        String calificacion = "{\"estudianteId\":" + estudiante + ",\"materiaId\":" + materia + ",\"nota\":4.5," +
+                "\"tipoEvaluacion\":\"Final\"}";
+        casos.add(new Caso(post("/api/calificaciones/crear").contentType(MediaType.APPLICATION_JSON)
+                .content(calificacion), tokenProfesor, 4));
+        casos.add(new Caso(post("/api/calificaciones/lote").contentType(MediaType.APPLICATION_JSON)
+                .content(loteCalificaciones(materia, 200)), tokenProfesor, 8));
+        casos.add(new Caso(put("/api/calificaciones/" + calificacionProfesor).contentType(MediaType.APPLICATION_JSON)
+                .content(calificacion), tokenProfesor, 7));
+        casos.add(new Caso(delete("/api/calificaciones/" + calificacionProfesor), tokenProfesor, 5));
+
+        String nuevaMateria = "{\"nombre\":\"Materia nueva\",\"codigo\":\"NUEVA1\",\"creditos\":3,\"semestre\":2," +
+                "\"carrera\":\"Ingeniería de Sistemas\",\"profesorId\":" + idProfesor + "}";
+        casos.add(new Caso(post("/api/materias/crear").contentType(MediaType.APPLICATION_JSON)
+                .content(nuevaMateria), tokenAdmin, 3));
+        casos.add(new Caso(put("/api/materias/" + materia).contentType(MediaType.APPLICATION_JSON)
+                .content(nuevaMateria.replace("NUEVA1", "PR1")), tokenAdmin, 3));
+        casos.add(new Caso(delete("/api/materias/" + (materia + 1)), tokenAdmin, 2));
+
+        String nuevoEstudiante = "{\"nombre\":\"Nuevo\",\"apellido\":\"Estudiante\",\"email\":\"nuevo@test.com\"," +
+                "\"cedula\":\"99999999\",\"carrera\":\"Ingeniería de Sistemas\",\"semestre\":1," +
+                "\"fechaNacimiento\":\"2001-05-05\",\"password\":\"secreto123\"}";
+        casos.add(new Caso(post("/api/estudiantes/crear").contentType(MediaType.APPLICATION_JSON)
+                .content(nuevoEstudiante), tokenAdmin, 3));
+        casos.add(new Caso(put("/api/estudiantes/" + estudiante).contentType(MediaType.APPLICATION_JSON)
+                .content(nuevoEstudiante.replace("nuevo@test.com", "usuario1@test.com")
+                        .replace("99999999", "10000001")), tokenAdmin, 3));
+        casos.add(new Caso(delete("/api/estudiantes/" + (estudiante + 1)), tokenAdmin, 2));
+        casos.add(new Caso(post("/api/estudiantes/importar").contentType("text/csv")
+                .content(csvEstudiantes(200)), tokenAdmin, 7));
+
+        List<String> fallas = new ArrayList<>();
+        ContadorSentenciasDataSource contador = contador();
+        for (Caso caso : casos) {
+            if (caso.token != null) {
+                caso.peticion.header(HttpHeaders.AUTHORIZATION, "Bearer " + caso.token);
+            }
+            contador.reiniciar();
+            MvcResult resultado = mockMvc.perform(caso.peticion).andReturn();
+            long sentencias = contador.getSentencias();
+
+            String descripcion = resultado.getRequest().getMethod() + " " + resultado.getRequest().getRequestURI();
+            int estado = resultado.getResponse().getStatus();
+            if (estado >= 400) {
+                fallas.add(descripcion + ": estado HTTP " + estado + " " + resultado.getResponse().getContentAsString());
+            } else if (sentencias > caso.presupuesto) {
+                fallas.add(descripcion + ": " + sentencias + " sentencias, presupuesto " + caso.presupuesto);
+            }
+        }
+
+        Assertions.assertTrue(fallas.isEmpty(), () -> String.join("\n", fallas));
+    }
+
+    private String loteCalificaciones(long materia, int cantidad) {
+        StringBuilder json = new StringBuilder("{\"calificaciones\":[");
+        for (int i = 0; i < cantidad; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"estudianteId\":").append(datos.idEstudiante(1 + i % datos.getEstudiantes()))
+                    .append(",\"materiaId\":").append(materia)
+                    .append(",\"nota\":").append((i % 51) / 10.0)
+                    .append(",\"tipoEvaluacion\":\"Quiz\"}");
+        }
+        return json.append("]}").toString();
+    }
+
+    private static String csvEstudiantes(int cantidad) {
+        StringBuilder csv = new StringBuilder("nombre,apellido,email,cedula,carrera,semestre,fechaNacimiento,password\n");
+        for (int i = 0; i < cantidad; i++) {
+            csv.append("Importado,Apellido,importado").append(i).append("@test.com,")
+                    .append(20000000 + i).append(",Ingeniería de Sistemas,1,2001-01-01,secreto123\n");
+        }
+        return csv.toString();
+    }
+
+    private static final class Caso {
+        private final MockHttpServletRequestBuilder peticion;
+        private final String token;
+        private final long presupuesto;
+
+        private Caso(MockHttpServletRequestBuilder peticion, String token, long presupuesto) {
+            this.peticion = peticion;
+            this.token = token;
+            this.presupuesto = presupuesto;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.estudiantes.controlEstudiantes.benchmark;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.estudiantes.controlEstudiantes.dto.MateriaSugerenciaDTO;
+import com.estudiantes.controlEstudiantes.entity.Materia;
+import com.estudiantes.controlEstudiantes.repository.MateriaRepository;
+import com.estudiantes.controlEstudiantes.service.AutocompletadoMaterias;
+
+/**
+ * Compara las sugerencias de /api/materias/autocomplete sobre un catálogo de 5.000 materias activas:
+ * <ul>
+ *   <li>trie: AutocompletadoMaterias.sugerir, que solo recorre el prefijo escrito</li>
+ *   <li>recorridoCompleto: filtrar y ordenar todo el catálogo en memoria en cada tecla, como hace el
+ *       LIKE '%...%' en la base (sin contar el viaje a PostgreSQL)</li>
+ * </ul>
+ *
+ * Ejecutar con: mvn test-compile exec:java -Dexec.classpathScope=test
+ *   -Dexec.mainClass=com.estudiantes.controlEstudiantes.benchmark.AutocompletadoMateriasBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AutocompletadoMateriasBenchmark {
+    
+    private static final int MATERIAS = 5_000;
+    private static final String[] PALABRAS = {
+        "Programación", "Cálculo", "Física", "Química", "Bases", "Datos", "Redes", "Sistemas", "Álgebra",
+        "Estadística", "Economía", "Contabilidad", "Gestión", "Diseño", "Ingeniería", "Análisis"
+    };
+    
+    @Param({"p", "bases de", "calc"})
+    private String texto;
+    
+    private AutocompletadoMaterias autocompletado;
+    private List<Materia> catalogo;
+    
+    @Setup
+    public void setup() {
+        catalogo = new ArrayList<>();
+        for (int i = 1; i <= MATERIAS; i++) {
+            String nombre = PALABRAS[i % PALABRAS.length] + " " + PALABRAS[(i / PALABRAS.length) % PALABRAS.length]
+                    + " " + (i % 7 + 1);
+            Materia materia = new Materia(nombre, "MAT" + i, null, 3, 1 + i % 10, "Ingeniería de Sistemas");
+            materia.setId((long) i);
+            materia.setActiva(true);
+            catalogo.add(materia);
+        }
+        
+        MateriaRepository repositorio = Mockito.mock(MateriaRepository.class);
+        Mockito.when(repositorio.findByActivaTrue()).thenReturn(catalogo);
+        autocompletado = new AutocompletadoMaterias();
+        ReflectionTestUtils.setField(autocompletado, "materiaRepository", repositorio);
+        autocompletado.reconstruir();
+    }
+    
+    @Benchmark
+    public List<MateriaSugerenciaDTO> trie() {
+        return autocompletado.sugerir(texto, 10);
+    }
+    
+    @Benchmark
+    public List<MateriaSugerenciaDTO> recorridoCompleto() {
+        String buscado = normalizar(texto);
+        return catalogo.stream()
+                .filter(materia -> normalizar(materia.getNombre()).contains(buscado)
+                        || normalizar(materia.getCodigo()).contains(buscado))
+                .sorted(Comparator.comparing((Materia materia) -> normalizar(materia.getNombre())))
+                .limit(10)
+                .map(materia -> new MateriaSugerenciaDTO(materia.getId(), materia.getCodigo(), materia.getNombre()))
+                .collect(Collectors.toList());
+    }
+    
+    private static String normalizar(String texto) {
+        return Normalizer.normalize(texto, Normalizer.Form.NFD).replaceAll("\\p{M}+", "").toLowerCase(Locale.ROOT);
+    }
+    
+    public static void main(String[] args) throws RunnerException {
+        Options opciones = new OptionsBuilder()
+                .include(AutocompletadoMateriasBenchmark.class.getSimpleName())
+                .build();
+        new Runner(opciones).run();
+    }
+}
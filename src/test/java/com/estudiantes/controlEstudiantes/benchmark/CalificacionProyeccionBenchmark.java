@@ -0,0 +1,142 @@
+package com.estudiantes.controlEstudiantes.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import javax.sql.DataSource;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.estudiantes.controlEstudiantes.ControlEstudiantesApplication;
+import com.estudiantes.controlEstudiantes.dto.CalificacionResponseDTO;
+import com.estudiantes.controlEstudiantes.entity.Calificacion;
+import com.estudiantes.controlEstudiantes.repository.CalificacionRepository;
+import com.estudiantes.controlEstudiantes.soporte.DatosCalificaciones;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Compara el listado completo de calificaciones sobre 100.000 filas en un PostgreSQL embebido:
+ * <ul>
+ *   <li>entidadesConConversion: ruta anterior, JOIN FETCH de las tres relaciones y conversión a DTO</li>
+ *   <li>proyeccionDTO: findAllAsDTO, que construye los DTO directamente desde las columnas necesarias</li>
+ * </ul>
+ * Ambas corren en una transacción de solo lectura, como en CalificacionService. El main agrega el
+ * perfilador de GC, así el reporte incluye gc.alloc.rate.norm (bytes asignados por operación).
+ *
+ * Ejecutar con: mvn test-compile exec:java -Dexec.classpathScope=test
+ *   -Dexec.mainClass=com.estudiantes.controlEstudiantes.benchmark.CalificacionProyeccionBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class CalificacionProyeccionBenchmark {
+    
+    private static final int ESTUDIANTES = 1_950;
+    private static final int PROFESORES = 50;
+    private static final int MATERIAS = 200;
+    private static final int CALIFICACIONES = 100_000;
+    
+    // Los datos del benchmark usan ids altos para no chocar con los que crea DataLoader
+    private static final long DESPLAZAMIENTO_IDS = 1_000_000;
+    private static final DatosCalificaciones DATOS =
+            new DatosCalificaciones(DESPLAZAMIENTO_IDS, ESTUDIANTES, PROFESORES, MATERIAS, CALIFICACIONES);
+    
+    private EmbeddedPostgres postgres;
+    private ConfigurableApplicationContext contexto;
+    private CalificacionRepository calificacionRepository;
+    private EntityManagerFactory entityManagerFactory;
+    private TransactionTemplate soloLectura;
+    
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        postgres = EmbeddedPostgres.start();
+        contexto = SpringApplication.run(ControlEstudiantesApplication.class,
+                "--spring.datasource.url=" + postgres.getJdbcUrl("postgres", "postgres") + "&reWriteBatchedInserts=true",
+                "--spring.datasource.username=postgres",
+                "--spring.datasource.password=",
+                "--spring.main.web-application-type=none",
+                "--spring.jpa.show-sql=false");
+        
+        calificacionRepository = contexto.getBean(CalificacionRepository.class);
+        entityManagerFactory = contexto.getBean(EntityManagerFactory.class);
+        soloLectura = new TransactionTemplate(contexto.getBean(PlatformTransactionManager.class));
+        soloLectura.setReadOnly(true);
+        
+        DATOS.cargar(new JdbcTemplate(contexto.getBean(DataSource.class)));
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        contexto.close();
+        postgres.close();
+    }
+    
+    @Benchmark
+    public List<CalificacionResponseDTO> entidadesConConversion() {
+        return soloLectura.execute(estado -> {
+            EntityManager entityManager = EntityManagerFactoryUtils.getTransactionalEntityManager(entityManagerFactory);
+            return entityManager.createQuery("SELECT c FROM Calificacion c " +
+                            "LEFT JOIN FETCH c.estudiante " +
+                            "LEFT JOIN FETCH c.materia " +
+                            "LEFT JOIN FETCH c.profesor", Calificacion.class)
+                    .getResultList()
+                    .stream()
+                    .map(CalificacionProyeccionBenchmark::convertir)
+                    .collect(Collectors.toList());
+        });
+    }
+    
+    @Benchmark
+    public List<CalificacionResponseDTO> proyeccionDTO() {
+        return soloLectura.execute(estado -> calificacionRepository.findAllAsDTO());
+    }
+    
+    // Réplica de la conversión que hacía CalificacionService antes de usar la proyección
+    private static CalificacionResponseDTO convertir(Calificacion calificacion) {
+        return new CalificacionResponseDTO(calificacion.getId(),
+                calificacion.getEstudiante().getId(), calificacion.getEstudiante().getNombreCompleto(),
+                calificacion.getEstudiante().getCedula(),
+                calificacion.getMateria().getId(), calificacion.getMateria().getNombre(),
+                calificacion.getMateria().getCodigo(),
+                calificacion.getProfesor().getId(), calificacion.getProfesor().getNombreCompleto(),
+                calificacion.getNota(), calificacion.getTipoEvaluacion(), calificacion.getObservaciones(),
+                calificacion.getFechaCreacion(), calificacion.getFechaActualizacion());
+    }
+    
+    public static void main(String[] args) throws RunnerException {
+        Options opciones = new OptionsBuilder()
+                .include(CalificacionProyeccionBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(opciones).run();
+    }
+}
@@ -0,0 +1,202 @@
+package com.estudiantes.controlEstudiantes.benchmark;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.sql.DataSource;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.estudiantes.controlEstudiantes.ControlEstudiantesApplication;
+import com.estudiantes.controlEstudiantes.soporte.DatosCalificaciones;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+/**
+ * Prueba de carga de los listados de calificaciones con hilos de plataforma y con el perfil
+ * hilos-virtuales. Levanta la aplicación sobre un PostgreSQL embebido con 100.000 calificaciones y
+ * mantiene N clientes concurrentes (2.000 por defecto) pidiendo, al azar, las calificaciones de un
+ * estudiante, las de una materia y una página del listado. Cada cliente envía la siguiente petición
+ * cuando recibe la respuesta anterior.
+ *
+ * Ambos modos usan el mismo tamaño de pool de conexiones, así la diferencia es solo el modelo de hilos.
+ * Reporta respuestas 200 por segundo con sus percentiles de latencia, los 503 por pool agotado, los
+ * demás errores y el pico de hilos de plataforma de la JVM. El modo hilos-virtuales solo se mide en
+ * Java 21 o posterior (compilar con mvn -Pjava21).
+ *
+ * Ejecutar con: mvn test-compile exec:java -Dexec.classpathScope=test
+ *   -Dexec.mainClass=com.estudiantes.controlEstudiantes.benchmark.CargaListadoCalificaciones
+ *   [-Dcarga.clientes=2000 -Dcarga.segundos=30 -Dcarga.calentamiento=10 -Dcarga.pool=10]
+ */
+public class CargaListadoCalificaciones {
+    
+    private static final int CLIENTES = Integer.getInteger("carga.clientes", 2_000);
+    private static final int SEGUNDOS = Integer.getInteger("carga.segundos", 30);
+    private static final int CALENTAMIENTO = Integer.getInteger("carga.calentamiento", 10);
+    private static final int POOL = Integer.getInteger("carga.pool", 10);
+    
+    private static final int ESTUDIANTES = 1_950;
+    private static final int PROFESORES = 50;
+    private static final int MATERIAS = 200;
+    private static final int CALIFICACIONES = 100_000;
+    
+    // Los datos de la carga usan ids altos para no chocar con los que crea DataLoader
+    private static final long DESPLAZAMIENTO_IDS = 1_000_000;
+    private static final DatosCalificaciones DATOS =
+            new DatosCalificaciones(DESPLAZAMIENTO_IDS, ESTUDIANTES, PROFESORES, MATERIAS, CALIFICACIONES);
+    
+    public static void main(String[] args) throws Exception {
+        List<String> modos = new ArrayList<>(List.of("plataforma"));
+        if (Runtime.version().feature() >= 21) {
+            modos.add("hilos-virtuales");
+        } else {
+            System.out.println("Java " + Runtime.version().feature() + ": el modo hilos-virtuales requiere Java 21, se mide solo plataforma");
+        }
+        
+        List<String> resultados = new ArrayList<>();
+        try (EmbeddedPostgres postgres = EmbeddedPostgres.start()) {
+            boolean datosCargados = false;
+            for (String modo : modos) {
+                ConfigurableApplicationContext contexto = iniciar(postgres, modo);
+                try {
+                    if (!datosCargados) {
+                        DATOS.cargar(new JdbcTemplate(contexto.getBean(DataSource.class)));
+                        datosCargados = true;
+                    }
+                    int puerto = ((WebServerApplicationContext) contexto).getWebServer().getPort();
+                    Carga carga = new Carga(puerto);
+                    carga.ejecutar(CALENTAMIENTO);
+                    resultados.add(String.format("%-16s %s", modo, carga.ejecutar(SEGUNDOS)));
+                    carga.cerrar();
+                } finally {
+                    contexto.close();
+                }
+            }
+        }
+        
+        System.out.println();
+        System.out.println(CLIENTES + " clientes, " + SEGUNDOS + " s, pool de " + POOL + " conexiones");
+        resultados.forEach(System.out::println);
+    }
+    
+    private static ConfigurableApplicationContext iniciar(EmbeddedPostgres postgres, String modo) {
+        return SpringApplication.run(ControlEstudiantesApplication.class,
+                "--spring.datasource.url=" + postgres.getJdbcUrl("postgres", "postgres"),
+                "--spring.datasource.username=postgres",
+                "--spring.datasource.password=",
+                "--spring.datasource.hikari.maximum-pool-size=" + POOL,
+                "--spring.profiles.active=" + ("plataforma".equals(modo) ? "default" : modo),
+                "--spring.jpa.show-sql=false",
+                "--spring.jpa.properties.hibernate.generate_statistics=false",
+                "--server.port=0");
+    }
+    
+    private static final class Carga {
+        private final HttpClient cliente;
+        private final ExecutorService ejecutor = Executors.newFixedThreadPool(16);
+        private final String base;
+        private final String token;
+        
+        private Carga(int puerto) throws Exception {
+            this.cliente = HttpClient.newBuilder()
+                    .executor(ejecutor)
+                    .connectTimeout(Duration.ofSeconds(30))
+                    .build();
+            this.base = "http://localhost:" + puerto + "/api";
+            HttpResponse<String> login = cliente.send(HttpRequest.newBuilder(URI.create(base + "/auth/login"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString("{\"email\":\"admin@sistema.com\",\"password\":\"admin123\"}"))
+                    .build(), HttpResponse.BodyHandlers.ofString());
+            this.token = login.body().replaceAll("(?s).*\"token\"\\s*:\\s*\"([^\"]+)\".*", "$1");
+        }
+        
+        String ejecutar(int segundos) throws InterruptedException {
+            ConcurrentLinkedQueue<Long> latencias = new ConcurrentLinkedQueue<>();
+            AtomicLong saturado = new AtomicLong();
+            AtomicLong errores = new AtomicLong();
+            CountDownLatch terminados = new CountDownLatch(CLIENTES);
+            ThreadMXBean hilos = ManagementFactory.getThreadMXBean();
+            hilos.resetPeakThreadCount();
+            
+            long fin = System.nanoTime() + segundos * 1_000_000_000L;
+            for (int i = 0; i < CLIENTES; i++) {
+                siguiente(fin, latencias, saturado, errores, terminados);
+            }
+            terminados.await();
+            
+            // Las latencias son solo de las respuestas 200: un 503 rápido no mejora los percentiles
+            long[] ordenadas = latencias.stream().mapToLong(Long::longValue).sorted().toArray();
+            return String.format("%6.0f ok/s  p50 %7.1f ms  p95 %7.1f ms  p99 %7.1f ms  max %7.1f ms  503 %6d  otros errores %d  hilos (pico) %d",
+                    ordenadas.length / (double) segundos, percentil(ordenadas, 50), percentil(ordenadas, 95),
+                    percentil(ordenadas, 99), percentil(ordenadas, 100), saturado.get(), errores.get(),
+                    hilos.getPeakThreadCount());
+        }
+        
+        void cerrar() {
+            ejecutor.shutdown();
+        }
+        
+        private void siguiente(long fin, ConcurrentLinkedQueue<Long> latencias, AtomicLong saturado, AtomicLong errores,
+                               CountDownLatch terminados) {
+            if (System.nanoTime() >= fin) {
+                terminados.countDown();
+                return;
+            }
+            long inicio = System.nanoTime();
+            cliente.sendAsync(peticionAleatoria(), HttpResponse.BodyHandlers.discarding())
+                    .whenCompleteAsync((respuesta, error) -> {
+                        if (error == null && respuesta.statusCode() == 200) {
+                            latencias.add(System.nanoTime() - inicio);
+                        } else if (error == null && respuesta.statusCode() == 503) {
+                            saturado.incrementAndGet();
+                        } else {
+                            errores.incrementAndGet();
+                        }
+                        siguiente(fin, latencias, saturado, errores, terminados);
+                    }, ejecutor);
+        }
+        
+        private HttpRequest peticionAleatoria() {
+            ThreadLocalRandom azar = ThreadLocalRandom.current();
+            String ruta;
+            switch (azar.nextInt(3)) {
+                case 0:
+                    ruta = "/calificaciones/estudiante/" + (DESPLAZAMIENTO_IDS + 1 + azar.nextInt(ESTUDIANTES));
+                    break;
+                case 1:
+                    ruta = "/calificaciones/materia/" + (DESPLAZAMIENTO_IDS + 1 + azar.nextInt(MATERIAS));
+                    break;
+                default:
+                    ruta = "/calificaciones/pagina?tamano=100&despuesDe=" + (DESPLAZAMIENTO_IDS + azar.nextInt(CALIFICACIONES));
+            }
+            return HttpRequest.newBuilder(URI.create(base + ruta))
+                    .header("Authorization", "Bearer " + token)
+                    .timeout(Duration.ofSeconds(60))
+                    .build();
+        }
+    }
+    
+    private static double percentil(long[] ordenadas, int percentil) {
+        if (ordenadas.length == 0) {
+            return 0;
+        }
+        int indice = Math.min(ordenadas.length - 1, (int) Math.ceil(percentil / 100.0 * ordenadas.length) - 1);
+        return ordenadas[Math.max(0, indice)] / 1_000_000.0;
+    }
+}
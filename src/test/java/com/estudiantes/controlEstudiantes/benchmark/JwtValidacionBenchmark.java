@@ -0,0 +1,92 @@
+package com.estudiantes.controlEstudiantes.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.estudiantes.controlEstudiantes.security.JwtUtils;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+
+/**
+ * Compara la validación de JWT por petición del filtro de autenticación:
+ * <ul>
+ *   <li>rutaAnterior: dos parseos completos, reconstruyendo clave y parser en cada llamada</li>
+ *   <li>parserPrecompilado: un parseo con clave y parser reutilizados</li>
+ *   <li>cacheClaims: validarYObtenerClaims con el token ya en caché (petición repetida de la sesión)</li>
+ * </ul>
+ *
+ * Ejecutar con: mvn test-compile exec:java -Dexec.classpathScope=test
+ *   -Dexec.mainClass=com.estudiantes.controlEstudiantes.benchmark.JwtValidacionBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtValidacionBenchmark {
+    
+    private static final String SECRETO = "miClaveSecretaMuySegura123456789012345678901234567890AbCdEfGhIjKlMnOpQrStUvWxYz";
+    
+    private JwtUtils jwtUtils;
+    private String token;
+    
+    @Setup
+    public void setup() {
+        jwtUtils = new JwtUtils();
+        ReflectionTestUtils.setField(jwtUtils, "jwtSecret", SECRETO);
+        ReflectionTestUtils.setField(jwtUtils, "jwtExpiration", 3600000L);
+        ReflectionTestUtils.setField(jwtUtils, "cacheMaxEntries", 10000);
+        jwtUtils.init();
+        token = jwtUtils.generateJwtToken("estudiante1@test.com");
+        jwtUtils.validarYObtenerClaims(token);
+    }
+    
+    @Benchmark
+    public String rutaAnterior() {
+        // Réplica del flujo previo: validateJwtToken + getEmailFromJwtToken, cada uno con su parser
+        Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(SECRETO.getBytes()))
+                .build()
+                .parseClaimsJws(token);
+        return Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(SECRETO.getBytes()))
+                .build()
+                .parseClaimsJws(token)
+                .getBody()
+                .getSubject();
+    }
+    
+    @Benchmark
+    public String parserPrecompilado() {
+        return jwtUtils.getEmailFromJwtToken(token);
+    }
+    
+    @Benchmark
+    public String cacheClaims() {
+        return jwtUtils.validarYObtenerClaims(token).getSubject();
+    }
+    
+    public static void main(String[] args) throws RunnerException {
+        Options opciones = new OptionsBuilder()
+                .include(JwtValidacionBenchmark.class.getSimpleName())
+                .build();
+        new Runner(opciones).run();
+    }
+}
@@ -0,0 +1,134 @@
+package com.estudiantes.controlEstudiantes.security;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.estudiantes.controlEstudiantes.exception.DemasiadosIntentosException;
+
+/**
+ * Cubetas de tokens con el reloj en nanos provisto por la prueba: recarga, espera informada, devolución
+ * de tokens y el límite de claves guardadas. También las devoluciones de LimitadorLogin a la IP. LimitadorTokens es de paquete, por eso la prueba vive aquí.
+ */
+class LimitadorTokensTests {
+
+    private static final long SEGUNDO = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void recargaAUnRitmoConstanteHastaLaCapacidad() {
+        // Dos de capacidad y uno por segundo
+        LimitadorTokens limitador = new LimitadorTokens(2, 60, 1_000);
+
+        Assertions.assertEquals(0, limitador.consumir("ip", 0));
+        Assertions.assertEquals(0, limitador.consumir("ip", 0));
+        Assertions.assertEquals(SEGUNDO, limitador.consumir("ip", 0), 1);
+        Assertions.assertEquals(SEGUNDO / 4, limitador.consumir("ip", SEGUNDO * 3 / 4), 1);
+        Assertions.assertEquals(0, limitador.consumir("ip", SEGUNDO));
+
+        // Tras mucho tiempo sin intentos no acumula más que la capacidad
+        long despues = 100 * SEGUNDO;
+        Assertions.assertEquals(0, limitador.consumir("ip", despues));
+        Assertions.assertEquals(0, limitador.consumir("ip", despues));
+        Assertions.assertTrue(limitador.consumir("ip", despues) > 0);
+    }
+
+    @Test
+    void devolverNoPasaDeLaCapacidad() {
+        LimitadorTokens limitador = new LimitadorTokens(2, 0, 1_000);
+
+        // Sin cubeta equivale a llena: devolver no agrega un tercer token
+        limitador.devolver("ip", 0);
+        Assertions.assertEquals(0, limitador.consumir("ip", 0));
+        limitador.devolver("ip", 0);
+        limitador.devolver("ip", 0);
+        Assertions.assertEquals(0, limitador.consumir("ip", 0));
+        Assertions.assertEquals(0, limitador.consumir("ip", 0));
+        // Sin recarga, la espera es indefinida
+        Assertions.assertEquals(Long.MAX_VALUE, limitador.consumir("ip", 0));
+
+        limitador.devolver("ip", 0);
+        Assertions.assertEquals(0, limitador.consumir("ip", 0));
+    }
+
+    @Test
+    void cadaFranjaGuardaALoSumoSuParteDeLasClaves() {
+        LimitadorTokens limitador = new LimitadorTokens(1, 0, 64);
+        Assertions.assertEquals(0, limitador.consumir("agotada", 0));
+        Assertions.assertTrue(limitador.consumir("agotada", 0) > 0);
+
+        for (int i = 0; i < 10_000; i++) {
+            limitador.consumir("clave" + i, 0);
+        }
+        Object[] franjas = (Object[]) ReflectionTestUtils.getField(limitador, "franjas");
+        for (Object franja : franjas) {
+            Assertions.assertTrue(((Map<?, ?>) ReflectionTestUtils.getField(franja, "cubetas")).size() <= 64 / franjas.length);
+        }
+        // La cubeta descartada por antigüedad vuelve llena
+        Assertions.assertEquals(0, limitador.consumir("agotada", 0));
+    }
+
+    @Test
+    void elRechazoInformaLosSegundosHastaElProximoIntento() {
+        LimitadorLogin limitador = crearLimitadorLogin(2, 4, 10, 10);
+
+        // Los exitosos devuelven su token: solo los fallidos agotan la IP
+        for (int i = 0; i < 5; i++) {
+            limitador.verificar("10.0.0.1", "usuario" + i + "@test.com");
+            limitador.registrarExito("10.0.0.1", "usuario" + i + "@test.com");
+        }
+        limitador.verificar("10.0.0.1", "a@test.com");
+        limitador.verificar("10.0.0.1", "b@test.com");
+        DemasiadosIntentosException rechazo = Assertions.assertThrows(DemasiadosIntentosException.class,
+                () -> limitador.verificar("10.0.0.1", "c@test.com"));
+        // Cuatro por minuto: un token cada 15 segundos
+        Assertions.assertTrue(rechazo.getSegundosReintento() > 0 && rechazo.getSegundosReintento() <= 15,
+                String.valueOf(rechazo.getSegundosReintento()));
+        Assertions.assertTrue(rechazo.getMessage().contains(rechazo.getSegundosReintento() + " segundos"));
+    }
+
+    @Test
+    void losExitososDevuelvenALaIpSoloHastaAgotarSusDevoluciones() {
+        // Sin recarga en la práctica (un token por minuto): tres devoluciones para la IP
+        LimitadorLogin limitador = crearLimitadorLogin(2, 1, 3, 10);
+
+        for (int i = 0; i < 3; i++) {
+            limitador.verificar("10.0.0.1", "valido@test.com");
+            limitador.registrarExito("10.0.0.1", "valido@test.com");
+        }
+        // Sin devoluciones, el cuarto exitoso gasta su token como un fallido
+        limitador.verificar("10.0.0.1", "valido@test.com");
+        limitador.registrarExito("10.0.0.1", "valido@test.com");
+        limitador.verificar("10.0.0.1", "otro@test.com");
+        Assertions.assertThrows(DemasiadosIntentosException.class, () -> limitador.verificar("10.0.0.1", "otro@test.com"));
+    }
+
+    @Test
+    void unLoginRechazadoPorSaturacionNoCuenta() {
+        LimitadorLogin limitador = crearLimitadorLogin(2, 1, 3, 1);
+
+        for (int i = 0; i < 5; i++) {
+            limitador.verificar("10.0.0.1", "usuario@test.com");
+            limitador.devolverIntento("10.0.0.1", "usuario@test.com");
+        }
+        limitador.verificar("10.0.0.1", "usuario@test.com");
+        Assertions.assertThrows(DemasiadosIntentosException.class, () -> limitador.verificar("10.0.0.2", "usuario@test.com"));
+        limitador.verificar("10.0.0.1", "otro@test.com");
+        Assertions.assertThrows(DemasiadosIntentosException.class, () -> limitador.verificar("10.0.0.1", "tercero@test.com"));
+    }
+
+    private static LimitadorLogin crearLimitadorLogin(int capacidadPorIp, int recargaPorIp, int devolucionesPorIp,
+                                                      int capacidadPorEmail) {
+        LimitadorLogin limitador = new LimitadorLogin();
+        ReflectionTestUtils.setField(limitador, "capacidadPorIp", capacidadPorIp);
+        ReflectionTestUtils.setField(limitador, "recargaPorIp", recargaPorIp);
+        ReflectionTestUtils.setField(limitador, "devolucionesPorIp", devolucionesPorIp);
+        ReflectionTestUtils.setField(limitador, "capacidadPorEmail", capacidadPorEmail);
+        ReflectionTestUtils.setField(limitador, "recargaPorEmail", capacidadPorEmail);
+        ReflectionTestUtils.setField(limitador, "maxClaves", 1_000);
+        limitador.init();
+        return limitador;
+    }
+}
@@ -0,0 +1,116 @@
+package com.estudiantes.controlEstudiantes.service;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Lectura fila por fila de los archivos de importación: columnas en cualquier orden, valores entre
+ * comillas (con comas, comillas escapadas y saltos de línea), líneas en blanco y filas que no se pueden
+ * interpretar, que se devuelven con su error y su número de línea sin cortar la lectura.
+ */
+class LectorImportacionEstudiantesTests {
+
+    @Test
+    void csvAdmiteColumnasEnCualquierOrdenYValoresEntreComillas() {
+        List<LectorImportacionEstudiantes.Fila> filas = leerCsv(
+                "Email,nombre,APELLIDO,cedula,carrera,semestre,fechaNacimiento,direccion,password\n" +
+                "ana@test.com,Ana,Pérez,12345678,Sistemas,3,2001-05-20,\"Calle 1, casa 2\",secreto\n" +
+                "\n" +
+                "luis@test.com,\"Luis \"\"Lucho\"\"\",Gómez,87654321,Sistemas,1,2002-01-15,\"Piso 3\n" +
+                "Depto B\",clave123\n");
+
+        Assertions.assertEquals(2, filas.size());
+
+        LectorImportacionEstudiantes.Fila ana = filas.get(0);
+        Assertions.assertNull(ana.getError());
+        Assertions.assertEquals(2, ana.getLinea());
+        Assertions.assertEquals("ana@test.com", ana.getEstudiante().getEmail());
+        Assertions.assertEquals("Pérez", ana.getEstudiante().getApellido());
+        Assertions.assertEquals(3, ana.getEstudiante().getSemestre());
+        Assertions.assertEquals(LocalDate.of(2001, 5, 20), ana.getEstudiante().getFechaNacimiento());
+        Assertions.assertEquals("Calle 1, casa 2", ana.getEstudiante().getDireccion());
+        Assertions.assertNull(ana.getEstudiante().getTelefono());
+
+        // El registro ocupa las líneas 4 y 5; se informa la última
+        LectorImportacionEstudiantes.Fila luis = filas.get(1);
+        Assertions.assertNull(luis.getError());
+        Assertions.assertEquals(5, luis.getLinea());
+        Assertions.assertEquals("Luis \"Lucho\"", luis.getEstudiante().getNombre());
+        Assertions.assertEquals("Piso 3\nDepto B", luis.getEstudiante().getDireccion());
+        Assertions.assertEquals("clave123", luis.getEstudiante().getPassword());
+    }
+
+    @Test
+    void csvDevuelveLasFilasInvalidasConSuErrorYSigueLeyendo() {
+        List<LectorImportacionEstudiantes.Fila> filas = leerCsv(
+                "nombre,email,semestre,fechaNacimiento\n" +
+                "Ana,ana@test.com,tercero,2001-05-20\n" +
+                "Luis,luis@test.com,2,20/01/2002\n" +
+                "Eva,eva@test.com,4,2000-12-01\n" +
+                "Sol,sol@test.com\n");
+
+        Assertions.assertEquals(4, filas.size());
+        Assertions.assertEquals("El semestre debe ser un número entero", filas.get(0).getError());
+        Assertions.assertNull(filas.get(0).getEstudiante());
+        Assertions.assertEquals(2, filas.get(0).getLinea());
+        Assertions.assertEquals("La fecha de nacimiento debe tener el formato AAAA-MM-DD", filas.get(1).getError());
+        Assertions.assertEquals(3, filas.get(1).getLinea());
+        Assertions.assertNull(filas.get(2).getError());
+        Assertions.assertEquals(4, filas.get(2).getEstudiante().getSemestre());
+
+        // Una fila con menos columnas deja las que faltan vacías: la validación del DTO la rechazará
+        Assertions.assertNull(filas.get(3).getError());
+        Assertions.assertNull(filas.get(3).getEstudiante().getSemestre());
+        Assertions.assertNull(filas.get(3).getEstudiante().getFechaNacimiento());
+    }
+
+    @Test
+    void csvVacioNoTieneFilas() {
+        Assertions.assertTrue(leerCsv("").isEmpty());
+        Assertions.assertTrue(leerCsv("nombre,email\n\n").isEmpty());
+    }
+
+    @Test
+    void ndjsonLeeUnObjetoPorLineaYSaltaLasLineasEnBlanco() {
+        List<LectorImportacionEstudiantes.Fila> filas = leer(LectorImportacionEstudiantes.ndjson(lector(
+                "{\"nombre\":\"Ana\",\"email\":\"ana@test.com\",\"semestre\":3,\"fechaNacimiento\":\"2001-05-20\"}\n" +
+                "\n" +
+                "{\"nombre\":\"Luis\",\"email\":\n" +
+                "{\"nombre\":\"Eva\",\"email\":\"eva@test.com\",\"direccion\":\"Calle 1, \\\"B\\\"\"}\n"),
+                new ObjectMapper().findAndRegisterModules()));
+
+        Assertions.assertEquals(3, filas.size());
+        Assertions.assertNull(filas.get(0).getError());
+        Assertions.assertEquals(1, filas.get(0).getLinea());
+        Assertions.assertEquals(LocalDate.of(2001, 5, 20), filas.get(0).getEstudiante().getFechaNacimiento());
+
+        Assertions.assertEquals(3, filas.get(1).getLinea());
+        Assertions.assertNull(filas.get(1).getEstudiante());
+        Assertions.assertTrue(filas.get(1).getError().startsWith("JSON inválido: "), filas.get(1).getError());
+
+        Assertions.assertEquals(4, filas.get(2).getLinea());
+        Assertions.assertEquals("Calle 1, \"B\"", filas.get(2).getEstudiante().getDireccion());
+    }
+
+    private static List<LectorImportacionEstudiantes.Fila> leerCsv(String contenido) {
+        return leer(LectorImportacionEstudiantes.csv(lector(contenido)));
+    }
+
+    private static BufferedReader lector(String contenido) {
+        return new BufferedReader(new StringReader(contenido));
+    }
+
+    private static List<LectorImportacionEstudiantes.Fila> leer(LectorImportacionEstudiantes lector) {
+        List<LectorImportacionEstudiantes.Fila> filas = new ArrayList<>();
+        lector.forEachRemaining(filas::add);
+        return filas;
+    }
+}
@@ -0,0 +1,183 @@
+package com.estudiantes.controlEstudiantes.soporte;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * DataSource que cuenta las sentencias JDBC preparadas sobre sus conexiones (Hibernate, JdbcTemplate
+ * o cualquier otro cliente). Un lote JDBC cuenta como una sentencia: se mide viajes a la base, no filas.
+ * También cuenta las conexiones pedidas, una por transacción.
+ *
+ * Con {@link #setCapturar(boolean)} además guarda el SQL de cada sentencia preparada y los parámetros
+ * que recibe, para volver a ejecutarla tal cual la generó Hibernate (por ejemplo, bajo EXPLAIN).
+ *
+ * Se registra en el contexto de prueba con {@link #envolverDataSource()}.
+ */
+public class ContadorSentenciasDataSource extends DelegatingDataSource {
+
+    private static final Set<String> METODOS_SENTENCIA = Set.of("prepareStatement", "createStatement", "prepareCall");
+
+    private final AtomicLong sentencias = new AtomicLong();
+    private final AtomicLong conexiones = new AtomicLong();
+    private final List<SentenciaCapturada> capturadas = new CopyOnWriteArrayList<>();
+    private volatile boolean capturar;
+
+    public ContadorSentenciasDataSource(DataSource destino) {
+        super(destino);
+    }
+
+    // Envuelve el DataSource de la aplicación en cuanto se crea
+    public static BeanPostProcessor envolverDataSource() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ContadorSentenciasDataSource)
+                        && "dataSource".equals(beanName)) {
+                    return new ContadorSentenciasDataSource(dataSource);
+                }
+                return bean;
+            }
+        };
+    }
+
+    public void reiniciar() {
+        sentencias.set(0);
+        conexiones.set(0);
+        capturadas.clear();
+    }
+
+    public void setCapturar(boolean capturar) {
+        this.capturar = capturar;
+    }
+
+    public List<SentenciaCapturada> getCapturadas() {
+        return List.copyOf(capturadas);
+    }
+
+    public long getSentencias() {
+        return sentencias.get();
+    }
+
+    public long getConexiones() {
+        return conexiones.get();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return contar(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return contar(super.getConnection(username, password));
+    }
+
+    private Connection contar(Connection conexion) {
+        conexiones.incrementAndGet();
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[] {Connection.class},
+                (proxy, metodo, argumentos) -> {
+                    switch (metodo.getName()) {
+                        case "equals":
+                            return proxy == argumentos[0];
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        default:
+                            if (METODOS_SENTENCIA.contains(metodo.getName())) {
+                                sentencias.incrementAndGet();
+                            }
+                    }
+                    Object resultado = invocar(metodo, conexion, argumentos);
+                    if (capturar && "prepareStatement".equals(metodo.getName())) {
+                        SentenciaCapturada capturada = new SentenciaCapturada((String) argumentos[0]);
+                        capturadas.add(capturada);
+                        return capturada.registrarParametros((PreparedStatement) resultado);
+                    }
+                    return resultado;
+                });
+    }
+
+    private static Object invocar(Method metodo, Object destino, Object[] argumentos) throws Throwable {
+        try {
+            return metodo.invoke(destino, argumentos);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+
+    /**
+     * SQL de una sentencia preparada y las llamadas set* con que se le asignaron parámetros.
+     */
+    public static final class SentenciaCapturada {
+        private final String sql;
+        private final List<Asignacion> asignaciones = new CopyOnWriteArrayList<>();
+
+        private SentenciaCapturada(String sql) {
+            this.sql = sql;
+        }
+
+        public String getSql() {
+            return sql;
+        }
+
+        // Prepara prefijo + SQL (por ejemplo "EXPLAIN ") con los mismos parámetros que la original
+        public PreparedStatement preparar(Connection conexion, String prefijo) throws SQLException {
+            PreparedStatement sentencia = conexion.prepareStatement(prefijo + sql);
+            try {
+                for (Asignacion asignacion : asignaciones) {
+                    invocar(asignacion.metodo, sentencia, asignacion.argumentos);
+                }
+            } catch (Throwable e) {
+                sentencia.close();
+                throw new SQLException("No se pudieron repetir los parámetros de: " + sql, e);
+            }
+            return sentencia;
+        }
+
+        private PreparedStatement registrarParametros(PreparedStatement sentencia) {
+            return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+                    new Class<?>[] {PreparedStatement.class}, (proxy, metodo, argumentos) -> {
+                        switch (metodo.getName()) {
+                            case "equals":
+                                return proxy == argumentos[0];
+                            case "hashCode":
+                                return System.identityHashCode(proxy);
+                            default:
+                                // setInt(indice, valor), setString(indice, valor), setNull(indice, tipo)...
+                                if (metodo.getName().startsWith("set") && argumentos != null && argumentos.length >= 2
+                                        && metodo.getParameterTypes()[0] == int.class) {
+                                    asignaciones.add(new Asignacion(metodo, argumentos.clone()));
+                                }
+                        }
+                        return invocar(metodo, sentencia, argumentos);
+                    });
+        }
+
+        @Override
+        public String toString() {
+            return sql;
+        }
+    }
+
+    private static final class Asignacion {
+        private final Method metodo;
+        private final Object[] argumentos;
+
+        private Asignacion(Method metodo, Object[] argumentos) {
+            this.metodo = metodo;
+            this.argumentos = argumentos;
+        }
+    }
+}
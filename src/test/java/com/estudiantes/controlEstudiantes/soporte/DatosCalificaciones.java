@@ -0,0 +1,106 @@
+package com.estudiantes.controlEstudiantes.soporte;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Volumen de datos para pruebas y benchmarks: estudiantes, profesores, materias y calificaciones
+ * generados con generate_series en tres INSERT, seguidos de VACUUM ANALYZE para que el planificador
+ * trabaje con estadísticas reales.
+ *
+ * Los ids parten de un desplazamiento para no chocar con los que crea DataLoader. Las filas cumplen
+ * las validaciones de las entidades (cédula de 8 o más caracteres), así las pruebas pueden modificarlas
+ * a través de la API. Con los índices
+ * base 1 de cada tabla: estudiante i = desplazamiento + i, profesor i = desplazamiento + estudiantes + i,
+ * materia i = desplazamiento + i. Cada estudiante y materia pertenece a la carrera 'Carrera' || (i % 8),
+ * y la calificación i va al estudiante 1 + i % estudiantes en la materia 1 + (i * 7) % materias.
+ */
+public class DatosCalificaciones {
+
+    private final long desplazamientoIds;
+    private final int estudiantes;
+    private final int profesores;
+    private final int materias;
+    private final int calificaciones;
+
+    private long profesorFijo;
+    private int materiasDelProfesorFijo;
+    private long estudianteFijo;
+    private int cadaCalificacionesDelEstudianteFijo;
+
+    public DatosCalificaciones(long desplazamientoIds, int estudiantes, int profesores, int materias, int calificaciones) {
+        this.desplazamientoIds = desplazamientoIds;
+        this.estudiantes = estudiantes;
+        this.profesores = profesores;
+        this.materias = materias;
+        this.calificaciones = calificaciones;
+    }
+
+    // Las primeras materias las dicta un profesor existente (por ejemplo, uno de DataLoader con sesión)
+    public DatosCalificaciones conProfesor(long profesorId, int primerasMaterias) {
+        this.profesorFijo = profesorId;
+        this.materiasDelProfesorFijo = primerasMaterias;
+        return this;
+    }
+
+    // Una de cada n calificaciones va a un estudiante existente en lugar de a uno generado
+    public DatosCalificaciones conEstudiante(long estudianteId, int cada) {
+        this.estudianteFijo = estudianteId;
+        this.cadaCalificacionesDelEstudianteFijo = cada;
+        return this;
+    }
+
+    public void cargar(JdbcTemplate jdbcTemplate) {
+        jdbcTemplate.execute(
+            "INSERT INTO estudiantes (id, activo, fecha_nacimiento, semestre, fecha_creacion, cedula, apellido, " +
+            "nombre, carrera, email, password, rol) " +
+            "SELECT " + desplazamientoIds + " + i, true, DATE '2000-01-01', 1 + i % 10, now(), " +
+            "'C' || (10000000 + " + desplazamientoIds + " + i), 'Apellido' || i, 'Nombre' || i, 'Carrera' || (i % 8), " +
+            "'usuario' || i || '@test.com', repeat('x', 60), " +
+            "CASE WHEN i > " + estudiantes + " THEN 'PROFESOR' ELSE 'ESTUDIANTE' END " +
+            "FROM generate_series(1, " + (estudiantes + profesores) + ") AS i");
+        jdbcTemplate.execute(
+            "INSERT INTO materias (id, activa, creditos, semestre, fecha_creacion, profesor_id, codigo, carrera, nombre) " +
+            "SELECT " + desplazamientoIds + " + i, true, 3, 1 + i % 10, now(), " +
+            "CASE WHEN i <= " + materiasDelProfesorFijo + " THEN " + profesorFijo + " " +
+            "ELSE " + (desplazamientoIds + estudiantes) + " + 1 + i % " + profesores + " END, " +
+            "'PR' || i, 'Carrera' || (i % 8), 'Materia ' || i " +
+            "FROM generate_series(1, " + materias + ") AS i");
+        String estudiante = desplazamientoIds + " + 1 + i % " + estudiantes;
+        if (cadaCalificacionesDelEstudianteFijo > 0) {
+            estudiante = "CASE WHEN i % " + cadaCalificacionesDelEstudianteFijo + " = 0 THEN " + estudianteFijo +
+                    " ELSE " + estudiante + " END";
+        }
+        jdbcTemplate.execute(
+            "INSERT INTO calificaciones (id, nota, estudiante_id, fecha_creacion, materia_id, profesor_id, " +
+            "tipo_evaluacion, observaciones) " +
+            "SELECT " + desplazamientoIds + " + i, ((i * 37) % 51) / 10.0, " + estudiante + ", now(), " +
+            "m.id, m.profesor_id, 'Parcial', 'Observación ' || i " +
+            "FROM generate_series(1, " + calificaciones + ") AS i " +
+            "JOIN materias m ON m.id = " + desplazamientoIds + " + 1 + (i * 7) % " + materias);
+        jdbcTemplate.execute("VACUUM ANALYZE");
+    }
+
+    public long idEstudiante(int indice) {
+        return desplazamientoIds + indice;
+    }
+
+    public long idProfesor(int indice) {
+        return desplazamientoIds + estudiantes + indice;
+    }
+
+    public long idMateria(int indice) {
+        return desplazamientoIds + indice;
+    }
+
+    public int getEstudiantes() {
+        return estudiantes;
+    }
+
+    public int getMaterias() {
+        return materias;
+    }
+
+    public int getCalificaciones() {
+        return calificaciones;
+    }
+}
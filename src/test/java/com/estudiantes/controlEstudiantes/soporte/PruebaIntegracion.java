@@ -0,0 +1,157 @@
+package com.estudiantes.controlEstudiantes.soporte;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+
+import java.sql.SQLException;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import com.estudiantes.controlEstudiantes.service.AutocompletadoMaterias;
+import com.estudiantes.controlEstudiantes.service.PromediosCalificaciones;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+/**
+ * Base de las pruebas de integración: la aplicación completa con MockMvc sobre un PostgreSQL embebido
+ * propio de cada clase, con DataLoader y el volumen de {@link #datos} cargados, y sesiones iniciadas
+ * para el admin, profesor1 y estudiante1. El DataSource de la aplicación cuenta sus sentencias
+ * ({@link #contador()}) y el perfilador SQL mide todas, así cada caso pasa también por sus proxies JDBC.
+ *
+ * Cada clase recibe un contexto y una base nuevos: las escrituras de una no cambian los datos de otra.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@Import(PruebaIntegracion.ConfiguracionContador.class)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public abstract class PruebaIntegracion {
+
+    private static EmbeddedPostgres postgres;
+
+    @TestConfiguration
+    static class ConfiguracionContador {
+        @Bean
+        static BeanPostProcessor contadorSentencias() {
+            return ContadorSentenciasDataSource.envolverDataSource();
+        }
+    }
+
+    @DynamicPropertySource
+    static void configurarBaseDeDatos(DynamicPropertyRegistry registro) throws Exception {
+        postgres = EmbeddedPostgres.start();
+        registro.add("spring.datasource.url", () -> postgres.getJdbcUrl("postgres", "postgres") + "&reWriteBatchedInserts=true");
+        registro.add("spring.datasource.username", () -> "postgres");
+        registro.add("spring.datasource.password", () -> "");
+        registro.add("sql.perfilado.muestreo", () -> "1");
+    }
+
+    @Autowired
+    protected MockMvc mockMvc;
+
+    @Autowired
+    protected DataSource dataSource;
+
+    @Autowired
+    protected ObjectMapper objectMapper;
+
+    @Autowired
+    private PromediosCalificaciones promediosCalificaciones;
+
+    @Autowired
+    private AutocompletadoMaterias autocompletadoMaterias;
+
+    protected JdbcTemplate jdbcTemplate;
+    protected DatosCalificaciones datos;
+    protected String tokenAdmin;
+    protected String tokenProfesor;
+    protected String tokenEstudiante;
+    protected long idProfesor;
+    protected long idEstudiante;
+
+    @BeforeAll
+    void cargarDatos() throws Exception {
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        idProfesor = jdbcTemplate.queryForObject("SELECT id FROM estudiantes WHERE email = 'profesor1@test.com'", Long.class);
+        idEstudiante = jdbcTemplate.queryForObject("SELECT id FROM estudiantes WHERE email = 'estudiante1@test.com'", Long.class);
+
+        datos = crearDatos();
+        datos.cargar(jdbcTemplate);
+        promediosCalificaciones.reconstruir();
+        autocompletadoMaterias.reconstruir();
+
+        tokenAdmin = iniciarSesion("admin@sistema.com", "admin123");
+        tokenProfesor = iniciarSesion("profesor1@test.com", "prof123");
+        tokenEstudiante = iniciarSesion("estudiante1@test.com", "123456");
+    }
+
+    /**
+     * Volumen por defecto, ids desde 10.000 para no chocar con DataLoader: las primeras diez materias las
+     * dicta profesor1 y una de cada 250 notas es de estudiante1. Una clase que necesite otro volumen
+     * (por ejemplo, para que el planificador elija como en producción) lo redefine.
+     */
+    protected DatosCalificaciones crearDatos() {
+        return new DatosCalificaciones(10_000, 500, 20, 40, 10_000)
+                .conProfesor(idProfesor, 10)
+                .conEstudiante(idEstudiante, 250);
+    }
+
+    @AfterAll
+    void detenerBaseDeDatos() throws Exception {
+        postgres.close();
+    }
+
+    // El perfilador SQL puede envolver al contador: se busca en la cadena de DataSource
+    protected ContadorSentenciasDataSource contador() throws SQLException {
+        return dataSource.unwrap(ContadorSentenciasDataSource.class);
+    }
+
+    // Ejecuta la petición con el token dado (o sin autenticar si es null)
+    protected MvcResult ejecutar(MockHttpServletRequestBuilder peticion, String token) throws Exception {
+        if (token != null) {
+            peticion.header(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+        }
+        return mockMvc.perform(peticion).andReturn();
+    }
+
+    // Cambia la nota de una calificación a través de la API, como profesor1
+    protected void actualizarNota(long calificacion, String nota) throws Exception {
+        long estudiante = jdbcTemplate.queryForObject(
+                "SELECT estudiante_id FROM calificaciones WHERE id = ?", Long.class, calificacion);
+        long materia = jdbcTemplate.queryForObject(
+                "SELECT materia_id FROM calificaciones WHERE id = ?", Long.class, calificacion);
+        MvcResult resultado = ejecutar(put("/api/calificaciones/" + calificacion).contentType(MediaType.APPLICATION_JSON)
+                .content("{\"estudianteId\":" + estudiante + ",\"materiaId\":" + materia + ",\"nota\":" + nota +
+                        ",\"tipoEvaluacion\":\"Parcial\"}"), tokenProfesor);
+        Assertions.assertEquals(200, resultado.getResponse().getStatus());
+    }
+
+    protected String iniciarSesion(String email, String password) throws Exception {
+        MvcResult resultado = mockMvc.perform(post("/api/auth/login").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"email\":\"" + email + "\",\"password\":\"" + password + "\"}"))
+                .andReturn();
+        return objectMapper.readTree(resultado.getResponse().getContentAsString()).get("token").asText();
+    }
+}